@@ -11,14 +11,21 @@
 package ai.picovoice.leopard;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
 
 /**
  * Android binding for Leopard Speech-to-Text engine.
@@ -38,6 +45,10 @@ public class Leopard {
             "webm"
     };
 
+    private static final String EXTRACTION_PREFERENCES = "ai.picovoice.leopard.extraction";
+    private static final int EXTRACTION_BUFFER_SIZE = 64 * 1024;
+    private static final long EXTRACTION_PROGRESS_INTERVAL = 1024 * 1024;
+
     static {
         System.loadLibrary("pv_leopard");
     }
@@ -94,25 +105,108 @@ public class Leopard {
                 enableDiarization);
     }
 
+    /**
+     * Copies an asset into the app's files directory, unless a copy made from the same asset by the same
+     * installation of the app already exists there. Uncompressed assets are copied straight out of the APK
+     * with a channel transfer; compressed assets are streamed through a bulk buffer.
+     */
     private static String extractResource(
             Context context,
-            InputStream srcFileStream,
-            String dstFilename) throws IOException {
-        InputStream is = new BufferedInputStream(
-                srcFileStream,
-                256);
-        OutputStream os = new BufferedOutputStream(
-                context.openFileOutput(dstFilename, Context.MODE_PRIVATE),
-                256);
-        int r;
-        while ((r = is.read()) != -1) {
-            os.write(r);
+            String assetPath,
+            String dstFilename,
+            ProgressListener progressListener) throws IOException {
+        final File dstFile = new File(context.getFilesDir(), dstFilename);
+        final String extractionKey = getExtractionKey(context, assetPath);
+        final SharedPreferences preferences = context.getSharedPreferences(
+                EXTRACTION_PREFERENCES,
+                Context.MODE_PRIVATE);
+        final String extractedKey = preferences.getString(dstFilename, null);
+        if (dstFile.exists() && (extractionKey + ":" + dstFile.length()).equals(extractedKey)) {
+            return dstFile.getAbsolutePath();
+        }
+
+        final File tmpFile = new File(context.getFilesDir(), dstFilename + ".tmp");
+        long numBytes;
+        try (AssetFileDescriptor afd = context.getAssets().openFd(assetPath)) {
+            numBytes = copyUncompressed(afd, tmpFile, progressListener);
+        } catch (FileNotFoundException e) {
+            // `openFd` only works for assets stored uncompressed in the APK
+            numBytes = copyStream(context.getAssets().open(assetPath), tmpFile, progressListener);
         }
-        os.flush();
 
-        is.close();
-        os.close();
-        return new File(context.getFilesDir(), dstFilename).getAbsolutePath();
+        if (!tmpFile.renameTo(dstFile)) {
+            tmpFile.delete();
+            throw new IOException(String.format("Failed to move extracted asset to '%s'", dstFile));
+        }
+        preferences.edit().putString(dstFilename, extractionKey + ":" + numBytes).apply();
+        return dstFile.getAbsolutePath();
+    }
+
+    private static String getExtractionKey(Context context, String assetPath) {
+        long lastUpdateTime;
+        try {
+            lastUpdateTime = context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0)
+                    .lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            lastUpdateTime = 0;
+        }
+        return assetPath + ":" + lastUpdateTime;
+    }
+
+    private static long copyUncompressed(
+            AssetFileDescriptor afd,
+            File dstFile,
+            ProgressListener progressListener) throws IOException {
+        try (FileChannel src = new FileInputStream(afd.getFileDescriptor()).getChannel();
+                FileChannel dst = new FileOutputStream(dstFile).getChannel()) {
+            final long start = afd.getStartOffset();
+            final long length = afd.getLength();
+            long position = 0;
+            while (position < length) {
+                long chunkLength = Math.min(length - position, EXTRACTION_PROGRESS_INTERVAL);
+                long transferred = src.transferTo(start + position, chunkLength, dst);
+                if (transferred <= 0) {
+                    throw new IOException("Failed to extract asset: unexpected end of file");
+                }
+                position += transferred;
+                if (progressListener != null) {
+                    progressListener.onProgress(position, length);
+                }
+            }
+            return length;
+        }
+    }
+
+    private static long copyStream(
+            InputStream srcStream,
+            File dstFile,
+            ProgressListener progressListener) throws IOException {
+        try (InputStream is = srcStream;
+                FileOutputStream os = new FileOutputStream(dstFile)) {
+            // asset streams report the remaining uncompressed size
+            final long numBytesTotal = is.available() > 0 ? is.available() : -1;
+            final byte[] buffer = new byte[EXTRACTION_BUFFER_SIZE];
+            long numBytes = 0;
+            long nextProgress = EXTRACTION_PROGRESS_INTERVAL;
+            int r;
+            while ((r = is.read(buffer)) != -1) {
+                os.write(buffer, 0, r);
+                numBytes += r;
+                if (progressListener != null && numBytes >= nextProgress) {
+                    progressListener.onProgress(numBytes, numBytesTotal);
+                    nextProgress += EXTRACTION_PROGRESS_INTERVAL;
+                }
+            }
+            if (progressListener != null) {
+                progressListener.onProgress(numBytes, numBytesTotal);
+            }
+            return numBytes;
+        }
+    }
+
+    private interface ProgressListener {
+        void onProgress(long numBytesCopied, long numBytesTotal);
     }
 
     /**
@@ -271,6 +365,41 @@ public class Leopard {
          * Creates an instance of Leopard Speech-to-Text engine.
          */
         public Leopard build(Context context) throws LeopardException {
+            return buildWithProgress(context, null);
+        }
+
+        /**
+         * Creates an instance of Leopard Speech-to-Text engine on `executor`, so that model extraction and
+         * initialization do not block the calling thread. Results and extraction progress are delivered to
+         * `callback` on the main thread. The builder must not be modified until the callback completes.
+         *
+         * @param context  Android app context.
+         * @param executor Executor to run extraction and initialization on.
+         * @param callback Callback that receives progress and the result.
+         */
+        public void buildAsync(Context context, Executor executor, LeopardBuildCallback callback) {
+            if (executor == null || callback == null) {
+                throw new IllegalArgumentException("Executor and callback must not be null");
+            }
+            final Context appContext = context.getApplicationContext();
+            final Handler mainHandler = new Handler(Looper.getMainLooper());
+            executor.execute(() -> {
+                try {
+                    final Leopard leopard = buildWithProgress(
+                            appContext,
+                            (numBytesCopied, numBytesTotal) -> mainHandler.post(
+                                    () -> callback.onExtractionProgress(numBytesCopied, numBytesTotal)));
+                    mainHandler.post(() -> callback.onSuccess(leopard));
+                } catch (LeopardException e) {
+                    mainHandler.post(() -> callback.onError(e));
+                } catch (RuntimeException e) {
+                    // e.g. a bad context or asset; the callback must still hear back
+                    mainHandler.post(() -> callback.onError(new LeopardException(e)));
+                }
+            });
+        }
+
+        private Leopard buildWithProgress(Context context, ProgressListener progressListener) throws LeopardException {
             if (accessKey == null || this.accessKey.equals("")) {
                 throw new LeopardInvalidArgumentException("No AccessKey was provided to Leopard");
             }
@@ -283,8 +412,9 @@ public class Leopard {
                 if (!modelFile.exists() && !modelFilename.equals("")) {
                     try {
                         modelPath = extractResource(context,
-                                context.getAssets().open(modelPath),
-                                modelFilename);
+                                modelPath,
+                                modelFilename,
+                                progressListener);
                     } catch (IOException ex) {
                         throw new LeopardIOException(ex);
                     }
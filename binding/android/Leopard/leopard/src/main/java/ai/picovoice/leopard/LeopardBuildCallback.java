@@ -0,0 +1,42 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+/**
+ * Callback for {@link Leopard.Builder#buildAsync}. All methods are invoked on the main thread.
+ */
+public interface LeopardBuildCallback {
+
+    /**
+     * Reports progress while the model is copied out of the app assets. Not invoked when the model is
+     * loaded from a file path or a previously extracted copy is reused.
+     *
+     * @param numBytesCopied Number of bytes copied so far.
+     * @param numBytesTotal  Size of the model in bytes, or `-1` if unknown.
+     */
+    void onExtractionProgress(long numBytesCopied, long numBytesTotal);
+
+    /**
+     * Invoked once the engine is initialized.
+     *
+     * @param leopard Initialized Leopard instance.
+     */
+    void onSuccess(Leopard leopard);
+
+    /**
+     * Invoked if initialization fails.
+     *
+     * @param error Initialization error.
+     */
+    void onError(LeopardException error);
+}
@@ -0,0 +1,301 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects audio frames from a recorder (e.g. a `VoiceProcessor` frame listener) and transcribes them
+ * with Leopard.
+ *
+ * <p>Frames are copied into fixed-size primitive chunks, so recording never boxes samples and never
+ * re-copies audio that was already buffered. When a segment duration is set, completed segments are cut at a
+ * quiet frame and transcribed in the background while recording continues, so {@link #stop()} only has to
+ * transcribe the audio after the last cut. Speaker tags of diarized transcripts are only consistent within a
+ * segment. Segments run on a daemon thread that exits when the session is stopped or cancelled, or after it has
+ * been idle for 30 seconds.
+ */
+public class LeopardRecorderSession {
+
+    private static final int CHUNK_LENGTH = 16 * 1024;
+    private static final float MAX_SEGMENT_OVERRUN = 1.5f;
+    private static final int SILENCE_MEAN_AMPLITUDE = 500;
+
+    private final Leopard leopard;
+    private final int sampleRate;
+    private final int segmentLength;
+    private final ExecutorService executor;
+
+    private final ArrayDeque<short[]> chunks = new ArrayDeque<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private long firstChunkSample = 0;
+    private long numSamples = 0;
+    private long segmentStartSample = 0;
+    private boolean isStopped = false;
+
+    /**
+     * Constructor for a session that transcribes all audio when it is stopped.
+     *
+     * @param leopard Leopard instance used for transcription. It must not be used elsewhere while the
+     *                session is active.
+     */
+    public LeopardRecorderSession(Leopard leopard) {
+        this(leopard, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param leopard            Leopard instance used for transcription. It must not be used elsewhere while
+     *                           the session is active.
+     * @param segmentDurationSec Duration of audio after which a segment is transcribed in the background. Set
+     *                           to `0` to transcribe all audio when the session is stopped.
+     */
+    public LeopardRecorderSession(Leopard leopard, float segmentDurationSec) {
+        if (leopard == null) {
+            throw new IllegalArgumentException("Leopard must not be null");
+        }
+        if (segmentDurationSec < 0) {
+            throw new IllegalArgumentException("Segment duration must not be negative");
+        }
+        this.leopard = leopard;
+        this.sampleRate = leopard.getSampleRate();
+        this.segmentLength = (int) (segmentDurationSec * sampleRate);
+        this.executor = segmentLength > 0 ? createSegmentExecutor() : null;
+    }
+
+    private static ExecutorService createSegmentExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "leopard-recorder-session");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Appends a frame of audio. The frame is copied, so the caller may reuse it.
+     *
+     * @param frame Audio samples with a sample rate equal to {@link Leopard#getSampleRate()}.
+     */
+    public synchronized void appendFrame(short[] frame) {
+        if (isStopped) {
+            throw new IllegalStateException("Attempted to append audio to a stopped LeopardRecorderSession");
+        }
+
+        int offset = 0;
+        while (offset < frame.length) {
+            final long bufferedLength = numSamples - firstChunkSample;
+            if (bufferedLength == (long) chunks.size() * CHUNK_LENGTH) {
+                chunks.addLast(new short[CHUNK_LENGTH]);
+            }
+            final int chunkOffset = (int) (bufferedLength % CHUNK_LENGTH);
+            final int length = Math.min(frame.length - offset, CHUNK_LENGTH - chunkOffset);
+            System.arraycopy(frame, offset, chunks.peekLast(), chunkOffset, length);
+            offset += length;
+            numSamples += length;
+        }
+
+        if (segmentLength > 0) {
+            final long pendingLength = numSamples - segmentStartSample;
+            final boolean isQuiet = meanAmplitude(frame) < SILENCE_MEAN_AMPLITUDE;
+            if ((pendingLength >= segmentLength && isQuiet) ||
+                    pendingLength >= segmentLength * MAX_SEGMENT_OVERRUN) {
+                submitSegment(numSamples);
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of samples recorded so far.
+     *
+     * @return Number of recorded samples.
+     */
+    public synchronized long getNumSamples() {
+        return numSamples;
+    }
+
+    /**
+     * Stops the session and returns the transcription of all recorded audio. Blocks until background
+     * segments have been transcribed.
+     *
+     * @return Transcription of the session, with word timestamps relative to the start of the session.
+     * @throws LeopardException if transcription fails.
+     */
+    public LeopardTranscript stop() throws LeopardException {
+        final List<Segment> pending;
+        final short[] remainder;
+        final long remainderStartSample;
+        synchronized (this) {
+            if (isStopped) {
+                throw new LeopardInvalidStateException("LeopardRecorderSession was already stopped");
+            }
+            isStopped = true;
+            try {
+                remainderStartSample = segmentStartSample;
+                remainder = copySamples(segmentStartSample, numSamples);
+                pending = new ArrayList<>(segments);
+            } catch (RuntimeException | Error e) {
+                shutdownExecutor();
+                throw e;
+            } finally {
+                chunks.clear();
+                segments.clear();
+            }
+        }
+
+        try {
+            final List<LeopardTranscript> transcripts = new ArrayList<>(pending.size() + 1);
+            final List<Long> startSamples = new ArrayList<>(pending.size() + 1);
+            for (Segment segment : pending) {
+                transcripts.add(segment.result.get());
+                startSamples.add(segment.startSample);
+            }
+            if (remainder.length > 0) {
+                transcripts.add(leopard.process(remainder));
+                startSamples.add(remainderStartSample);
+            }
+            return merge(transcripts, startSamples);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeopardException) {
+                throw (LeopardException) e.getCause();
+            }
+            throw new LeopardException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        } finally {
+            // segments still queued after a failure are not needed any more
+            shutdownExecutor();
+        }
+    }
+
+    /**
+     * Stops the session without transcribing the audio that is not transcribed yet. Segments queued for
+     * transcription are dropped. Does nothing if the session was already stopped.
+     */
+    public synchronized void cancel() {
+        if (isStopped) {
+            return;
+        }
+        isStopped = true;
+        chunks.clear();
+        segments.clear();
+        shutdownExecutor();
+    }
+
+    private void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitSegment(long endSample) {
+        final short[] pcm = copySamples(segmentStartSample, endSample);
+        final long startSample = segmentStartSample;
+        segments.add(new Segment(startSample, executor.submit(() -> leopard.process(pcm))));
+        segmentStartSample = endSample;
+
+        // release chunks that only hold audio of submitted segments
+        while (segmentStartSample - firstChunkSample >= CHUNK_LENGTH) {
+            chunks.pollFirst();
+            firstChunkSample += CHUNK_LENGTH;
+        }
+    }
+
+    private short[] copySamples(long startSample, long endSample) {
+        final short[] pcm = new short[(int) (endSample - startSample)];
+        long chunkStart = firstChunkSample;
+        int copied = 0;
+        for (short[] chunk : chunks) {
+            if (copied == pcm.length) {
+                break;
+            }
+            final long chunkEnd = chunkStart + CHUNK_LENGTH;
+            if (chunkEnd > startSample) {
+                final int from = (int) Math.max(0, startSample - chunkStart);
+                final int length = (int) Math.min(CHUNK_LENGTH - from, pcm.length - copied);
+                System.arraycopy(chunk, from, pcm, copied, length);
+                copied += length;
+            }
+            chunkStart = chunkEnd;
+        }
+        return pcm;
+    }
+
+    private LeopardTranscript merge(List<LeopardTranscript> transcripts, List<Long> startSamples) {
+        if (transcripts.size() == 1 && startSamples.get(0) == 0) {
+            return transcripts.get(0);
+        }
+
+        final StringBuilder transcriptString = new StringBuilder();
+        final List<LeopardTranscript.Word> words = new ArrayList<>();
+        for (int i = 0; i < transcripts.size(); i++) {
+            final LeopardTranscript transcript = transcripts.get(i);
+            final float offsetSec = startSamples.get(i) / (float) sampleRate;
+            if (!transcript.getTranscriptString().isEmpty()) {
+                if (transcriptString.length() > 0) {
+                    transcriptString.append(' ');
+                }
+                transcriptString.append(transcript.getTranscriptString());
+            }
+            for (LeopardTranscript.Word word : transcript.getWordArray()) {
+                words.add(new LeopardTranscript.Word(
+                        word.getWord(),
+                        word.getConfidence(),
+                        word.getStartSec() + offsetSec,
+                        word.getEndSec() + offsetSec,
+                        word.getSpeakerTag()));
+            }
+        }
+        return new LeopardTranscript(
+                transcriptString.toString(),
+                words.toArray(new LeopardTranscript.Word[0]));
+    }
+
+    private static int meanAmplitude(short[] frame) {
+        if (frame.length == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (short sample : frame) {
+            sum += Math.abs(sample);
+        }
+        return (int) (sum / frame.length);
+    }
+
+    private static class Segment {
+        private final long startSample;
+        private final Future<LeopardTranscript> result;
+
+        Segment(long startSample, Future<LeopardTranscript> result) {
+            this.startSample = startSample;
+            this.result = result;
+        }
+    }
+}
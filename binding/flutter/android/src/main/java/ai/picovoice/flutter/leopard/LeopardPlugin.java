@@ -16,6 +16,8 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -29,10 +31,12 @@ import ai.picovoice.leopard.LeopardInvalidStateException;
 import ai.picovoice.leopard.LeopardRuntimeException;
 import ai.picovoice.leopard.LeopardTranscript;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
+import io.flutter.plugin.common.StandardMethodCodec;
 
 public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
 
@@ -43,7 +47,11 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         flutterContext = flutterPluginBinding.getApplicationContext();
-        channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "leopard");
+
+        // calls are handled in order on a background thread, so long transcriptions do not block the platform thread
+        BinaryMessenger messenger = flutterPluginBinding.getBinaryMessenger();
+        BinaryMessenger.TaskQueue taskQueue = messenger.makeBackgroundTaskQueue();
+        channel = new MethodChannel(messenger, "leopard", StandardMethodCodec.INSTANCE, taskQueue);
         channel.setMethodCallHandler(this);
 
         Leopard.setSdk("flutter");
@@ -138,7 +146,8 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
     private void leopardProcess(@NonNull MethodCall call, @NonNull Result result) {
 
         String handle = call.argument("handle");
-        ArrayList<Integer> pcmList = call.argument("frame");
+        Object frame = call.argument("frame");
+        boolean packedResults = Boolean.TRUE.equals(call.argument("packedResults"));
 
         if (!leopardPool.containsKey(handle)) {
             result.error(
@@ -149,10 +158,23 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
         }
 
         short[] pcm = null;
-        if (pcmList != null) {
+        if (frame instanceof byte[]) {
+            // `Int16List` and `Uint8List` frames arrive as the raw little-endian bytes of the samples
+            byte[] bytes = (byte[]) frame;
+            if (bytes.length % 2 != 0) {
+                result.error(
+                        LeopardInvalidArgumentException.class.getSimpleName(),
+                        "Binary frame provided to native module is not a whole number of 16-bit samples",
+                        null);
+                return;
+            }
+            pcm = new short[bytes.length / 2];
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(pcm);
+        } else if (frame instanceof List) {
+            List<?> pcmList = (List<?>) frame;
             pcm = new short[pcmList.size()];
             for (int i = 0; i < pcmList.size(); i++) {
-                pcm[i] = pcmList.get(i).shortValue();
+                pcm[i] = ((Number) pcmList.get(i)).shortValue();
             }
         }
 
@@ -166,7 +188,9 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
         }
         try {
             LeopardTranscript leopardTranscript = leopard.process(pcm);
-            Map<String, Object> resultMap = leopardTranscriptToMap(leopardTranscript);
+            Map<String, Object> resultMap = packedResults ?
+                    leopardTranscriptToPackedMap(leopardTranscript) :
+                    leopardTranscriptToMap(leopardTranscript);
             result.success(resultMap);
         } catch (LeopardException e) {
             result.error(
@@ -180,6 +204,7 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
 
         String handle = call.argument("handle");
         String path = call.argument("path");
+        boolean packedResults = Boolean.TRUE.equals(call.argument("packedResults"));
 
         if (!leopardPool.containsKey(handle)) {
             result.error(
@@ -199,7 +224,9 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
         }
         try {
             LeopardTranscript leopardTranscript = leopard.processFile(path);
-            Map<String, Object> resultMap = leopardTranscriptToMap(leopardTranscript);
+            Map<String, Object> resultMap = packedResults ?
+                    leopardTranscriptToPackedMap(leopardTranscript) :
+                    leopardTranscriptToMap(leopardTranscript);
             result.success(resultMap);
         } catch (LeopardException e) {
             result.error(
@@ -248,6 +275,38 @@ public class LeopardPlugin implements FlutterPlugin, MethodCallHandler {
         return resultMap;
     }
 
+    /**
+     * Converts a transcript into a fixed number of flat arrays instead of one map per word. The words are
+     * joined into a single string, and word `i` spans `[wordOffsets[i], wordOffsets[i + 1])` of it.
+     */
+    private Map<String, Object> leopardTranscriptToPackedMap(LeopardTranscript result) {
+        LeopardTranscript.Word[] wordArray = result.getWordArray();
+        StringBuilder wordString = new StringBuilder();
+        int[] wordOffsets = new int[wordArray.length + 1];
+        double[] startSec = new double[wordArray.length];
+        double[] endSec = new double[wordArray.length];
+        double[] confidence = new double[wordArray.length];
+        int[] speakerTag = new int[wordArray.length];
+        for (int i = 0; i < wordArray.length; i++) {
+            wordString.append(wordArray[i].getWord());
+            wordOffsets[i + 1] = wordString.length();
+            startSec[i] = wordArray[i].getStartSec();
+            endSec[i] = wordArray[i].getEndSec();
+            confidence[i] = wordArray[i].getConfidence();
+            speakerTag[i] = wordArray[i].getSpeakerTag();
+        }
+
+        Map<String, Object> resultMap = new HashMap<>();
+        resultMap.put("transcript", result.getTranscriptString());
+        resultMap.put("wordString", wordString.toString());
+        resultMap.put("wordOffsets", wordOffsets);
+        resultMap.put("startSec", startSec);
+        resultMap.put("endSec", endSec);
+        resultMap.put("confidence", confidence);
+        resultMap.put("speakerTag", speakerTag);
+        return resultMap;
+    }
+
     private enum Method {
         GET_AVAILABLE_DEVICES,
         CREATE,
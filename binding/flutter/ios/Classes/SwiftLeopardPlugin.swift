@@ -88,7 +88,7 @@ public class SwiftLeopardPlugin: NSObject, FlutterPlugin {
         case .PROCESS:
             do {
                 if let handle = args["handle"] as? String,
-                   let frame = args["frame"] as? [Int16] {
+                   let frame = pcmFrame(args["frame"]) {
                     if let leopard = leopardPool[handle] {
                         let leopardTranscript = try leopard.process(frame)
                         let resultDictionary = leopardTranscriptToDictionary(leopardTranscript)
@@ -135,6 +135,20 @@ public class SwiftLeopardPlugin: NSObject, FlutterPlugin {
         }
     }
 
+    private func pcmFrame(_ frame: Any?) -> [Int16]? {
+        if let typedData = frame as? FlutterStandardTypedData {
+            // `Int16List` and `Uint8List` frames arrive as the raw little-endian bytes of the samples
+            let data = typedData.data
+            if data.count % 2 != 0 {
+                return nil
+            }
+            var pcm = [Int16](repeating: 0, count: data.count / 2)
+            _ = pcm.withUnsafeMutableBytes { data.copyBytes(to: $0) }
+            return pcm
+        }
+        return frame as? [Int16]
+    }
+
     private func errorToFlutterError(_ error: LeopardError) -> FlutterError {
         return FlutterError(
             code: error.name.replacingOccurrences(of: "Error", with: "Exception"),
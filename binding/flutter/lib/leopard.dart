@@ -11,6 +11,7 @@
 
 import 'dart:async';
 import 'dart:io';
+import 'dart:typed_data';
 
 import 'package:flutter/services.dart';
 import 'package:leopard_flutter/leopard_transcript.dart';
@@ -36,6 +37,7 @@ class Leopard {
   String? _handle;
   final int _sampleRate;
   final String _version;
+  final bool _packedResults;
 
   /// Leopard version string
   String get version => _version;
@@ -81,6 +83,10 @@ class Leopard {
   ///                     differentiate speakers as part of the transcription process. Word
   ///                     metadata will include a `speaker_tag` to identify unique speakers.
   ///
+  /// [packedResults] (Optional) Set to `true` to have the platform return word metadata as a few flat arrays
+  ///                 instead of one map per word. This makes transcripts with many words much cheaper to pass
+  ///                 back from the platform. The returned `LeopardTranscript` is the same either way.
+  ///
   /// Throws a `LeopardException` if not initialized correctly
   ///
   /// returns an instance of the Leopard Speech-to-Text engine
@@ -90,7 +96,8 @@ class Leopard {
     {
       String? device,
       bool enableAutomaticPunctuation = false,
-      bool enableDiarization = false
+      bool enableDiarization = false,
+      bool packedResults = false
     }) async {
     modelPath = await _tryExtractFlutterAsset(modelPath);
 
@@ -104,8 +111,8 @@ class Leopard {
         'enableDiarization': enableDiarization
       }));
 
-      return Leopard._(
-          result['handle'], result['sampleRate'], result['version']);
+      return Leopard._(result['handle'], result['sampleRate'],
+          result['version'], packedResults);
     } on PlatformException catch (error) {
       throw leopardStatusToException(error.code, error.message);
     } on Exception catch (error) {
@@ -114,18 +121,31 @@ class Leopard {
   }
 
   // private constructor
-  Leopard._(this._handle, this._sampleRate, this._version);
+  Leopard._(
+      this._handle, this._sampleRate, this._version, this._packedResults);
 
   /// Process a frame of pcm audio with the speech-to-text engine.
   ///
-  /// [frame] frame of 16-bit integers of 16kHz linear PCM mono audio.
+  /// [frame] frame of 16-bit integers of 16kHz linear PCM mono audio. Passing an `Int16List` is much
+  ///         faster for long audio, since its samples are sent to the platform as a single byte buffer
+  ///         rather than as a list of numbers. A `Uint8List` is taken as the raw little-endian bytes of
+  ///         the samples.
   ///
   /// returns LeopardTranscript object which contains the transcription results of the engine.
   Future<LeopardTranscript> process(List<int>? frame) async {
+    Object? payload = frame;
+    if (frame is Int16List) {
+      payload = frame.buffer.asUint8List(frame.offsetInBytes, frame.lengthInBytes);
+    }
+
     try {
       Map<String, dynamic> result = Map<String, dynamic>.from(await _channel
           .invokeMethod(_NativeFunctions.PROCESS.name,
-              {'handle': _handle, 'frame': frame}));
+              {
+                'handle': _handle,
+                'frame': payload,
+                'packedResults': _packedResults
+              }));
 
       return _pluginResultToLeopardTranscript(result);
     } on PlatformException catch (error) {
@@ -145,7 +165,11 @@ class Leopard {
     try {
       Map<String, dynamic> result = Map<String, dynamic>.from(await _channel
           .invokeMethod(_NativeFunctions.PROCESSFILE.name,
-              {'handle': _handle, 'path': path}));
+              {
+                'handle': _handle,
+                'path': path,
+                'packedResults': _packedResults
+              }));
 
       return _pluginResultToLeopardTranscript(result);
     } on PlatformException catch (error) {
@@ -173,6 +197,10 @@ class Leopard {
 
     String transcript = result['transcript'];
 
+    if (result['wordOffsets'] != null) {
+      return _packedResultToLeopardTranscript(transcript, result);
+    }
+
     if (result['words'] == null) {
       throw LeopardInvalidStateException(
           "field 'words' must be always present");
@@ -188,6 +216,27 @@ class Leopard {
     return LeopardTranscript(transcript, words);
   }
 
+  LeopardTranscript _packedResultToLeopardTranscript(
+      String transcript, Map<String, dynamic> result) {
+    String wordString = result['wordString'];
+    List<int> wordOffsets = result['wordOffsets'];
+    List<double> startSec = result['startSec'];
+    List<double> endSec = result['endSec'];
+    List<double> confidence = result['confidence'];
+    List<int> speakerTag = result['speakerTag'];
+
+    List<LeopardWord> words = [];
+    for (int i = 0; i < startSec.length; i++) {
+      words.add(LeopardWord(
+          wordString.substring(wordOffsets[i], wordOffsets[i + 1]),
+          startSec[i],
+          endSec[i],
+          confidence[i],
+          speakerTag[i]));
+    }
+    return LeopardTranscript(transcript, words);
+  }
+
   static Future<String> _tryExtractFlutterAsset(String filePath) async {
     ByteData data;
     try {
@@ -0,0 +1,148 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cheap inspection of audio files, reading only their headers.
+ */
+final class AudioProbe {
+
+    /**
+     * Bytes per second assumed for formats whose duration cannot be read from the header. This matches
+     * 128kbps compressed audio, so the estimate errs on the long side for speech encoded at lower bitrates.
+     */
+    private static final double COMPRESSED_BYTES_PER_SEC = 16000;
+
+    private AudioProbe() {
+    }
+
+    /**
+     * Estimates the duration of an audio file. The duration of WAV files is exact; other formats are
+     * estimated from their size.
+     *
+     * @param path Path to the audio file.
+     * @return Duration in seconds, or `0` if the file cannot be read.
+     */
+    static double estimateDurationSec(String path) {
+        try {
+            final WavInfo info = probeWav(path);
+            if (info != null) {
+                return info.getDurationSec();
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+        return new File(path).length() / COMPRESSED_BYTES_PER_SEC;
+    }
+
+    /**
+     * Reads the header of a PCM WAV file.
+     *
+     * @param path Path to the audio file.
+     * @return Header information, or `null` if the file is not a PCM WAV file.
+     * @throws IOException if the file cannot be read.
+     */
+    static WavInfo probeWav(String path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            final byte[] header = new byte[12];
+            if (file.read(header) != header.length ||
+                    !new String(header, 0, 4, StandardCharsets.US_ASCII).equals("RIFF") ||
+                    !new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WAVE")) {
+                return null;
+            }
+
+            int audioFormat = 0;
+            int numChannels = 0;
+            int sampleRate = 0;
+            int bitsPerSample = 0;
+            final byte[] chunkHeader = new byte[8];
+            while (file.read(chunkHeader) == chunkHeader.length) {
+                final ByteBuffer chunk = ByteBuffer.wrap(chunkHeader).order(ByteOrder.LITTLE_ENDIAN);
+                final String chunkId = new String(chunkHeader, 0, 4, StandardCharsets.US_ASCII);
+                final long chunkSize = chunk.getInt(4) & 0xFFFFFFFFL;
+                final long chunkStart = file.getFilePointer();
+                if (chunkId.equals("fmt ")) {
+                    final byte[] fmt = new byte[16];
+                    if (chunkSize < fmt.length || file.read(fmt) != fmt.length) {
+                        return null;
+                    }
+                    final ByteBuffer fmtBuffer = ByteBuffer.wrap(fmt).order(ByteOrder.LITTLE_ENDIAN);
+                    audioFormat = fmtBuffer.getShort(0) & 0xFFFF;
+                    numChannels = fmtBuffer.getShort(2) & 0xFFFF;
+                    sampleRate = fmtBuffer.getInt(4);
+                    bitsPerSample = fmtBuffer.getShort(14) & 0xFFFF;
+                } else if (chunkId.equals("data")) {
+                    // WAVE_FORMAT_PCM, or WAVE_FORMAT_EXTENSIBLE which Leopard also reads as PCM
+                    if ((audioFormat != 1 && audioFormat != 0xFFFE) ||
+                            numChannels == 0 || sampleRate <= 0 || bitsPerSample == 0) {
+                        return null;
+                    }
+                    final long dataSize = Math.min(chunkSize, file.length() - chunkStart);
+                    return new WavInfo(numChannels, sampleRate, bitsPerSample, chunkStart, dataSize);
+                }
+                file.seek(chunkStart + chunkSize + (chunkSize & 1));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Format and location of the samples of a PCM WAV file.
+     */
+    static final class WavInfo {
+        private final int numChannels;
+        private final int sampleRate;
+        private final int bitsPerSample;
+        private final long dataOffset;
+        private final long dataSize;
+
+        WavInfo(int numChannels, int sampleRate, int bitsPerSample, long dataOffset, long dataSize) {
+            this.numChannels = numChannels;
+            this.sampleRate = sampleRate;
+            this.bitsPerSample = bitsPerSample;
+            this.dataOffset = dataOffset;
+            this.dataSize = dataSize;
+        }
+
+        int getNumChannels() {
+            return numChannels;
+        }
+
+        int getSampleRate() {
+            return sampleRate;
+        }
+
+        int getBitsPerSample() {
+            return bitsPerSample;
+        }
+
+        long getDataOffset() {
+            return dataOffset;
+        }
+
+        long getNumFrames() {
+            return dataSize / ((long) numChannels * ((bitsPerSample + 7) / 8));
+        }
+
+        double getDurationSec() {
+            return (double) getNumFrames() / sampleRate;
+        }
+    }
+}
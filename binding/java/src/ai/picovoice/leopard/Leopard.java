@@ -13,13 +13,28 @@
 package ai.picovoice.leopard;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Class for the Leopard Speech-to-Text engine.
+ *
+ * <p>Instances should be released with {@link #delete()} (or {@link #close()} in a try-with-resources block).
+ * Instances that become unreachable without being released have their native resources reclaimed in the
+ * background. Releasing an instance waits for in-flight calls on it to return.
  */
-public class Leopard {
+public class Leopard implements AutoCloseable {
 
     public static final String LIBRARY_PATH;
     public static final String MODEL_PATH;
@@ -33,7 +48,15 @@ public class Leopard {
         VALID_EXTENSIONS = Utils.getValidFileExtensions();
     }
 
-    private long handle;
+    private final NativeHandle handle;
+    private final ReentrantLock processLock = new ReentrantLock(true);
+    // calls on an instance are serialized anyway, so timed calls share one thread that exits when idle; a call
+    // that timed out occupies it until the engine returns instead of each later call starting a thread
+    private final ThreadPoolExecutor timedExecutor = createTimedExecutor();
+    private final Object abandonedLock = new Object();
+    // timed calls that timed out after the engine started them, guarded by abandonedLock
+    private int numAbandonedCalls = 0;
+    private final List<Runnable> abandonedCallListeners = new ArrayList<>();
 
     /**
      * Constructor.
@@ -73,12 +96,14 @@ public class Leopard {
         }
 
         LeopardNative.setSdk(Leopard.sdk);
-        handle = LeopardNative.init(
-                accessKey,
-                modelPath,
-                device,
-                enableAutomaticPunctuation,
-                enableDiarization);
+        handle = new NativeHandle(
+                this,
+                LeopardNative.init(
+                        accessKey,
+                        modelPath,
+                        device,
+                        enableAutomaticPunctuation,
+                        enableDiarization));
     }
 
     public static void setSdk(String sdk) {
@@ -86,13 +111,18 @@ public class Leopard {
     }
 
     /**
-     * Releases resources acquired by Leopard.
+     * Releases resources acquired by Leopard. Blocks until in-flight calls on this instance have returned.
      */
     public void delete() {
-        if (handle != 0) {
-            LeopardNative.delete(handle);
-            handle = 0;
-        }
+        handle.close();
+    }
+
+    /**
+     * Releases resources acquired by Leopard. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
     }
 
     /**
@@ -105,15 +135,73 @@ public class Leopard {
      * @throws LeopardException if there is an error while processing the audio frame.
      */
     public LeopardTranscript process(short[] pcm) throws LeopardException {
-        if (handle == 0) {
+        if (pcm == null) {
+            throw new LeopardInvalidArgumentException("Passed null frame to Leopard process.");
+        }
+
+        final long object = handle.acquire();
+        if (object == 0) {
             throw new LeopardInvalidStateException("Attempted to call Leopard process after delete.");
         }
+        processLock.lock();
+        try {
+            return LeopardNative.process(object, pcm, pcm.length);
+        } finally {
+            processLock.unlock();
+            handle.release();
+        }
+    }
 
+    /**
+     * Processes given audio data in floating point format and returns its transcription.
+     *
+     * @param pcm A frame of normalized audio samples in `[-1, 1]`. Samples are converted to 16-bit with
+     *            {@link PcmConversions#floatToShort(float[], int, short[], int, int)}. The incoming audio needs to
+     *            have a sample rate equal to {@link #getSampleRate()} and be single channel.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(float[] pcm) throws LeopardException {
         if (pcm == null) {
             throw new LeopardInvalidArgumentException("Passed null frame to Leopard process.");
         }
+        final short[] samples = new short[pcm.length];
+        PcmConversions.floatToShort(pcm, 0, samples, 0, pcm.length);
+        return process(samples);
+    }
 
-        return LeopardNative.process(handle, pcm, pcm.length);
+    /**
+     * Processes given audio data and returns its transcription, giving up after `timeout`.
+     *
+     * <p>The native engine cannot be interrupted once it starts processing, so a call that times out keeps
+     * running in the background and the instance stays usable: later calls wait for it to finish. Use
+     * {@link #isAbandonedCallRunning()} to tell whether such a call is still running.
+     *
+     * @param pcm     A frame of audio samples. See {@link #process(short[])}.
+     * @param timeout Maximum time to wait for the transcription.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardTimeoutException if the transcription is not available within `timeout`.
+     * @throws LeopardException        if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(short[] pcm, Duration timeout) throws LeopardException {
+        validateTimeout(timeout);
+        return awaitResult(new TimedCall(() -> process(pcm)), timeout, "process");
+    }
+
+    /**
+     * Submits given audio data for transcription on `executor`. Cancelling the returned future before the
+     * engine starts processing skips the work; once started, processing runs to completion.
+     *
+     * @param pcm      A frame of audio samples. See {@link #process(short[])}.
+     * @param executor Executor to run the transcription on.
+     * @return Future holding the transcription. Engine errors are reported as the cause of an
+     *         {@link ExecutionException}.
+     */
+    public Future<LeopardTranscript> processAsync(short[] pcm, ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Passed null executor to Leopard processAsync.");
+        }
+        return executor.submit(() -> process(pcm));
     }
 
     /**
@@ -125,16 +213,17 @@ public class Leopard {
      * @throws LeopardException if there is an error while processing the audio frame.
      */
     public LeopardTranscript processFile(String path) throws LeopardException {
-        if (handle == 0) {
-            throw new LeopardInvalidStateException("Attempted to call Leopard processFile after delete.");
-        }
-
         if (path == null || path.equals("")) {
             throw new LeopardInvalidArgumentException("Passed null path to Leopard processFile.");
         }
 
+        final long object = handle.acquire();
+        if (object == 0) {
+            throw new LeopardInvalidStateException("Attempted to call Leopard processFile after delete.");
+        }
+        processLock.lock();
         try {
-            return LeopardNative.processFile(handle, path);
+            return LeopardNative.processFile(object, path);
         } catch (LeopardInvalidArgumentException e) {
             if (path.contains(".")) {
                 String extension = path.substring(path.lastIndexOf(".") + 1).toLowerCase();
@@ -145,6 +234,171 @@ public class Leopard {
                 }
             }
             throw e;
+        } finally {
+            processLock.unlock();
+            handle.release();
+        }
+    }
+
+    /**
+     * Processes given audio file and returns its transcription, giving up after `timeout`.
+     * Timed-out calls behave as described in {@link #process(short[], Duration)}.
+     *
+     * @param path    Absolute path to the audio file. See {@link #processFile(String)}.
+     * @param timeout Maximum time to wait for the transcription.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardTimeoutException if the transcription is not available within `timeout`.
+     * @throws LeopardException        if there is an error while processing the audio file.
+     */
+    public LeopardTranscript processFile(String path, Duration timeout) throws LeopardException {
+        validateTimeout(timeout);
+        return awaitResult(new TimedCall(() -> processFile(path)), timeout, "processFile");
+    }
+
+    /**
+     * Submits given audio file for transcription on `executor`. Cancellation behaves as described in
+     * {@link #processAsync(short[], ExecutorService)}.
+     *
+     * @param path     Absolute path to the audio file. See {@link #processFile(String)}.
+     * @param executor Executor to run the transcription on.
+     * @return Future holding the transcription. Engine errors are reported as the cause of an
+     *         {@link ExecutionException}.
+     */
+    public Future<LeopardTranscript> processFileAsync(String path, ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Passed null executor to Leopard processFileAsync.");
+        }
+        return executor.submit(() -> processFile(path));
+    }
+
+    private static void validateTimeout(Duration timeout) throws LeopardException {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new LeopardInvalidArgumentException("Timeout must be a positive duration.");
+        }
+    }
+
+    private static ThreadPoolExecutor createTimedExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "leopard-timed-process");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private LeopardTranscript awaitResult(
+            TimedCall call,
+            Duration timeout,
+            String method) throws LeopardException {
+        final Future<LeopardTranscript> future = timedExecutor.submit(call);
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(call, future);
+            throw new LeopardTimeoutException(
+                    String.format("Leopard %s did not complete within %dms.", method, timeout.toMillis()));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeopardException) {
+                throw (LeopardException) e.getCause();
+            }
+            throw new LeopardException(e.getCause());
+        } catch (InterruptedException e) {
+            abandon(call, future);
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        }
+    }
+
+    private void abandon(TimedCall call, Future<LeopardTranscript> future) {
+        call.abandon();
+        future.cancel(false);
+        // drop calls that timed out before they started, so they do not hold on to their audio
+        timedExecutor.purge();
+    }
+
+    /**
+     * Whether a call that timed out is still running on the engine. Calls made in the meantime wait for it to
+     * return, which is why {@link LeopardPool} and {@link LeopardKeyedPool} hold such an instance back instead of
+     * leasing it.
+     *
+     * @return `true` if a timed-out call of {@link #process(short[], Duration)} or
+     *         {@link #processFile(String, Duration)} has not returned yet.
+     */
+    public boolean isAbandonedCallRunning() {
+        synchronized (abandonedLock) {
+            return numAbandonedCalls > 0;
+        }
+    }
+
+    /**
+     * Runs `listener` once no timed-out call is running on the engine: right away on the calling thread if none
+     * is, otherwise on the thread that runs the last of them, after it returns.
+     */
+    void whenAbandonedCallsReturn(Runnable listener) {
+        synchronized (abandonedLock) {
+            if (numAbandonedCalls > 0) {
+                abandonedCallListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * A call run on {@link #timedExecutor} that tracks whether its caller gave up while the engine was running it.
+     */
+    private final class TimedCall implements Callable<LeopardTranscript> {
+        private final Callable<LeopardTranscript> body;
+        // guarded by abandonedLock
+        private boolean isStarted = false;
+        private boolean isDone = false;
+        private boolean isAbandoned = false;
+
+        private TimedCall(Callable<LeopardTranscript> body) {
+            this.body = body;
+        }
+
+        @Override
+        public LeopardTranscript call() throws Exception {
+            synchronized (abandonedLock) {
+                if (isAbandoned) {
+                    throw new CancellationException();
+                }
+                isStarted = true;
+            }
+            try {
+                return body.call();
+            } finally {
+                List<Runnable> listeners = null;
+                synchronized (abandonedLock) {
+                    isDone = true;
+                    if (isAbandoned && --numAbandonedCalls == 0) {
+                        listeners = new ArrayList<>(abandonedCallListeners);
+                        abandonedCallListeners.clear();
+                    }
+                }
+                if (listeners != null) {
+                    for (Runnable listener : listeners) {
+                        listener.run();
+                    }
+                }
+            }
+        }
+
+        private void abandon() {
+            synchronized (abandonedLock) {
+                isAbandoned = true;
+                if (isStarted && !isDone) {
+                    numAbandonedCalls++;
+                }
+            }
         }
     }
 
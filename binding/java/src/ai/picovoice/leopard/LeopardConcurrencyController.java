@@ -0,0 +1,519 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of Leopard instances that adapts how CPU threads are split between instances to the observed load.
+ *
+ * <p>Many instances with few threads each give the highest throughput, while few instances with many threads each
+ * give the lowest latency per call. The best split depends on the mix of audio lengths and on the load of the
+ * host, so the controller measures the queue wait and real-time factor (processing time divided by audio
+ * duration) of every call and periodically rebuilds the pool (see
+ * {@link LeopardPool#swap(LeopardPool.Factory, String[], Duration)}) with a different number of instances,
+ * splitting the CPU threads it was given between them:
+ *
+ * <ul>
+ * <li>If the 95th percentile of the real-time factor exceeds the target real-time factor, the number of instances
+ * is multiplied by the decrease factor so that each call gets more threads.</li>
+ * <li>If calls run fast enough but the 95th percentile of latency, queue wait plus processing time, exceeds the
+ * target latency, one instance is added to raise throughput, as long as the previous addition did not lower
+ * it.</li>
+ * <li>Otherwise the layout is kept.</li>
+ * </ul>
+ *
+ * <p>The real-time factor does not grow with audio length, so long recordings do not make every layout look too
+ * slow. Calls whose audio duration is unknown count towards latency only.
+ */
+public class LeopardConcurrencyController implements AutoCloseable {
+
+    private final LeopardPool.Factory factory;
+    private final LeopardPool pool;
+    private final Aimd aimd;
+    private final int numCpuThreads;
+    private final int minSamples;
+    private final ScheduledExecutorService adjuster;
+
+    private final Object samplesLock = new Object();
+    private long[] waitNs = new long[64];
+    private long[] serviceNs = new long[64];
+    private int numSamples = 0;
+    private double[] realTimeFactors = new double[64];
+    private int numRealTimeFactors = 0;
+    private double audioSec = 0;
+    private double serviceSec = 0;
+
+    private volatile int numInstances;
+    private volatile long numAdjustments = 0;
+
+    private LeopardConcurrencyController(
+            LeopardPool.Factory factory,
+            Aimd aimd,
+            int numCpuThreads,
+            int numInstances,
+            int minSamples,
+            Duration adjustInterval) throws LeopardException {
+        this.factory = factory;
+        this.aimd = aimd;
+        this.numCpuThreads = numCpuThreads;
+        this.minSamples = minSamples;
+        this.numInstances = numInstances;
+        this.pool = new LeopardPool.Builder()
+                .setFactory(factory)
+                .setDevices(layout(numInstances))
+                .build();
+        this.adjuster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leopard-concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long intervalMs = adjustInterval.toMillis();
+        adjuster.scheduleWithFixedDelay(this::adjust, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Processes given audio data on the next available instance.
+     *
+     * @param pcm A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(short[] pcm) throws LeopardException {
+        final long start = System.nanoTime();
+        final Leopard leopard = pool.acquire();
+        final long leased = System.nanoTime();
+        try {
+            final LeopardTranscript transcript = leopard.process(pcm);
+            record(leased - start, System.nanoTime() - leased, (double) pcm.length / leopard.getSampleRate());
+            return transcript;
+        } finally {
+            pool.release(leopard);
+        }
+    }
+
+    /**
+     * Processes given audio file on the next available instance.
+     *
+     * @param path Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio file.
+     */
+    public LeopardTranscript processFile(String path) throws LeopardException {
+        final long start = System.nanoTime();
+        final Leopard leopard = pool.acquire();
+        final long leased = System.nanoTime();
+        try {
+            final LeopardTranscript transcript = leopard.processFile(path);
+            record(leased - start, System.nanoTime() - leased, AudioProbe.estimateDurationSec(path));
+            return transcript;
+        } finally {
+            pool.release(leopard);
+        }
+    }
+
+    private void record(long sampleWaitNs, long sampleServiceNs, double sampleAudioSec) {
+        synchronized (samplesLock) {
+            if (numSamples == waitNs.length) {
+                waitNs = Arrays.copyOf(waitNs, numSamples * 2);
+                serviceNs = Arrays.copyOf(serviceNs, numSamples * 2);
+            }
+            waitNs[numSamples] = sampleWaitNs;
+            serviceNs[numSamples] = sampleServiceNs;
+            numSamples++;
+            if (sampleAudioSec > 0) {
+                if (numRealTimeFactors == realTimeFactors.length) {
+                    realTimeFactors = Arrays.copyOf(realTimeFactors, numRealTimeFactors * 2);
+                }
+                realTimeFactors[numRealTimeFactors++] = sampleServiceNs * 1e-9 / sampleAudioSec;
+                audioSec += sampleAudioSec;
+                serviceSec += sampleServiceNs * 1e-9;
+            }
+        }
+    }
+
+    /**
+     * Evaluates the calls since the last adjustment and rebuilds the pool if the layout should change. Runs on a
+     * background thread every adjustment interval.
+     */
+    void adjust() {
+        final long latencyP95Ns;
+        final double realTimeFactorP95;
+        final double capacity;
+        synchronized (samplesLock) {
+            if (numSamples < minSamples) {
+                return;
+            }
+            final long[] latencyNs = new long[numSamples];
+            for (int i = 0; i < numSamples; i++) {
+                latencyNs[i] = waitNs[i] + serviceNs[i];
+            }
+            latencyP95Ns = percentile95(latencyNs, numSamples);
+            realTimeFactorP95 = numRealTimeFactors > 0 ? percentile95(realTimeFactors, numRealTimeFactors) : 0;
+            // audio seconds the current layout transcribes per second when every instance is busy
+            capacity = serviceSec > 0 ? numInstances * audioSec / serviceSec : 0;
+            clearSamples();
+        }
+
+        final int next = aimd.next(numInstances, latencyP95Ns, realTimeFactorP95, capacity);
+        if (next == numInstances) {
+            return;
+        }
+        try {
+            pool.swap(factory, layout(next), null);
+            numInstances = next;
+            numAdjustments++;
+        } catch (LeopardException | RuntimeException e) {
+            // e.g. out of memory for more instances; stay below the layout that failed
+            aimd.limit(numInstances, next);
+        }
+        // calls measured during the swap ran on both layouts
+        synchronized (samplesLock) {
+            clearSamples();
+        }
+    }
+
+    private void clearSamples() {
+        numSamples = 0;
+        numRealTimeFactors = 0;
+        audioSec = 0;
+        serviceSec = 0;
+    }
+
+    private static long percentile95(long[] values, int length) {
+        final long[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        return sorted[Math.max(0, (int) Math.ceil(length * 0.95) - 1)];
+    }
+
+    private static double percentile95(double[] values, int length) {
+        final double[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        return sorted[Math.max(0, (int) Math.ceil(length * 0.95) - 1)];
+    }
+
+    /**
+     * Splits the CPU threads between `instances`, giving the remainder to the first instances so that every
+     * thread is used, e.g. `cpu:2, cpu:2, cpu:2, cpu:1, cpu:1` for 8 threads and 5 instances.
+     */
+    private String[] layout(int instances) {
+        final String[] devices = new String[instances];
+        for (int i = 0; i < instances; i++) {
+            final int numThreads = numCpuThreads / instances + (i < numCpuThreads % instances ? 1 : 0);
+            devices[i] = "cpu:" + Math.max(1, numThreads);
+        }
+        return devices;
+    }
+
+    /**
+     * Getter for the current number of instances.
+     *
+     * @return Number of instances.
+     */
+    public int getNumInstances() {
+        return numInstances;
+    }
+
+    /**
+     * Getter for the device strings of the current instances, one entry per instance.
+     *
+     * @return Device strings.
+     */
+    public String[] getDevices() {
+        return pool.getDevices();
+    }
+
+    /**
+     * Getter for the number of times the pool has been rebuilt with a different layout.
+     *
+     * @return Number of adjustments.
+     */
+    public long getNumAdjustments() {
+        return numAdjustments;
+    }
+
+    /**
+     * Stops adjusting and releases all instances. Waiting callers fail, and calls already running complete
+     * before their native resources are released.
+     */
+    public void delete() {
+        adjuster.shutdownNow();
+        pool.delete();
+    }
+
+    /**
+     * Stops adjusting and releases all instances. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    /**
+     * Additive-increase, multiplicative-decrease policy for the number of instances.
+     */
+    static final class Aimd {
+        // a capacity drop smaller than this is measurement noise
+        private static final double CAPACITY_TOLERANCE = 0.05;
+        // after this many unchanged windows, instances above a lowered ceiling are tried again
+        private static final int REPROBE_WINDOWS = 30;
+
+        private final int minInstances;
+        private final int maxInstances;
+        private final long targetLatencyNs;
+        private final double targetRealTimeFactor;
+        private final double decreaseFactor;
+
+        private int ceiling;
+        private int previousInstances = 0;
+        private double previousCapacity = 0;
+        private int numStableWindows = 0;
+
+        Aimd(
+                int minInstances,
+                int maxInstances,
+                long targetLatencyNs,
+                double targetRealTimeFactor,
+                double decreaseFactor) {
+            this.minInstances = minInstances;
+            this.maxInstances = maxInstances;
+            this.targetLatencyNs = targetLatencyNs;
+            this.targetRealTimeFactor = targetRealTimeFactor;
+            this.decreaseFactor = decreaseFactor;
+            this.ceiling = maxInstances;
+        }
+
+        /**
+         * Chooses the number of instances for the next window.
+         *
+         * @param instances         Number of instances during the window.
+         * @param latencyP95Ns      95th percentile of queue wait plus processing time.
+         * @param realTimeFactorP95 95th percentile of processing time divided by audio duration.
+         * @param capacity          Audio seconds transcribed per second with every instance busy.
+         * @return Number of instances.
+         */
+        int next(int instances, long latencyP95Ns, double realTimeFactorP95, double capacity) {
+            final boolean grew = previousInstances > 0 && previousInstances < instances;
+            final int lastInstances = previousInstances;
+            final double lastCapacity = previousCapacity;
+            previousInstances = instances;
+            previousCapacity = capacity;
+
+            if (realTimeFactorP95 > targetRealTimeFactor) {
+                numStableWindows = 0;
+                // more instances would only slow calls further
+                return Math.max(minInstances, Math.min(instances - 1, (int) (instances * decreaseFactor)));
+            }
+            if (grew && capacity < lastCapacity * (1 - CAPACITY_TOLERANCE)) {
+                // splitting threads further cost more than the added instance gained
+                ceiling = lastInstances;
+                numStableWindows = 0;
+                return lastInstances;
+            }
+            if (latencyP95Ns > targetLatencyNs && instances < Math.min(maxInstances, ceiling)) {
+                numStableWindows = 0;
+                return instances + 1;
+            }
+            if (++numStableWindows >= REPROBE_WINDOWS) {
+                // the audio mix or host load may have changed since the ceiling was found
+                ceiling = maxInstances;
+                numStableWindows = 0;
+            }
+            return instances;
+        }
+
+        /**
+         * Records that a layout of `failed` instances could not be built.
+         */
+        void limit(int instances, int failed) {
+            if (failed > instances) {
+                ceiling = instances;
+            }
+            previousInstances = 0;
+        }
+    }
+
+    /**
+     * Builder for creating a LeopardConcurrencyController.
+     */
+    public static class Builder {
+        private LeopardPool.Factory factory = null;
+        private Duration targetLatency = null;
+        private double targetRealTimeFactor = 0.25;
+        private int numCpuThreads = Runtime.getRuntime().availableProcessors();
+        private int minInstances = 1;
+        private int maxInstances = 0;
+        private int initialInstances = 0;
+        private Duration adjustInterval = Duration.ofSeconds(10);
+        private int minSamples = 20;
+        private double decreaseFactor = 0.5;
+
+        /**
+         * Setter for the factory that creates the instances.
+         *
+         * @param factory Factory that creates a Leopard instance for a device string of the form `cpu:N`.
+         */
+        public Builder setFactory(LeopardPool.Factory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Setter for the target 95th percentile of latency, from the call until its transcript is returned.
+         * Instances are added while it is exceeded and calls meet the target real-time factor.
+         *
+         * @param targetLatency Target latency.
+         */
+        public Builder setTargetLatency(Duration targetLatency) {
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
+        /**
+         * Setter for the target 95th percentile of the real-time factor, processing time divided by audio duration.
+         * Calls slower than this get more threads per instance. Defaults to `0.25`.
+         *
+         * @param targetRealTimeFactor Target real-time factor.
+         */
+        public Builder setTargetRealTimeFactor(double targetRealTimeFactor) {
+            this.targetRealTimeFactor = targetRealTimeFactor;
+            return this;
+        }
+
+        /**
+         * Setter for the number of CPU threads split between instances. Defaults to the number of available
+         * processors.
+         *
+         * @param numCpuThreads Number of CPU threads.
+         */
+        public Builder setNumCpuThreads(int numCpuThreads) {
+            this.numCpuThreads = numCpuThreads;
+            return this;
+        }
+
+        /**
+         * Setter for the minimum number of instances. Defaults to `1`.
+         *
+         * @param minInstances Minimum number of instances.
+         */
+        public Builder setMinInstances(int minInstances) {
+            this.minInstances = minInstances;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of instances. Defaults to the number of CPU threads.
+         *
+         * @param maxInstances Maximum number of instances.
+         */
+        public Builder setMaxInstances(int maxInstances) {
+            this.maxInstances = maxInstances;
+            return this;
+        }
+
+        /**
+         * Setter for the number of instances to start with. Defaults to instances of two threads each.
+         *
+         * @param initialInstances Initial number of instances.
+         */
+        public Builder setInitialInstances(int initialInstances) {
+            this.initialInstances = initialInstances;
+            return this;
+        }
+
+        /**
+         * Setter for the time between adjustments. Defaults to ten seconds.
+         *
+         * @param adjustInterval Adjustment interval.
+         */
+        public Builder setAdjustInterval(Duration adjustInterval) {
+            this.adjustInterval = adjustInterval;
+            return this;
+        }
+
+        /**
+         * Setter for the minimum number of calls measured before an adjustment. Defaults to `20`.
+         *
+         * @param minSamples Minimum number of calls per adjustment.
+         */
+        public Builder setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Setter for the factor the number of instances is multiplied by when calls are too slow. Defaults to
+         * `0.5`.
+         *
+         * @param decreaseFactor Factor in `(0, 1)`.
+         */
+        public Builder setDecreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        /**
+         * Creates the controller and its initial instances.
+         */
+        public LeopardConcurrencyController build() throws LeopardException {
+            if (factory == null) {
+                throw new LeopardInvalidArgumentException("LeopardConcurrencyController factory must not be null");
+            }
+            if (targetLatency == null || targetLatency.isNegative() || targetLatency.isZero()) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController target latency must be positive");
+            }
+            if (!(targetRealTimeFactor > 0)) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController target real-time factor must be positive");
+            }
+            if (numCpuThreads <= 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController number of CPU threads must be positive");
+            }
+            final int max = maxInstances > 0 ? maxInstances : numCpuThreads;
+            if (minInstances <= 0 || minInstances > max) {
+                throw new LeopardInvalidArgumentException(String.format(
+                        "LeopardConcurrencyController min instances must be in [1, %d]", max));
+            }
+            if (initialInstances < 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController initial instances must not be negative");
+            }
+            if (adjustInterval == null || adjustInterval.toMillis() <= 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController adjust interval must be at least one millisecond");
+            }
+            if (minSamples <= 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController min samples must be positive");
+            }
+            if (!(decreaseFactor > 0 && decreaseFactor < 1)) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardConcurrencyController decrease factor must be in (0, 1)");
+            }
+            final int initial = initialInstances > 0 ? initialInstances : numCpuThreads / 2;
+            return new LeopardConcurrencyController(
+                    factory,
+                    new Aimd(minInstances, max, targetLatency.toNanos(), targetRealTimeFactor, decreaseFactor),
+                    numCpuThreads,
+                    Math.max(minInstances, Math.min(max, initial)),
+                    minSamples,
+                    adjustInterval);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Leopard Speech-to-Text engine that calls the native library through the Foreign Function &amp; Memory API
+ * instead of JNI.
+ *
+ * <p>This is the base version of the class in the multi-release jar. It only declares the API: on JDK 22 and later
+ * the version under `META-INF/versions/22` is loaded instead, and on earlier JDKs {@link Builder#build()} throws
+ * {@link UnsupportedOperationException}. Use {@link Leopard} there.
+ */
+public final class LeopardForeign implements AutoCloseable {
+
+    private LeopardForeign() {
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException(String.format(
+                "LeopardForeign requires JDK 22 or later (running on Java %s).",
+                System.getProperty("java.version")));
+    }
+
+    /**
+     * Processes audio held in memory, from the position to the limit of the buffer.
+     *
+     * @param pcm 16-bit samples in native byte order with a sample rate equal to {@link #getSampleRate()},
+     *            single channel.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public LeopardTranscript process(ByteBuffer pcm) throws LeopardException {
+        throw unsupported();
+    }
+
+    /**
+     * Processes given audio data and returns its transcription.
+     *
+     * @param pcm A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public LeopardTranscript process(short[] pcm) throws LeopardException {
+        throw unsupported();
+    }
+
+    /**
+     * Processes given audio file and returns its transcription.
+     *
+     * @param path Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public LeopardTranscript processFile(String path) throws LeopardException {
+        throw unsupported();
+    }
+
+    /**
+     * Getter for the required audio sample rate.
+     *
+     * @return Required sample rate for PCM data.
+     */
+    public int getSampleRate() {
+        throw unsupported();
+    }
+
+    /**
+     * Getter for the version of the native library.
+     *
+     * @return Leopard version.
+     */
+    public String getVersion() {
+        throw unsupported();
+    }
+
+    /**
+     * Releases resources acquired by Leopard.
+     */
+    public void delete() {
+        throw unsupported();
+    }
+
+    /**
+     * Releases resources acquired by Leopard. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    /**
+     * Builder for creating an instance of LeopardForeign with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        /**
+         * Setter for the AccessKey.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console.
+         */
+        public Builder setAccessKey(String accessKey) {
+            return this;
+        }
+
+        /**
+         * Setter for the path to the native library.
+         *
+         * @param libraryPath Absolute path to the native Leopard library.
+         */
+        public Builder setLibraryPath(String libraryPath) {
+            return this;
+        }
+
+        /**
+         * Setter for the model path.
+         *
+         * @param modelPath Absolute path to the file containing Leopard model parameters.
+         */
+        public Builder setModelPath(String modelPath) {
+            return this;
+        }
+
+        /**
+         * Setter for the device. See {@link Leopard.Builder#setDevice(String)}.
+         *
+         * @param device String representation of the device to use.
+         */
+        public Builder setDevice(String device) {
+            return this;
+        }
+
+        /**
+         * Setter for enabling automatic punctuation insertion.
+         *
+         * @param enableAutomaticPunctuation Set to `true` to enable automatic punctuation insertion.
+         */
+        public Builder setEnableAutomaticPunctuation(boolean enableAutomaticPunctuation) {
+            return this;
+        }
+
+        /**
+         * Setter for enabling speaker diarization.
+         *
+         * @param enableDiarization Set to `true` to enable speaker diarization.
+         */
+        public Builder setEnableDiarization(boolean enableDiarization) {
+            return this;
+        }
+
+        /**
+         * Creates an instance of the Leopard Speech-to-Text engine. Always throws on JDKs before 22.
+         *
+         * @throws UnsupportedOperationException on JDKs before 22.
+         */
+        public LeopardForeign build() throws LeopardException {
+            throw unsupported();
+        }
+    }
+}
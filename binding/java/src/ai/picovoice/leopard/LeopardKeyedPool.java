@@ -0,0 +1,681 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of Leopard instances for several configurations, so that requests can choose the model, device,
+ * punctuation and diarization options without initializing an instance each time.
+ *
+ * <p>Instances are created on first use of a configuration and kept for reuse. When the total number of instances
+ * reaches the cap, an idle instance of the least recently used configuration is deleted to make room. Leased
+ * instances are never evicted; if every instance is leased, callers wait for one to be released.
+ *
+ * <p>The pool can also be capped by memory. Each instance is charged the size of its model file, which dominates
+ * the resident memory of an engine, and idle instances of the least recently used configurations are deleted until
+ * a new instance fits within the budget.
+ */
+public class LeopardKeyedPool implements AutoCloseable {
+
+    /**
+     * Creates the Leopard instances of a pool.
+     */
+    public interface Factory {
+
+        /**
+         * Creates a Leopard instance for `config`.
+         *
+         * @param config Configuration of the instance.
+         * @return New Leopard instance.
+         * @throws LeopardException if the instance cannot be created.
+         */
+        Leopard create(Config config) throws LeopardException;
+    }
+
+    private final Factory factory;
+    private final int maxInstances;
+    private final int maxInstancesPerConfig;
+    private final long memoryBudget;
+
+    // ordered from least to most recently used configuration
+    private final LinkedHashMap<Config, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final IdentityHashMap<Leopard, Config> leased = new IdentityHashMap<>();
+    // released instances still running a call that timed out, held back until it returns
+    private final IdentityHashMap<Leopard, Config> quarantined = new IdentityHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition changed = lock.newCondition();
+    private int numInstances = 0;
+    private long residentBytes = 0;
+    private int numWaiting = 0;
+    private long numEvictions = 0;
+    private boolean isDeleted = false;
+
+    private LeopardKeyedPool(Factory factory, int maxInstances, int maxInstancesPerConfig, long memoryBudget) {
+        this.factory = factory;
+        this.maxInstances = maxInstances;
+        this.maxInstancesPerConfig = maxInstancesPerConfig;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Leases an instance for `config`, waiting until one is available.
+     *
+     * @param config Configuration of the instance.
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardException if the instance cannot be created, the pool is deleted or the calling thread is
+     *                          interrupted.
+     */
+    public Leopard acquire(Config config) throws LeopardException {
+        return acquire(config, null);
+    }
+
+    /**
+     * Leases an instance for `config`, waiting at most `timeout` for one to become available.
+     *
+     * @param config  Configuration of the instance.
+     * @param timeout Maximum time to wait. Set to `null` to wait indefinitely.
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardTimeoutException if no instance becomes available within `timeout`.
+     * @throws LeopardException        if the instance cannot be created, the pool is deleted or the calling thread
+     *                                 is interrupted.
+     */
+    public Leopard acquire(Config config, Duration timeout) throws LeopardException {
+        if (config == null) {
+            throw new LeopardInvalidArgumentException("LeopardKeyedPool config must not be null");
+        }
+        final long instanceBytes = memoryBudget < Long.MAX_VALUE ? estimateBytes(config) : 0;
+        if (instanceBytes > memoryBudget) {
+            throw new LeopardInvalidArgumentException(String.format(
+                    "Model `%s` (%d bytes) exceeds the LeopardKeyedPool memory budget of %d bytes.",
+                    config.getModelPath(),
+                    instanceBytes,
+                    memoryBudget));
+        }
+
+        final List<Leopard> evicted = new ArrayList<>();
+        Entry entry;
+        lock.lock();
+        try {
+            long remainingNs = timeout != null ? timeout.toNanos() : Long.MAX_VALUE;
+            while (true) {
+                if (isDeleted) {
+                    throw new LeopardInvalidStateException("Attempted to acquire from LeopardKeyedPool after delete.");
+                }
+                entry = entries.get(config);
+                if (entry != null && !entry.idle.isEmpty()) {
+                    final Leopard leopard = entry.idle.pollFirst();
+                    leased.put(leopard, config);
+                    return leopard;
+                }
+                final boolean configHasRoom = entry == null || entry.numInstances < maxInstancesPerConfig;
+                if (configHasRoom && hasRoom(instanceBytes)) {
+                    break;
+                }
+                if (configHasRoom && canReclaim(config, instanceBytes)) {
+                    while (!hasRoom(instanceBytes)) {
+                        evicted.add(evictLeastRecentlyUsed(config));
+                    }
+                    break;
+                }
+                if (timeout == null) {
+                    numWaiting++;
+                    try {
+                        changed.await();
+                    } finally {
+                        numWaiting--;
+                    }
+                } else {
+                    if (remainingNs <= 0) {
+                        throw new LeopardTimeoutException(String.format(
+                                "No Leopard instance became available within %dms.", timeout.toMillis()));
+                    }
+                    numWaiting++;
+                    try {
+                        remainingNs = changed.awaitNanos(remainingNs);
+                    } finally {
+                        numWaiting--;
+                    }
+                }
+            }
+
+            // reserve the slot, then initialize outside the lock so other configurations are not held up
+            if (entry == null) {
+                entry = new Entry(instanceBytes);
+                entries.put(config, entry);
+            }
+            entry.numInstances++;
+            numInstances++;
+            residentBytes += entry.instanceBytes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        } finally {
+            lock.unlock();
+        }
+
+        for (Leopard leopard : evicted) {
+            leopard.delete();
+        }
+
+        final Leopard leopard;
+        try {
+            leopard = factory.create(config);
+        } catch (LeopardException | RuntimeException e) {
+            lock.lock();
+            try {
+                removeInstance(config, entry);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            if (isDeleted) {
+                leopard.delete();
+                throw new LeopardInvalidStateException("Attempted to acquire from LeopardKeyedPool after delete.");
+            }
+            leased.put(leopard, config);
+            return leopard;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long estimateBytes(Config config) {
+        return new File(config.getModelPath()).length();
+    }
+
+    private boolean hasRoom(long instanceBytes) {
+        return numInstances < maxInstances && residentBytes + instanceBytes <= memoryBudget;
+    }
+
+    /**
+     * Whether deleting idle instances of other configurations would make room for a new instance.
+     */
+    private boolean canReclaim(Config except, long instanceBytes) {
+        int numIdle = 0;
+        long idleBytes = 0;
+        for (Map.Entry<Config, Entry> candidate : entries.entrySet()) {
+            if (!candidate.getKey().equals(except)) {
+                numIdle += candidate.getValue().idle.size();
+                idleBytes += candidate.getValue().idle.size() * candidate.getValue().instanceBytes;
+            }
+        }
+        return numIdle > 0 &&
+                numInstances - numIdle < maxInstances &&
+                residentBytes - idleBytes + instanceBytes <= memoryBudget;
+    }
+
+    /**
+     * Removes an idle instance of the least recently used other configuration that has one.
+     */
+    private Leopard evictLeastRecentlyUsed(Config except) {
+        final Iterator<Map.Entry<Config, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Config, Entry> candidate = iterator.next();
+            if (candidate.getKey().equals(except) || candidate.getValue().idle.isEmpty()) {
+                continue;
+            }
+            final Entry entry = candidate.getValue();
+            // the instance idle longest is at the end
+            final Leopard leopard = entry.idle.pollLast();
+            entry.numInstances--;
+            numInstances--;
+            residentBytes -= entry.instanceBytes;
+            numEvictions++;
+            if (entry.numInstances == 0) {
+                iterator.remove();
+            }
+            return leopard;
+        }
+        return null;
+    }
+
+    private void removeInstance(Config config, Entry entry) {
+        if (isDeleted) {
+            return;
+        }
+        entry.numInstances--;
+        numInstances--;
+        residentBytes -= entry.instanceBytes;
+        if (entry.numInstances == 0 && entries.get(config) == entry) {
+            entries.remove(config);
+        }
+    }
+
+    /**
+     * Returns a leased instance to the pool. An instance still running a call that timed out (see
+     * {@link Leopard#isAbandonedCallRunning()}) is only leased again once that call returns. It keeps counting
+     * towards the caps meanwhile.
+     *
+     * @param leopard Instance obtained from {@link #acquire(Config)}.
+     */
+    public void release(Leopard leopard) {
+        final boolean isBusy = leopard.isAbandonedCallRunning();
+        lock.lock();
+        try {
+            final Config config = leased.remove(leopard);
+            if (config == null) {
+                throw new IllegalArgumentException("Released Leopard instance is not leased from this pool.");
+            }
+            if (isDeleted) {
+                return;
+            }
+            if (!isBusy) {
+                entries.get(config).idle.addFirst(leopard);
+                changed.signalAll();
+                return;
+            }
+            quarantined.put(leopard, config);
+        } finally {
+            lock.unlock();
+        }
+        leopard.whenAbandonedCallsReturn(() -> endQuarantine(leopard));
+    }
+
+    /**
+     * Returns a quarantined instance to the pool once its timed-out call has returned.
+     */
+    private void endQuarantine(Leopard leopard) {
+        lock.lock();
+        try {
+            final Config config = quarantined.remove(leopard);
+            if (config != null && !isDeleted) {
+                entries.get(config).idle.addFirst(leopard);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Processes given audio data on an instance for `config`.
+     *
+     * @param config Configuration of the instance.
+     * @param pcm    A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(Config config, short[] pcm) throws LeopardException {
+        final Leopard leopard = acquire(config);
+        try {
+            return leopard.process(pcm);
+        } finally {
+            release(leopard);
+        }
+    }
+
+    /**
+     * Processes given audio file on an instance for `config`.
+     *
+     * @param config Configuration of the instance.
+     * @param path   Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio file.
+     */
+    public LeopardTranscript processFile(Config config, String path) throws LeopardException {
+        final Leopard leopard = acquire(config);
+        try {
+            return leopard.processFile(path);
+        } finally {
+            release(leopard);
+        }
+    }
+
+    /**
+     * Getter for the number of instances across all configurations, including ones being created.
+     *
+     * @return Number of instances.
+     */
+    public int getNumInstances() {
+        lock.lock();
+        try {
+            return numInstances;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the memory charged to instances, including ones being created.
+     *
+     * @return Sum of the model file sizes of all instances in bytes. Zero if the pool has no memory budget.
+     */
+    public long getResidentBytes() {
+        lock.lock();
+        try {
+            return residentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the number of instances that are not leased.
+     *
+     * @return Number of idle instances.
+     */
+    public int getNumIdle() {
+        lock.lock();
+        try {
+            int numIdle = 0;
+            for (Entry entry : entries.values()) {
+                numIdle += entry.idle.size();
+            }
+            return numIdle;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the configurations that currently have instances, from least to most recently used.
+     *
+     * @return Configurations.
+     */
+    public List<Config> getConfigs() {
+        lock.lock();
+        try {
+            return new ArrayList<>(entries.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the number of callers waiting for an instance.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return numWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the number of idle instances deleted to make room for another configuration.
+     *
+     * @return Number of evictions.
+     */
+    public long getNumEvictions() {
+        lock.lock();
+        try {
+            return numEvictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases all instances of the pool. Waiting callers fail, and calls already running on leased
+     * instances complete before their native resources are released.
+     */
+    public void delete() {
+        final List<Leopard> instances = new ArrayList<>();
+        lock.lock();
+        try {
+            if (isDeleted) {
+                return;
+            }
+            isDeleted = true;
+            for (Entry entry : entries.values()) {
+                instances.addAll(entry.idle);
+            }
+            instances.addAll(leased.keySet());
+            instances.addAll(quarantined.keySet());
+            quarantined.clear();
+            entries.clear();
+            numInstances = 0;
+            residentBytes = 0;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Leopard leopard : instances) {
+            leopard.delete();
+        }
+    }
+
+    /**
+     * Releases all instances of the pool. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    private static final class Entry {
+        private final ArrayDeque<Leopard> idle = new ArrayDeque<>();
+        private final long instanceBytes;
+        private int numInstances = 0;
+
+        private Entry(long instanceBytes) {
+            this.instanceBytes = instanceBytes;
+        }
+    }
+
+    /**
+     * Initialization options that distinguish the instances of a {@link LeopardKeyedPool}.
+     */
+    public static final class Config {
+        private final String modelPath;
+        private final String device;
+        private final boolean enableAutomaticPunctuation;
+        private final boolean enableDiarization;
+
+        /**
+         * Constructor.
+         *
+         * @param modelPath                  Absolute path to the file containing Leopard model parameters. Set to
+         *                                   `null` to use the default model.
+         * @param device                     Device string as accepted by {@link Leopard.Builder#setDevice(String)}.
+         *                                   Set to `null` for `best`.
+         * @param enableAutomaticPunctuation Set to `true` to enable automatic punctuation insertion.
+         * @param enableDiarization          Set to `true` to enable speaker diarization.
+         */
+        public Config(
+                String modelPath,
+                String device,
+                boolean enableAutomaticPunctuation,
+                boolean enableDiarization) {
+            this.modelPath = modelPath != null ? modelPath : Leopard.MODEL_PATH;
+            this.device = device != null ? device : "best";
+            this.enableAutomaticPunctuation = enableAutomaticPunctuation;
+            this.enableDiarization = enableDiarization;
+        }
+
+        public String getModelPath() {
+            return modelPath;
+        }
+
+        public String getDevice() {
+            return device;
+        }
+
+        public boolean getEnableAutomaticPunctuation() {
+            return enableAutomaticPunctuation;
+        }
+
+        public boolean getEnableDiarization() {
+            return enableDiarization;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Config)) {
+                return false;
+            }
+            final Config other = (Config) o;
+            return enableAutomaticPunctuation == other.enableAutomaticPunctuation &&
+                    enableDiarization == other.enableDiarization &&
+                    modelPath.equals(other.modelPath) &&
+                    device.equals(other.device);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modelPath, device, enableAutomaticPunctuation, enableDiarization);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Config{modelPath=%s, device=%s, punctuation=%b, diarization=%b}",
+                    modelPath,
+                    device,
+                    enableAutomaticPunctuation,
+                    enableDiarization);
+        }
+    }
+
+    /**
+     * Builder for creating a LeopardKeyedPool.
+     */
+    public static class Builder {
+        private Factory factory = null;
+        private String accessKey = null;
+        private String libraryPath = null;
+        private int maxInstances = 0;
+        private int maxInstancesPerConfig = 0;
+        private long memoryBudget = 0;
+
+        /**
+         * Setter for the factory that creates the instances of the pool. Overrides
+         * {@link #setAccessKey(String)} and {@link #setLibraryPath(String)}.
+         *
+         * @param factory Factory that creates a Leopard instance for a configuration.
+         */
+        public Builder setFactory(Factory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Setter for the AccessKey used by the default factory.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console.
+         */
+        public Builder setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+            return this;
+        }
+
+        /**
+         * Setter for the native library path used by the default factory.
+         *
+         * @param libraryPath Absolute path to the native Leopard library.
+         */
+        public Builder setLibraryPath(String libraryPath) {
+            this.libraryPath = libraryPath;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of instances across all configurations. Optional if a memory budget is set.
+         *
+         * @param maxInstances Maximum number of instances.
+         */
+        public Builder setMaxInstances(int maxInstances) {
+            this.maxInstances = maxInstances;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of instances of a single configuration. Defaults to the maximum across
+         * all configurations.
+         *
+         * @param maxInstancesPerConfig Maximum number of instances per configuration.
+         */
+        public Builder setMaxInstancesPerConfig(int maxInstancesPerConfig) {
+            this.maxInstancesPerConfig = maxInstancesPerConfig;
+            return this;
+        }
+
+        /**
+         * Setter for the memory budget across all configurations. Each instance is charged the size of its model
+         * file.
+         *
+         * @param memoryBudget Maximum number of bytes of resident models.
+         */
+        public Builder setMemoryBudget(long memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Creates the pool. Instances are created when their configuration is first requested.
+         */
+        public LeopardKeyedPool build() throws LeopardException {
+            if (maxInstances < 0) {
+                throw new LeopardInvalidArgumentException("LeopardKeyedPool max instances must not be negative");
+            }
+            if (memoryBudget < 0) {
+                throw new LeopardInvalidArgumentException("LeopardKeyedPool memory budget must not be negative");
+            }
+            if (maxInstances == 0 && memoryBudget == 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardKeyedPool requires max instances or a memory budget");
+            }
+            if (maxInstancesPerConfig < 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardKeyedPool max instances per config must not be negative");
+            }
+            Factory poolFactory = factory;
+            if (poolFactory == null) {
+                if (accessKey == null || accessKey.isEmpty()) {
+                    throw new LeopardInvalidArgumentException(
+                            "LeopardKeyedPool requires a factory or an AccessKey");
+                }
+                final String key = accessKey;
+                final String library = libraryPath;
+                poolFactory = config -> new Leopard.Builder()
+                        .setAccessKey(key)
+                        .setLibraryPath(library)
+                        .setModelPath(config.getModelPath())
+                        .setDevice(config.getDevice())
+                        .setEnableAutomaticPunctuation(config.getEnableAutomaticPunctuation())
+                        .setEnableDiarization(config.getEnableDiarization())
+                        .build();
+            }
+            final int poolMaxInstances = maxInstances > 0 ? maxInstances : Integer.MAX_VALUE;
+            return new LeopardKeyedPool(
+                    poolFactory,
+                    poolMaxInstances,
+                    maxInstancesPerConfig > 0 ? Math.min(maxInstancesPerConfig, poolMaxInstances) : poolMaxInstances,
+                    memoryBudget > 0 ? memoryBudget : Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves several languages from one process by mapping language codes to Leopard models.
+ *
+ * <p>Instances are created when a language is first requested and kept for reuse within a memory budget. When a
+ * new instance does not fit, idle instances of the least recently used languages are deleted first, so that only
+ * the languages in demand stay resident.
+ */
+public class LeopardModelRegistry implements AutoCloseable {
+
+    private static final Pattern MODEL_FILE = Pattern.compile("leopard_params(?:_([a-z]{2}))?\\.pv");
+
+    private final Map<String, String> modelPaths;
+    private final Map<String, String> languages = new HashMap<>();
+    private final String device;
+    private final boolean enableAutomaticPunctuation;
+    private final boolean enableDiarization;
+    private final LeopardKeyedPool pool;
+
+    private LeopardModelRegistry(
+            Map<String, String> modelPaths,
+            String device,
+            boolean enableAutomaticPunctuation,
+            boolean enableDiarization,
+            LeopardKeyedPool pool) {
+        this.modelPaths = modelPaths;
+        for (Map.Entry<String, String> model : modelPaths.entrySet()) {
+            languages.put(model.getValue(), model.getKey());
+        }
+        this.device = device;
+        this.enableAutomaticPunctuation = enableAutomaticPunctuation;
+        this.enableDiarization = enableDiarization;
+        this.pool = pool;
+    }
+
+    /**
+     * Leases an instance for `language`, waiting until one is available.
+     *
+     * @param language Language code, e.g. `en` or `de`.
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardException if no model is registered for `language`, the instance cannot be created, the
+     *                          registry is deleted or the calling thread is interrupted.
+     */
+    public Leopard acquire(String language) throws LeopardException {
+        return pool.acquire(getConfig(language));
+    }
+
+    /**
+     * Leases an instance for `language`, waiting at most `timeout` for one to become available.
+     *
+     * @param language Language code, e.g. `en` or `de`.
+     * @param timeout  Maximum time to wait. Set to `null` to wait indefinitely.
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardTimeoutException if no instance becomes available within `timeout`.
+     * @throws LeopardException        if no model is registered for `language`, the instance cannot be created,
+     *                                 the registry is deleted or the calling thread is interrupted.
+     */
+    public Leopard acquire(String language, Duration timeout) throws LeopardException {
+        return pool.acquire(getConfig(language), timeout);
+    }
+
+    /**
+     * Returns a leased instance to the registry.
+     *
+     * @param leopard Instance obtained from {@link #acquire(String)}.
+     */
+    public void release(Leopard leopard) {
+        pool.release(leopard);
+    }
+
+    /**
+     * Processes given audio data with the model of `language`.
+     *
+     * @param language Language code, e.g. `en` or `de`.
+     * @param pcm      A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(String language, short[] pcm) throws LeopardException {
+        return pool.process(getConfig(language), pcm);
+    }
+
+    /**
+     * Processes given audio file with the model of `language`.
+     *
+     * @param language Language code, e.g. `en` or `de`.
+     * @param path     Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio file.
+     */
+    public LeopardTranscript processFile(String language, String path) throws LeopardException {
+        return pool.processFile(getConfig(language), path);
+    }
+
+    /**
+     * Getter for the model path registered for `language`.
+     *
+     * @param language Language code, e.g. `en` or `de`.
+     * @return Absolute path to the model file, or `null` if no model is registered for `language`.
+     */
+    public String getModelPath(String language) {
+        return language != null ? modelPaths.get(language.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Getter for the registered languages.
+     *
+     * @return Language codes in alphabetical order.
+     */
+    public List<String> getLanguages() {
+        return new ArrayList<>(modelPaths.keySet());
+    }
+
+    /**
+     * Getter for the languages that currently have instances, from least to most recently used.
+     *
+     * @return Language codes.
+     */
+    public List<String> getLoadedLanguages() {
+        final List<String> loaded = new ArrayList<>();
+        for (LeopardKeyedPool.Config config : pool.getConfigs()) {
+            loaded.add(languages.get(config.getModelPath()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Getter for the memory charged to resident models.
+     *
+     * @return Sum of the model file sizes of all instances in bytes.
+     */
+    public long getResidentBytes() {
+        return pool.getResidentBytes();
+    }
+
+    /**
+     * Getter for the number of instances across all languages.
+     *
+     * @return Number of instances.
+     */
+    public int getNumInstances() {
+        return pool.getNumInstances();
+    }
+
+    /**
+     * Getter for the number of idle instances deleted to make room for another language.
+     *
+     * @return Number of evictions.
+     */
+    public long getNumEvictions() {
+        return pool.getNumEvictions();
+    }
+
+    /**
+     * Releases all instances of the registry. Waiting callers fail, and calls already running on leased
+     * instances complete before their native resources are released.
+     */
+    public void delete() {
+        pool.delete();
+    }
+
+    /**
+     * Releases all instances of the registry. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    private LeopardKeyedPool.Config getConfig(String language) throws LeopardException {
+        final String modelPath = getModelPath(language);
+        if (modelPath == null) {
+            throw new LeopardInvalidArgumentException(String.format(
+                    "No Leopard model is registered for language `%s`. Available languages: %s",
+                    language,
+                    String.join(", ", modelPaths.keySet())));
+        }
+        return new LeopardKeyedPool.Config(modelPath, device, enableAutomaticPunctuation, enableDiarization);
+    }
+
+    /**
+     * Finds the models of a directory. `leopard_params.pv` is registered as `en` and `leopard_params_XX.pv` as
+     * `XX`.
+     */
+    static Map<String, String> findModels(File directory) {
+        final Map<String, String> models = new TreeMap<>();
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return models;
+        }
+        for (File file : files) {
+            final Matcher matcher = MODEL_FILE.matcher(file.getName());
+            if (file.isFile() && matcher.matches()) {
+                models.put(matcher.group(1) != null ? matcher.group(1) : "en", file.getAbsolutePath());
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Builder for creating a LeopardModelRegistry.
+     */
+    public static class Builder {
+        private final Map<String, String> modelPaths = new TreeMap<>();
+        private String modelDirectory = null;
+        private LeopardKeyedPool.Factory factory = null;
+        private String accessKey = null;
+        private String libraryPath = null;
+        private String device = null;
+        private boolean enableAutomaticPunctuation = false;
+        private boolean enableDiarization = false;
+        private long memoryBudget = 0;
+        private int maxInstancesPerLanguage = 1;
+
+        /**
+         * Setter for a directory of models named `leopard_params.pv` (English) and `leopard_params_XX.pv`, where
+         * `XX` is the language code.
+         *
+         * @param modelDirectory Absolute path to the directory containing Leopard models.
+         */
+        public Builder setModelDirectory(String modelDirectory) {
+            this.modelDirectory = modelDirectory;
+            return this;
+        }
+
+        /**
+         * Registers the model of a language. Takes precedence over a model of the same language found in the
+         * model directory.
+         *
+         * @param language  Language code, e.g. `en` or `de`.
+         * @param modelPath Absolute path to the file containing Leopard model parameters.
+         */
+        public Builder addModel(String language, String modelPath) {
+            this.modelPaths.put(language.toLowerCase(Locale.ROOT), modelPath);
+            return this;
+        }
+
+        /**
+         * Setter for the factory that creates the instances of the registry. Overrides
+         * {@link #setAccessKey(String)} and {@link #setLibraryPath(String)}.
+         *
+         * @param factory Factory that creates a Leopard instance for a configuration.
+         */
+        public Builder setFactory(LeopardKeyedPool.Factory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Setter for the AccessKey used by the default factory.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console.
+         */
+        public Builder setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+            return this;
+        }
+
+        /**
+         * Setter for the native library path used by the default factory.
+         *
+         * @param libraryPath Absolute path to the native Leopard library.
+         */
+        public Builder setLibraryPath(String libraryPath) {
+            this.libraryPath = libraryPath;
+            return this;
+        }
+
+        /**
+         * Setter for the device of all instances.
+         *
+         * @param device String representation of the device. See {@link Leopard.Builder#setDevice(String)}.
+         */
+        public Builder setDevice(String device) {
+            this.device = device;
+            return this;
+        }
+
+        /**
+         * Setter for enabling automatic punctuation insertion on all instances.
+         *
+         * @param enableAutomaticPunctuation Set to `true` to enable automatic punctuation insertion.
+         */
+        public Builder setEnableAutomaticPunctuation(boolean enableAutomaticPunctuation) {
+            this.enableAutomaticPunctuation = enableAutomaticPunctuation;
+            return this;
+        }
+
+        /**
+         * Setter for enabling speaker diarization on all instances.
+         *
+         * @param enableDiarization Set to `true` to enable speaker diarization.
+         */
+        public Builder setEnableDiarization(boolean enableDiarization) {
+            this.enableDiarization = enableDiarization;
+            return this;
+        }
+
+        /**
+         * Setter for the memory budget across all languages. Each instance is charged the size of its model file.
+         *
+         * @param memoryBudget Maximum number of bytes of resident models.
+         */
+        public Builder setMemoryBudget(long memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of instances of a single language. Defaults to `1`.
+         *
+         * @param maxInstancesPerLanguage Maximum number of concurrent calls per language.
+         */
+        public Builder setMaxInstancesPerLanguage(int maxInstancesPerLanguage) {
+            this.maxInstancesPerLanguage = maxInstancesPerLanguage;
+            return this;
+        }
+
+        /**
+         * Creates the registry. Instances are created when their language is first requested.
+         */
+        public LeopardModelRegistry build() throws LeopardException {
+            final Map<String, String> models = new TreeMap<>();
+            if (modelDirectory != null) {
+                final File directory = new File(modelDirectory);
+                if (!directory.isDirectory()) {
+                    throw new LeopardInvalidArgumentException(String.format(
+                            "Couldn't find model directory at '%s'", modelDirectory));
+                }
+                models.putAll(findModels(directory));
+            }
+            models.putAll(modelPaths);
+            if (models.isEmpty()) {
+                throw new LeopardInvalidArgumentException("LeopardModelRegistry requires at least one model");
+            }
+            for (Map.Entry<String, String> model : models.entrySet()) {
+                if (!new File(model.getValue()).isFile()) {
+                    throw new LeopardInvalidArgumentException(String.format(
+                            "Couldn't find model file for language `%s` at '%s'", model.getKey(), model.getValue()));
+                }
+            }
+            if (memoryBudget <= 0) {
+                throw new LeopardInvalidArgumentException("LeopardModelRegistry memory budget must be positive");
+            }
+            if (maxInstancesPerLanguage <= 0) {
+                throw new LeopardInvalidArgumentException(
+                        "LeopardModelRegistry max instances per language must be positive");
+            }
+
+            final LeopardKeyedPool pool = new LeopardKeyedPool.Builder()
+                    .setFactory(factory)
+                    .setAccessKey(accessKey)
+                    .setLibraryPath(libraryPath)
+                    .setMemoryBudget(memoryBudget)
+                    .setMaxInstancesPerConfig(maxInstancesPerLanguage)
+                    .build();
+            return new LeopardModelRegistry(
+                    Collections.unmodifiableMap(models),
+                    device,
+                    enableAutomaticPunctuation,
+                    enableDiarization,
+                    pool);
+        }
+    }
+}
@@ -0,0 +1,658 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size pool of Leopard instances that are leased to one caller at a time.
+ *
+ * <p>The instances can be replaced while the pool serves requests, for example to roll out a new model, with
+ * {@link #swap(Factory)}.
+ */
+public class LeopardPool implements AutoCloseable {
+
+    /**
+     * Creates the Leopard instances of a pool.
+     */
+    public interface Factory {
+
+        /**
+         * Creates a Leopard instance running on `device`.
+         *
+         * @param device Device string as accepted by {@link Leopard.Builder#setDevice(String)}.
+         * @return New Leopard instance.
+         * @throws LeopardException if the instance cannot be created.
+         */
+        Leopard create(String device) throws LeopardException;
+    }
+
+    private static final ExecutorService CHANNEL_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "leopard-pool-channel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // deletes instances abandoned by a swap or still running a timed-out call, which blocks until that call returns
+    private static final ExecutorService RETIRE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "leopard-pool-retire");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ArrayDeque<Leopard> idle;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final ReentrantLock swapLock = new ReentrantLock();
+    // replaced as a whole on swap so that readers outside the lock see a consistent list
+    private volatile List<Leopard> instances;
+    private volatile String[] devices;
+    // leased instances of every generation
+    private final Set<Leopard> leased = Collections.newSetFromMap(new IdentityHashMap<>());
+    // leased instances of a previous generation, deleted when they are released
+    private final Set<Leopard> retiring = Collections.newSetFromMap(new IdentityHashMap<>());
+    // leased instances deleted when a swap stopped waiting for them, still to be released by their callers
+    private final Set<Leopard> abandoned = Collections.newSetFromMap(new IdentityHashMap<>());
+    // released instances still running a call that timed out, held back until it returns
+    private final Set<Leopard> quarantined = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int numWaiting = 0;
+    private boolean isDeleted = false;
+
+    private LeopardPool(Factory factory, String[] devices) throws LeopardException {
+        this.devices = devices.clone();
+        this.instances = createInstances(factory, devices);
+        this.idle = new ArrayDeque<>(instances);
+    }
+
+    private static List<Leopard> createInstances(Factory factory, String[] devices) throws LeopardException {
+        final List<Leopard> created = new ArrayList<>(devices.length);
+        try {
+            for (String device : devices) {
+                created.add(factory.create(device));
+            }
+        } catch (LeopardException | RuntimeException e) {
+            for (Leopard leopard : created) {
+                leopard.delete();
+            }
+            throw e;
+        }
+        return created;
+    }
+
+    /**
+     * Leases an instance, waiting until one is available.
+     *
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardException if the pool is deleted or the calling thread is interrupted.
+     */
+    public Leopard acquire() throws LeopardException {
+        return acquire(null);
+    }
+
+    /**
+     * Leases an instance, waiting at most `timeout` for one to become available.
+     *
+     * @param timeout Maximum time to wait. Set to `null` to wait indefinitely.
+     * @return Leased instance. It must be returned with {@link #release(Leopard)}.
+     * @throws LeopardTimeoutException if no instance becomes available within `timeout`.
+     * @throws LeopardException        if the pool is deleted or the calling thread is interrupted.
+     */
+    public Leopard acquire(Duration timeout) throws LeopardException {
+        lock.lock();
+        try {
+            long remainingNs = timeout != null ? timeout.toNanos() : Long.MAX_VALUE;
+            numWaiting++;
+            try {
+                while (!isDeleted && idle.isEmpty()) {
+                    if (timeout == null) {
+                        available.await();
+                    } else {
+                        if (remainingNs <= 0) {
+                            throw new LeopardTimeoutException(String.format(
+                                    "No Leopard instance became available within %dms.", timeout.toMillis()));
+                        }
+                        remainingNs = available.awaitNanos(remainingNs);
+                    }
+                }
+            } finally {
+                numWaiting--;
+            }
+            if (isDeleted) {
+                throw new LeopardInvalidStateException("Attempted to acquire from LeopardPool after delete.");
+            }
+            final Leopard leopard = idle.pollFirst();
+            leased.add(leopard);
+            return leopard;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a leased instance to the pool. An instance still running a call that timed out (see
+     * {@link Leopard#isAbandonedCallRunning()}) is only leased again once that call returns.
+     *
+     * @param leopard Instance obtained from {@link #acquire()}.
+     * @throws IllegalArgumentException if `leopard` is not currently leased from this pool, e.g. because it was
+     *                                  already released.
+     */
+    public void release(Leopard leopard) {
+        final boolean isBusy = leopard.isAbandonedCallRunning();
+        lock.lock();
+        try {
+            if (!leased.remove(leopard)) {
+                throw new IllegalArgumentException("Released Leopard instance is not leased from this pool.");
+            }
+            if (abandoned.remove(leopard)) {
+                return;
+            }
+            if (retiring.remove(leopard)) {
+                if (retiring.isEmpty()) {
+                    drained.signalAll();
+                }
+            } else {
+                if (isDeleted) {
+                    return;
+                }
+                if (!isBusy) {
+                    idle.addFirst(leopard);
+                    available.signal();
+                    return;
+                }
+                quarantined.add(leopard);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (isBusy) {
+            leopard.whenAbandonedCallsReturn(() -> endQuarantine(leopard));
+        } else {
+            leopard.delete();
+        }
+    }
+
+    /**
+     * Returns a quarantined instance to the pool once its timed-out call has returned, or deletes it if it was
+     * replaced by a swap or the pool was deleted in the meantime.
+     */
+    private void endQuarantine(Leopard leopard) {
+        lock.lock();
+        try {
+            if (quarantined.remove(leopard) && !isDeleted && instances.contains(leopard)) {
+                idle.addFirst(leopard);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        leopard.delete();
+    }
+
+    /**
+     * Replaces all instances of the pool without interrupting service, creating one new instance per device of
+     * the pool. This is how a new model is rolled out:
+     *
+     * <ol>
+     * <li>The new instances are created and warmed up with a second of silence while the current instances keep
+     * serving requests. If any of them fails, the new instances are deleted and the pool is left unchanged.</li>
+     * <li>Leasing switches to the new instances at once. Idle instances of the previous generation are deleted.</li>
+     * <li>Leased instances of the previous generation are deleted when they are released, and this method
+     * returns once all of them have been.</li>
+     * </ol>
+     *
+     * @param factory Factory that creates the new instances, e.g. with a different model path.
+     * @throws LeopardException if the new instances cannot be created, the pool is deleted or the calling thread
+     *                          is interrupted.
+     */
+    public void swap(Factory factory) throws LeopardException {
+        swap(factory, null);
+    }
+
+    /**
+     * Replaces all instances of the pool without interrupting service. See {@link #swap(Factory)}.
+     *
+     * @param factory      Factory that creates the new instances, e.g. with a different model path.
+     * @param drainTimeout Maximum time to wait for leased instances of the previous generation to be released.
+     *                     Instances still leased afterwards are deleted in the background, so this method returns
+     *                     once the timeout passes. Calls already running on them complete first, but the next
+     *                     call of their lessee throws {@link LeopardInvalidStateException}. Releasing them is
+     *                     still allowed. Set to `null` to wait indefinitely.
+     * @throws LeopardException if the new instances cannot be created, the pool is deleted or the calling thread
+     *                          is interrupted.
+     */
+    public void swap(Factory factory, Duration drainTimeout) throws LeopardException {
+        swap(factory, devices, drainTimeout);
+    }
+
+    /**
+     * Replaces all instances of the pool with instances for `devices`, without interrupting service. This changes
+     * the layout of the pool, e.g. from four instances of two threads to two instances of four threads. See
+     * {@link #swap(Factory)}.
+     *
+     * @param factory      Factory that creates the new instances.
+     * @param devices      Device strings, one per new instance.
+     * @param drainTimeout Maximum time to wait for leased instances of the previous generation to be released.
+     *                     See {@link #swap(Factory, Duration)}. Set to `null` to wait indefinitely.
+     * @throws LeopardException if the new instances cannot be created, the pool is deleted or the calling thread
+     *                          is interrupted.
+     */
+    public void swap(Factory factory, String[] devices, Duration drainTimeout) throws LeopardException {
+        if (factory == null) {
+            throw new LeopardInvalidArgumentException("LeopardPool swap factory must not be null");
+        }
+        if (devices == null || devices.length == 0) {
+            throw new LeopardInvalidArgumentException("LeopardPool requires at least one device");
+        }
+        final String[] newDevices = devices.clone();
+        swapLock.lock();
+        try {
+            final List<Leopard> created = createInstances(factory, newDevices);
+            try {
+                for (Leopard leopard : created) {
+                    // the first call pages in the model and allocates working buffers
+                    leopard.process(new short[leopard.getSampleRate()]);
+                }
+            } catch (LeopardException | RuntimeException e) {
+                for (Leopard leopard : created) {
+                    leopard.delete();
+                }
+                throw e;
+            }
+
+            final List<Leopard> previous;
+            final List<Leopard> previousIdle;
+            lock.lock();
+            try {
+                if (isDeleted) {
+                    for (Leopard leopard : created) {
+                        leopard.delete();
+                    }
+                    throw new LeopardInvalidStateException("Attempted to swap LeopardPool after delete.");
+                }
+                previous = instances;
+                previousIdle = new ArrayList<>(idle);
+                for (Leopard leopard : previous) {
+                    // quarantined instances are deleted when their timed-out call returns
+                    if (!idle.contains(leopard) && !quarantined.contains(leopard)) {
+                        retiring.add(leopard);
+                    }
+                }
+                instances = created;
+                this.devices = newDevices;
+                idle.clear();
+                idle.addAll(created);
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            for (Leopard leopard : previousIdle) {
+                leopard.delete();
+            }
+
+            awaitDrained(previous, drainTimeout);
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until no instance of `previous` is leased, then deletes any that still are in the background.
+     */
+    private void awaitDrained(List<Leopard> previous, Duration timeout) throws LeopardException {
+        final List<Leopard> remaining = new ArrayList<>();
+        lock.lock();
+        try {
+            long remainingNs = timeout != null ? timeout.toNanos() : Long.MAX_VALUE;
+            while (!isDeleted && !retiring.isEmpty() && (timeout == null || remainingNs > 0)) {
+                if (timeout == null) {
+                    drained.await();
+                } else {
+                    remainingNs = drained.awaitNanos(remainingNs);
+                }
+            }
+            for (Leopard leopard : previous) {
+                if (retiring.remove(leopard)) {
+                    abandoned.add(leopard);
+                    remaining.add(leopard);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        } finally {
+            lock.unlock();
+        }
+        for (Leopard leopard : remaining) {
+            RETIRE_EXECUTOR.execute(leopard::delete);
+        }
+    }
+
+    /**
+     * Processes given audio data on the next available instance.
+     *
+     * @param pcm A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio frame.
+     */
+    public LeopardTranscript process(short[] pcm) throws LeopardException {
+        final Leopard leopard = acquire();
+        try {
+            return leopard.process(pcm);
+        } finally {
+            release(leopard);
+        }
+    }
+
+    /**
+     * Processes given audio file on the next available instance.
+     *
+     * @param path Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio file.
+     */
+    public LeopardTranscript processFile(String path) throws LeopardException {
+        final Leopard leopard = acquire();
+        try {
+            return leopard.processFile(path);
+        } finally {
+            release(leopard);
+        }
+    }
+
+    /**
+     * Transcribes each channel of a multichannel WAV file separately, instead of the downmix that
+     * {@link #processFile(String)} transcribes. Channels run concurrently on instances of the pool and are
+     * merged into one transcript whose words are ordered by start time and tagged with their channel as speaker
+     * tag: `1` for the first channel, `2` for the second and so on, as `0` means an unknown speaker. This
+     * separates speakers of recordings that keep them on separate channels, such as call recordings, without
+     * enabling diarization.
+     *
+     * @param path Absolute path to a 16-bit PCM WAV file with a sample rate equal to
+     *             {@link Leopard#getSampleRate()}.
+     * @return LeopardTranscript object with the words of all channels. Its transcript string is the words of the
+     *         merged word array separated by spaces.
+     * @throws LeopardException if the file is not a supported WAV file or there is an error while processing it.
+     */
+    public LeopardTranscript processFileChannels(String path) throws LeopardException {
+        if (path == null) {
+            throw new LeopardInvalidArgumentException("Passed null path to LeopardPool processFileChannels.");
+        }
+        final short[][] channels;
+        try {
+            final AudioProbe.WavInfo wav = AudioProbe.probeWav(path);
+            if (wav == null || wav.getBitsPerSample() != 16) {
+                throw new LeopardInvalidArgumentException(String.format(
+                        "LeopardPool processFileChannels requires a 16-bit PCM WAV file, got `%s`.", path));
+            }
+            final int sampleRate = instances.get(0).getSampleRate();
+            if (wav.getSampleRate() != sampleRate) {
+                throw new LeopardInvalidArgumentException(String.format(
+                        "LeopardPool processFileChannels requires a sample rate of %dHz, got %dHz.",
+                        sampleRate,
+                        wav.getSampleRate()));
+            }
+            channels = readChannels(path, wav);
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+
+        final List<Future<LeopardTranscript>> futures = new ArrayList<>(channels.length);
+        for (int i = 1; i < channels.length; i++) {
+            final short[] pcm = channels[i];
+            futures.add(CHANNEL_EXECUTOR.submit(() -> process(pcm)));
+        }
+
+        final LeopardTranscript[] transcripts = new LeopardTranscript[channels.length];
+        try {
+            transcripts[0] = process(channels[0]);
+            for (int i = 1; i < channels.length; i++) {
+                transcripts[i] = futures.get(i - 1).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeopardException) {
+                throw (LeopardException) e.getCause();
+            }
+            throw new LeopardException(e.getCause());
+        } finally {
+            for (Future<LeopardTranscript> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return mergeChannels(transcripts);
+    }
+
+    /**
+     * Reads the samples of a 16-bit PCM WAV file into one array per channel.
+     */
+    static short[][] readChannels(String path, AudioProbe.WavInfo wav) throws IOException {
+        final int numChannels = wav.getNumChannels();
+        final long numFrames = wav.getNumFrames();
+        if (numFrames > Integer.MAX_VALUE) {
+            throw new IOException(String.format("`%s` is too long to be read into memory.", path));
+        }
+        final short[][] channels = new short[numChannels][(int) numFrames];
+        final byte[] buffer = new byte[4096 * numChannels * 2];
+        try (FileInputStream stream = new FileInputStream(path)) {
+            stream.getChannel().position(wav.getDataOffset());
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+            int frame = 0;
+            while (frame < numFrames) {
+                final int framesToRead = (int) Math.min(4096, numFrames - frame);
+                try {
+                    input.readFully(buffer, 0, framesToRead * numChannels * 2);
+                } catch (EOFException e) {
+                    throw new IOException(String.format("`%s` ended before its data chunk.", path), e);
+                }
+                int offset = 0;
+                for (int i = 0; i < framesToRead; i++, frame++) {
+                    for (int c = 0; c < numChannels; c++, offset += 2) {
+                        channels[c][frame] = (short) ((buffer[offset] & 0xFF) | (buffer[offset + 1] << 8));
+                    }
+                }
+            }
+        }
+        return channels;
+    }
+
+    /**
+     * Merges per-channel transcripts into one, ordering words by start time and tagging them with their channel
+     * number, starting at `1`.
+     */
+    static LeopardTranscript mergeChannels(LeopardTranscript[] transcripts) {
+        final List<LeopardTranscript.Word> words = new ArrayList<>();
+        for (int c = 0; c < transcripts.length; c++) {
+            for (LeopardTranscript.Word word : transcripts[c].getWordArray()) {
+                words.add(new LeopardTranscript.Word(
+                        word.getWord(),
+                        word.getConfidence(),
+                        word.getStartSec(),
+                        word.getEndSec(),
+                        c + 1));
+            }
+        }
+        // stable, so words of different channels starting together keep channel order
+        words.sort(Comparator.comparingDouble(LeopardTranscript.Word::getStartSec));
+
+        final StringBuilder transcriptString = new StringBuilder();
+        for (LeopardTranscript.Word word : words) {
+            if (transcriptString.length() > 0) {
+                transcriptString.append(' ');
+            }
+            transcriptString.append(word.getWord());
+        }
+        return new LeopardTranscript(transcriptString.toString(), words.toArray(new LeopardTranscript.Word[0]));
+    }
+
+    /**
+     * Getter for the number of instances in the pool.
+     *
+     * @return Number of instances.
+     */
+    public int getSize() {
+        return instances.size();
+    }
+
+    /**
+     * Getter for the device strings the instances were created with, one entry per instance.
+     *
+     * @return Device strings.
+     */
+    public String[] getDevices() {
+        return devices.clone();
+    }
+
+    /**
+     * Getter for the number of instances that are not leased.
+     *
+     * @return Number of idle instances.
+     */
+    public int getNumIdle() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter for the number of callers waiting for an instance.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return numWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases all instances of the pool. Waiting callers fail, and calls already running on leased
+     * instances complete before their native resources are released.
+     */
+    public void delete() {
+        final List<Leopard> instancesToDelete;
+        lock.lock();
+        try {
+            if (isDeleted) {
+                return;
+            }
+            isDeleted = true;
+            instancesToDelete = new ArrayList<>(instances);
+            instancesToDelete.addAll(retiring);
+            idle.clear();
+            available.signalAll();
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Leopard leopard : instancesToDelete) {
+            leopard.delete();
+        }
+    }
+
+    /**
+     * Releases all instances of the pool. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    /**
+     * Builder for creating a pool of Leopard instances.
+     */
+    public static class Builder {
+        private Factory factory = null;
+        private String[] devices = null;
+
+        /**
+         * Setter for the factory that creates the instances of the pool.
+         *
+         * @param factory Factory that creates a Leopard instance for a device string.
+         */
+        public Builder setFactory(Factory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Setter for the devices of the pool. One instance is created per entry, so
+         * `setDevices("cpu:2", "cpu:2")` creates two instances running two threads each.
+         *
+         * @param devices Device strings, one per instance.
+         */
+        public Builder setDevices(String... devices) {
+            this.devices = devices;
+            return this;
+        }
+
+        /**
+         * Setter for a pool of identical instances.
+         *
+         * @param numInstances Number of instances.
+         * @param device       Device string shared by all instances.
+         */
+        public Builder setDevices(int numInstances, String device) {
+            if (numInstances <= 0) {
+                throw new IllegalArgumentException("Number of instances must be positive.");
+            }
+            this.devices = new String[numInstances];
+            Arrays.fill(this.devices, device);
+            return this;
+        }
+
+        /**
+         * Creates the pool and all of its instances.
+         */
+        public LeopardPool build() throws LeopardException {
+            if (factory == null) {
+                throw new LeopardInvalidArgumentException("LeopardPool factory must not be null");
+            }
+            if (devices == null || devices.length == 0) {
+                throw new LeopardInvalidArgumentException("LeopardPool requires at least one device");
+            }
+            return new LeopardPool(factory, devices);
+        }
+    }
+}
@@ -0,0 +1,728 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders transcription jobs on a {@link LeopardPool} by their audio duration, so that a few long files do
+ * not hold up many short ones.
+ *
+ * <p>The duration of every job is known before it runs: exactly for PCM and WAV files, and estimated from the
+ * file size for compressed formats. One worker thread per pool instance takes the next job according to the
+ * {@link Policy}; workers are added or retired when
+ * {@link LeopardPool#swap(LeopardPool.Factory, String[], Duration)} changes the number of instances. When a
+ * maximum segment duration is set, long PCM and 16-bit mono WAV jobs are split at quiet frames into segments that
+ * are scheduled on their own and merged back into one transcript, so a long job can use several instances at once
+ * and never occupies an instance for longer than one segment.
+ */
+public class LeopardScheduler implements AutoCloseable {
+
+    /**
+     * Order in which queued jobs are started.
+     */
+    public enum Policy {
+        /**
+         * Shortest audio first. Minimizes the mean and tail latency of short jobs; long jobs wait while
+         * shorter ones keep arriving.
+         */
+        SHORTEST_JOB_FIRST,
+
+        /**
+         * Serves the tenant that has received the least audio time so far; each tenant's jobs start in
+         * submission order. A tenant submitting many jobs cannot starve the others.
+         */
+        FAIR_SHARE,
+
+        /**
+         * Earliest deadline first, then shortest audio first for jobs without a deadline.
+         */
+        DEADLINE
+    }
+
+    private static final float CUT_SEARCH_SEC = 2.0f;
+    private static final float CUT_FRAME_SEC = 0.02f;
+    private static final String DEFAULT_TENANT = "";
+
+    private final LeopardPool pool;
+    private final Policy policy;
+    private final int sampleRate;
+    private final int maxSegmentLength;
+    private final JobQueue queue;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // guarded by lock
+    private final List<Thread> workers = new ArrayList<>();
+    private int nextWorkerId = 0;
+    private long nextSeq = 0;
+    private boolean isClosed = false;
+
+    private LeopardScheduler(LeopardPool pool, Policy policy, int sampleRate, float maxSegmentSec) {
+        this.pool = pool;
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.maxSegmentLength = (int) (maxSegmentSec * sampleRate);
+        this.queue = newQueue(policy);
+        lock.lock();
+        try {
+            addWorkers();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts workers until there is one per instance of the pool. Must be called with the lock held.
+     */
+    private void addWorkers() {
+        while (!isClosed && workers.size() < pool.getSize()) {
+            final Thread worker = new Thread(this::work, "leopard-scheduler-" + nextWorkerId++);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Schedules transcription of an audio file for the default tenant, without a deadline.
+     *
+     * @param path Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return Future transcription of the file.
+     * @throws LeopardException if the file cannot be read or the scheduler is closed.
+     */
+    public Future<LeopardTranscript> submitFile(String path) throws LeopardException {
+        return submitFile(path, null, null);
+    }
+
+    /**
+     * Schedules transcription of an audio file.
+     *
+     * @param path     Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @param tenant   Tenant the job is accounted to by {@link Policy#FAIR_SHARE}. Set to `null` for the
+     *                 default tenant.
+     * @param deadline Time after submission by which the job should complete, used by {@link Policy#DEADLINE}.
+     *                 Set to `null` for no deadline.
+     * @return Future transcription of the file.
+     * @throws LeopardException if the file cannot be read or the scheduler is closed.
+     */
+    public Future<LeopardTranscript> submitFile(String path, String tenant, Duration deadline)
+            throws LeopardException {
+        if (path == null || !new File(path).isFile()) {
+            throw new LeopardIOException(String.format("Audio file at path '%s' does not exist.", path));
+        }
+
+        final AudioProbe.WavInfo wav;
+        try {
+            wav = AudioProbe.probeWav(path);
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+
+        if (wav == null) {
+            return enqueue(tenant, deadline, AudioProbe.estimateDurationSec(path), l -> l.processFile(path));
+        }
+        final boolean isSplittable = wav.getNumChannels() == 1 &&
+                wav.getBitsPerSample() == 16 &&
+                wav.getSampleRate() == sampleRate;
+        if (maxSegmentLength <= 0 || !isSplittable || wav.getNumFrames() <= maxSegmentLength) {
+            return enqueue(tenant, deadline, wav.getDurationSec(), l -> l.processFile(path));
+        }
+
+        final long[] boundaries;
+        try {
+            boundaries = findSegmentBoundaries(
+                    wav.getNumFrames(),
+                    maxSegmentLength,
+                    (int) (CUT_SEARCH_SEC * sampleRate),
+                    (int) (CUT_FRAME_SEC * sampleRate),
+                    (start, length) -> readWavSamples(path, wav, start, length));
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+        return enqueueSegments(tenant, deadline, boundaries, (start, length) -> l -> {
+            // read in the worker, so only running segments are held in memory
+            final short[] pcm;
+            try {
+                pcm = readWavSamples(path, wav, start, length);
+            } catch (IOException e) {
+                throw new LeopardIOException(e);
+            }
+            return l.process(pcm);
+        });
+    }
+
+    /**
+     * Schedules transcription of audio data for the default tenant, without a deadline.
+     *
+     * @param pcm Audio samples. See {@link Leopard#process(short[])}. The array must not be modified until the
+     *            job completes.
+     * @return Future transcription of the audio.
+     * @throws LeopardException if the audio is invalid or the scheduler is closed.
+     */
+    public Future<LeopardTranscript> submit(short[] pcm) throws LeopardException {
+        return submit(pcm, null, null);
+    }
+
+    /**
+     * Schedules transcription of audio data.
+     *
+     * @param pcm      Audio samples. See {@link Leopard#process(short[])}. The array must not be modified until
+     *                 the job completes.
+     * @param tenant   Tenant the job is accounted to by {@link Policy#FAIR_SHARE}. Set to `null` for the
+     *                 default tenant.
+     * @param deadline Time after submission by which the job should complete, used by {@link Policy#DEADLINE}.
+     *                 Set to `null` for no deadline.
+     * @return Future transcription of the audio.
+     * @throws LeopardException if the audio is invalid or the scheduler is closed.
+     */
+    public Future<LeopardTranscript> submit(short[] pcm, String tenant, Duration deadline) throws LeopardException {
+        if (pcm == null || pcm.length == 0) {
+            throw new LeopardInvalidArgumentException("Passed null or empty frame to LeopardScheduler.");
+        }
+
+        if (maxSegmentLength <= 0 || pcm.length <= maxSegmentLength) {
+            return enqueue(tenant, deadline, (double) pcm.length / sampleRate, l -> l.process(pcm));
+        }
+
+        final long[] boundaries;
+        try {
+            boundaries = findSegmentBoundaries(
+                    pcm.length,
+                    maxSegmentLength,
+                    (int) (CUT_SEARCH_SEC * sampleRate),
+                    (int) (CUT_FRAME_SEC * sampleRate),
+                    (start, length) -> Arrays.copyOfRange(pcm, (int) start, (int) start + length));
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+        return enqueueSegments(tenant, deadline, boundaries, (start, length) -> l ->
+                l.process(Arrays.copyOfRange(pcm, (int) start, (int) start + length)));
+    }
+
+    /**
+     * Getter for the scheduling policy.
+     *
+     * @return Scheduling policy.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Getter for the number of jobs (or segments of split jobs) waiting to start.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the scheduler. Jobs that have not started fail with a {@link LeopardInvalidStateException}, and
+     * running jobs complete before this returns. The pool is not deleted.
+     */
+    @Override
+    public void close() {
+        final List<Job> pending = new ArrayList<>();
+        final List<Thread> running;
+        lock.lock();
+        try {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            running = new ArrayList<>(workers);
+            Job job;
+            while ((job = queue.poll()) != null) {
+                pending.add(job);
+            }
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Job job : pending) {
+            job.result.completeExceptionally(
+                    new LeopardInvalidStateException("LeopardScheduler was closed before the job started."));
+        }
+        for (Thread worker : running) {
+            if (worker == Thread.currentThread()) {
+                continue;
+            }
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Future<LeopardTranscript> enqueue(String tenant, Duration deadline, double durationSec, Task task)
+            throws LeopardException {
+        final Job job = newJob(tenant, deadline, durationSec, task);
+        lock.lock();
+        try {
+            checkOpen();
+            addWorkers();
+            queue.add(job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return job.result;
+    }
+
+    private Future<LeopardTranscript> enqueueSegments(
+            String tenant,
+            Duration deadline,
+            long[] boundaries,
+            SegmentTaskFactory taskFactory) throws LeopardException {
+        final List<Job> segments = new ArrayList<>(boundaries.length - 1);
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            final long start = boundaries[i];
+            final int length = (int) (boundaries[i + 1] - start);
+            segments.add(newJob(tenant, deadline, (double) length / sampleRate, taskFactory.create(start, length)));
+        }
+
+        final CompletableFuture<LeopardTranscript> result = new CompletableFuture<>();
+        final CompletableFuture<?>[] segmentResults = new CompletableFuture<?>[segments.size()];
+        for (int i = 0; i < segments.size(); i++) {
+            segmentResults[i] = segments.get(i).result;
+        }
+        CompletableFuture.allOf(segmentResults).whenComplete((ignored, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ?
+                        error.getCause() :
+                        error);
+                return;
+            }
+            final List<LeopardTranscript> transcripts = new ArrayList<>(segments.size());
+            for (Job segment : segments) {
+                transcripts.add(segment.result.join());
+            }
+            result.complete(merge(transcripts, boundaries, sampleRate));
+        });
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled()) {
+                for (Job segment : segments) {
+                    segment.result.cancel(false);
+                }
+            }
+        });
+
+        lock.lock();
+        try {
+            checkOpen();
+            addWorkers();
+            for (Job segment : segments) {
+                queue.add(segment);
+            }
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    private Job newJob(String tenant, Duration deadline, double durationSec, Task task) throws LeopardException {
+        if (deadline != null && deadline.isNegative()) {
+            throw new LeopardInvalidArgumentException("Deadline must not be negative.");
+        }
+        lock.lock();
+        try {
+            return new Job(
+                    nextSeq++,
+                    tenant != null ? tenant : DEFAULT_TENANT,
+                    deadline != null,
+                    deadline != null ? System.nanoTime() + deadline.toNanos() : 0,
+                    durationSec,
+                    task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() throws LeopardInvalidStateException {
+        if (isClosed) {
+            throw new LeopardInvalidStateException("Attempted to submit to LeopardScheduler after close.");
+        }
+    }
+
+    private void work() {
+        while (true) {
+            final Job job;
+            lock.lock();
+            try {
+                addWorkers();
+                while (!isClosed && queue.size() == 0 && !isSurplusWorker()) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (isClosed) {
+                    return;
+                }
+                if (isSurplusWorker()) {
+                    // the pool shrank; hand a wake-up meant for a job on to a remaining worker
+                    workers.remove(Thread.currentThread());
+                    notEmpty.signal();
+                    return;
+                }
+                job = queue.poll();
+            } finally {
+                lock.unlock();
+            }
+
+            if (job.result.isDone()) {
+                continue;
+            }
+            try {
+                final Leopard leopard = pool.acquire();
+                try {
+                    job.result.complete(job.task.run(leopard));
+                } finally {
+                    pool.release(leopard);
+                }
+            } catch (Throwable t) {
+                job.result.completeExceptionally(t);
+            }
+        }
+    }
+
+    private boolean isSurplusWorker() {
+        return workers.size() > pool.getSize();
+    }
+
+    private static short[] readWavSamples(String path, AudioProbe.WavInfo wav, long start, int length)
+            throws IOException {
+        final byte[] bytes = new byte[length * 2];
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            file.seek(wav.getDataOffset() + start * 2);
+            file.readFully(bytes);
+        }
+        final short[] pcm = new short[length];
+        for (int i = 0; i < length; i++) {
+            pcm[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+        }
+        return pcm;
+    }
+
+    /**
+     * Splits `numSamples` samples into segments of at most `maxSegmentLength` samples, cutting each one at the
+     * quietest frame within the last `searchLength` samples before the limit.
+     *
+     * @return Segment boundaries, starting with `0` and ending with `numSamples`.
+     */
+    static long[] findSegmentBoundaries(
+            long numSamples,
+            int maxSegmentLength,
+            int searchLength,
+            int frameLength,
+            SampleSource source) throws IOException {
+        searchLength = Math.max(1, Math.min(searchLength, maxSegmentLength / 2));
+        frameLength = Math.max(1, Math.min(frameLength, searchLength));
+
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long start = 0;
+        while (numSamples - start > maxSegmentLength) {
+            final long windowStart = start + maxSegmentLength - searchLength;
+            final short[] window = source.read(windowStart, searchLength);
+
+            int cut = window.length;
+            long minEnergy = Long.MAX_VALUE;
+            for (int end = window.length; end - frameLength >= 0; end -= frameLength) {
+                long energy = 0;
+                for (int i = end - frameLength; i < end; i++) {
+                    energy += Math.abs(window[i]);
+                }
+                if (energy < minEnergy) {
+                    minEnergy = energy;
+                    cut = end - frameLength / 2;
+                }
+            }
+            start = windowStart + cut;
+            boundaries.add(start);
+        }
+        boundaries.add(numSamples);
+
+        final long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    private static LeopardTranscript merge(List<LeopardTranscript> transcripts, long[] boundaries, int sampleRate) {
+        final StringBuilder transcriptString = new StringBuilder();
+        final List<LeopardTranscript.Word> words = new ArrayList<>();
+        for (int i = 0; i < transcripts.size(); i++) {
+            final LeopardTranscript transcript = transcripts.get(i);
+            final float offsetSec = (float) ((double) boundaries[i] / sampleRate);
+            if (!transcript.getTranscriptString().isEmpty()) {
+                if (transcriptString.length() > 0) {
+                    transcriptString.append(' ');
+                }
+                transcriptString.append(transcript.getTranscriptString());
+            }
+            for (LeopardTranscript.Word word : transcript.getWordArray()) {
+                words.add(new LeopardTranscript.Word(
+                        word.getWord(),
+                        word.getConfidence(),
+                        word.getStartSec() + offsetSec,
+                        word.getEndSec() + offsetSec,
+                        word.getSpeakerTag()));
+            }
+        }
+        return new LeopardTranscript(transcriptString.toString(), words.toArray(new LeopardTranscript.Word[0]));
+    }
+
+    static JobQueue newQueue(Policy policy) {
+        switch (policy) {
+            case FAIR_SHARE:
+                return new FairShareQueue();
+            case DEADLINE:
+                return new PriorityJobQueue(Comparator
+                        .comparing((Job job) -> !job.hasDeadline)
+                        .thenComparing((a, b) -> a.hasDeadline ? Long.signum(a.deadlineNs - b.deadlineNs) : 0)
+                        .thenComparingDouble(job -> job.durationSec)
+                        .thenComparingLong(job -> job.seq));
+            case SHORTEST_JOB_FIRST:
+            default:
+                return new PriorityJobQueue(Comparator
+                        .comparingDouble((Job job) -> job.durationSec)
+                        .thenComparingLong(job -> job.seq));
+        }
+    }
+
+    interface SampleSource {
+        short[] read(long start, int length) throws IOException;
+    }
+
+    private interface SegmentTaskFactory {
+        Task create(long start, int length);
+    }
+
+    interface Task {
+        LeopardTranscript run(Leopard leopard) throws LeopardException;
+    }
+
+    static final class Job {
+        final long seq;
+        final String tenant;
+        final boolean hasDeadline;
+        final long deadlineNs;
+        final double durationSec;
+        final Task task;
+        final CompletableFuture<LeopardTranscript> result = new CompletableFuture<>();
+
+        Job(long seq, String tenant, boolean hasDeadline, long deadlineNs, double durationSec, Task task) {
+            this.seq = seq;
+            this.tenant = tenant;
+            this.hasDeadline = hasDeadline;
+            this.deadlineNs = deadlineNs;
+            this.durationSec = durationSec;
+            this.task = task;
+        }
+    }
+
+    interface JobQueue {
+        void add(Job job);
+
+        Job poll();
+
+        int size();
+    }
+
+    private static final class PriorityJobQueue implements JobQueue {
+        private final PriorityQueue<Job> jobs;
+
+        PriorityJobQueue(Comparator<Job> comparator) {
+            this.jobs = new PriorityQueue<>(comparator);
+        }
+
+        @Override
+        public void add(Job job) {
+            jobs.add(job);
+        }
+
+        @Override
+        public Job poll() {
+            return jobs.poll();
+        }
+
+        @Override
+        public int size() {
+            return jobs.size();
+        }
+    }
+
+    /**
+     * Serves the tenant that has received the least audio time so far. A tenant that becomes active starts at
+     * the usage of the last served tenant, so idle periods are not banked as credit.
+     */
+    private static final class FairShareQueue implements JobQueue {
+        private final Map<String, Tenant> tenants = new HashMap<>();
+        private double virtualTimeSec = 0;
+        private int size = 0;
+
+        @Override
+        public void add(Job job) {
+            Tenant tenant = tenants.get(job.tenant);
+            if (tenant == null) {
+                tenant = new Tenant();
+                tenants.put(job.tenant, tenant);
+            }
+            if (tenant.jobs.isEmpty()) {
+                tenant.usageSec = Math.max(tenant.usageSec, virtualTimeSec);
+            }
+            tenant.jobs.addLast(job);
+            size++;
+        }
+
+        @Override
+        public Job poll() {
+            Tenant next = null;
+            for (Tenant tenant : tenants.values()) {
+                if (tenant.jobs.isEmpty()) {
+                    continue;
+                }
+                if (next == null ||
+                        tenant.usageSec < next.usageSec ||
+                        (tenant.usageSec == next.usageSec && tenant.jobs.peekFirst().seq < next.jobs.peekFirst().seq)) {
+                    next = tenant;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+
+            final Job job = next.jobs.pollFirst();
+            virtualTimeSec = next.usageSec;
+            next.usageSec += job.durationSec;
+            size--;
+
+            // forget idle tenants that would be reset to the virtual time anyway
+            final Iterator<Tenant> iterator = tenants.values().iterator();
+            while (iterator.hasNext()) {
+                final Tenant tenant = iterator.next();
+                if (tenant.jobs.isEmpty() && tenant.usageSec <= virtualTimeSec) {
+                    iterator.remove();
+                }
+            }
+            return job;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private static final class Tenant {
+            private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+            private double usageSec = 0;
+        }
+    }
+
+    /**
+     * Builder for creating a scheduler over a pool of Leopard instances.
+     */
+    public static class Builder {
+        private LeopardPool pool = null;
+        private Policy policy = Policy.SHORTEST_JOB_FIRST;
+        private float maxSegmentSec = 0;
+
+        /**
+         * Setter for the pool that runs the jobs. The scheduler runs one worker per instance, also after a
+         * {@link LeopardPool#swap(LeopardPool.Factory, String[], Duration)} that changes the number of instances.
+         * The pool may still be used directly, in which case workers wait for instances like any other caller.
+         *
+         * @param pool Pool of Leopard instances.
+         */
+        public Builder setPool(LeopardPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Setter for the scheduling policy. Defaults to {@link Policy#SHORTEST_JOB_FIRST}.
+         *
+         * @param policy Scheduling policy.
+         */
+        public Builder setPolicy(Policy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum duration of a segment. Longer PCM and 16-bit mono WAV jobs are split into
+         * segments that run in parallel and are merged into one transcript. Speaker tags are only consistent
+         * within a segment. Set to `0` (the default) to never split jobs.
+         *
+         * @param maxSegmentSec Maximum segment duration in seconds.
+         */
+        public Builder setMaxSegmentSec(float maxSegmentSec) {
+            this.maxSegmentSec = maxSegmentSec;
+            return this;
+        }
+
+        /**
+         * Creates the scheduler and starts its workers.
+         */
+        public LeopardScheduler build() throws LeopardException {
+            if (pool == null) {
+                throw new LeopardInvalidArgumentException("LeopardScheduler pool must not be null");
+            }
+            if (policy == null) {
+                throw new LeopardInvalidArgumentException("LeopardScheduler policy must not be null");
+            }
+            if (maxSegmentSec < 0) {
+                throw new LeopardInvalidArgumentException("Maximum segment duration must not be negative");
+            }
+            if (maxSegmentSec > 0 && maxSegmentSec < 2 * CUT_SEARCH_SEC) {
+                throw new LeopardInvalidArgumentException(String.format(
+                        "Maximum segment duration must be at least %.0f seconds", 2 * CUT_SEARCH_SEC));
+            }
+
+            final Leopard leopard = pool.acquire();
+            final int sampleRate;
+            try {
+                sampleRate = leopard.getSampleRate();
+            } finally {
+                pool.release(leopard);
+            }
+            return new LeopardScheduler(pool, policy, sampleRate, maxSegmentSec);
+        }
+    }
+}
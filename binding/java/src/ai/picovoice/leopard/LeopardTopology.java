@@ -0,0 +1,356 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Describes the inference hardware available to Leopard and derives pool layouts from it.
+ *
+ * <p>A layout is a number of instances and a number of CPU threads per instance. More instances with fewer
+ * threads favour throughput under concurrent load, fewer instances with more threads favour the latency of a
+ * single call. {@link #recommend(long)} picks a layout from the hardware alone, while
+ * {@link #benchmark(LeopardPool.Factory, short[], long)} measures the candidate layouts on real audio.
+ */
+public class LeopardTopology {
+
+    private static final double MEMORY_BUDGET_FRACTION = 0.75;
+    private static final int DEFAULT_THREADS_PER_INSTANCE = 2;
+
+    private final String[] devices;
+    private final int numCpuThreads;
+    private final String[] gpuDevices;
+    private final long totalMemoryBytes;
+
+    LeopardTopology(String[] devices, int availableProcessors, long totalMemoryBytes) {
+        int numCpuThreads = 0;
+        List<String> gpuDevices = new ArrayList<>();
+        for (String device : devices) {
+            String[] parts = device.trim().toLowerCase(Locale.ENGLISH).split(":", 2);
+            if (parts[0].equals("cpu")) {
+                int numThreads = availableProcessors;
+                if (parts.length == 2) {
+                    try {
+                        numThreads = Integer.parseInt(parts[1]);
+                    } catch (NumberFormatException e) {
+                        numThreads = availableProcessors;
+                    }
+                }
+                numCpuThreads = Math.max(numCpuThreads, numThreads);
+            } else if (parts[0].equals("gpu")) {
+                gpuDevices.add(parts.length == 2 ? device.trim() : "gpu");
+            }
+        }
+
+        this.devices = devices.clone();
+        this.numCpuThreads = numCpuThreads > 0 ? numCpuThreads : Math.max(availableProcessors, 1);
+        this.gpuDevices = gpuDevices.toArray(new String[0]);
+        this.totalMemoryBytes = totalMemoryBytes;
+    }
+
+    /**
+     * Detects the topology using the default native library.
+     *
+     * @return Detected topology.
+     * @throws LeopardException if the hardware devices cannot be listed.
+     */
+    public static LeopardTopology detect() throws LeopardException {
+        return fromDevices(Leopard.getAvailableDevices());
+    }
+
+    /**
+     * Detects the topology using the given native library.
+     *
+     * @param libraryPath Absolute path to the native Leopard library.
+     * @return Detected topology.
+     * @throws LeopardException if the hardware devices cannot be listed.
+     */
+    public static LeopardTopology detect(String libraryPath) throws LeopardException {
+        return fromDevices(Leopard.getAvailableDevices(libraryPath));
+    }
+
+    private static LeopardTopology fromDevices(String[] devices) {
+        return new LeopardTopology(
+                devices,
+                Runtime.getRuntime().availableProcessors(),
+                getTotalPhysicalMemory());
+    }
+
+    private static long getTotalPhysicalMemory() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean)) {
+            return -1;
+        }
+        // getTotalMemorySize replaces getTotalPhysicalMemorySize, which is deprecated since JDK 14; both are
+        // looked up reflectively so the binding compiles without warnings and runs on JDK 8
+        for (String name : new String[]{"getTotalMemorySize", "getTotalPhysicalMemorySize"}) {
+            try {
+                return (Long) com.sun.management.OperatingSystemMXBean.class.getMethod(name).invoke(os);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // try the next name
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Getter for the raw device strings reported by {@link Leopard#getAvailableDevices()}.
+     *
+     * @return Device strings.
+     */
+    public String[] getDevices() {
+        return devices.clone();
+    }
+
+    /**
+     * Getter for the number of CPU threads available for inference.
+     *
+     * @return Number of CPU threads.
+     */
+    public int getNumCpuThreads() {
+        return numCpuThreads;
+    }
+
+    /**
+     * Getter for the GPU device strings (e.g. `gpu:0`).
+     *
+     * @return GPU device strings.
+     */
+    public String[] getGpuDevices() {
+        return gpuDevices.clone();
+    }
+
+    /**
+     * Getter for the total physical memory of the host.
+     *
+     * @return Total physical memory in bytes, or `-1` if unknown.
+     */
+    public long getTotalMemoryBytes() {
+        return totalMemoryBytes;
+    }
+
+    /**
+     * Lists the CPU layouts worth considering: powers of two threads per instance, with as many instances as
+     * the CPU threads and memory budget allow.
+     *
+     * @param instanceMemoryBytes Estimated memory used by one instance, usually a small multiple of the model
+     *                            file size. Set to `0` to ignore memory.
+     * @return Candidate layouts, ordered by increasing threads per instance.
+     */
+    public List<Layout> getCandidateLayouts(long instanceMemoryBytes) {
+        final int maxInstances = getMaxInstances(instanceMemoryBytes);
+        final List<Layout> layouts = new ArrayList<>();
+        for (int numThreads = 1; numThreads <= numCpuThreads; numThreads *= 2) {
+            layouts.add(cpuLayout(Math.min(numCpuThreads / numThreads, maxInstances), numThreads));
+        }
+        if (Integer.bitCount(numCpuThreads) != 1) {
+            layouts.add(cpuLayout(1, numCpuThreads));
+        }
+        return layouts;
+    }
+
+    /**
+     * Recommends a layout without running the engine. GPUs get one instance each; otherwise CPU threads are
+     * split into instances of {@value #DEFAULT_THREADS_PER_INSTANCE} threads, within the memory budget.
+     *
+     * @param instanceMemoryBytes Estimated memory used by one instance. Set to `0` to ignore memory.
+     * @return Recommended layout.
+     */
+    public Layout recommend(long instanceMemoryBytes) {
+        if (gpuDevices.length > 0) {
+            return new Layout(gpuDevices.clone(), 0);
+        }
+        final int numThreads = Math.min(DEFAULT_THREADS_PER_INSTANCE, numCpuThreads);
+        return cpuLayout(Math.min(numCpuThreads / numThreads, getMaxInstances(instanceMemoryBytes)), numThreads);
+    }
+
+    /**
+     * Measures every candidate layout on `pcm` and returns the one with the highest throughput. Each layout
+     * is built as a pool, warmed up with one call per instance, and then timed on two calls per instance
+     * issued concurrently. This takes several seconds and is meant to run once at startup.
+     *
+     * @param factory             Factory used to build the pools, typically wrapping a {@link Leopard.Builder}.
+     * @param pcm                 Representative audio, as accepted by {@link Leopard#process(short[])}.
+     * @param instanceMemoryBytes Estimated memory used by one instance. Set to `0` to ignore memory.
+     * @return Fastest layout, with its measured throughput.
+     * @throws LeopardException if an instance cannot be created or processing fails.
+     */
+    public Layout benchmark(LeopardPool.Factory factory, short[] pcm, long instanceMemoryBytes)
+            throws LeopardException {
+        if (factory == null || pcm == null || pcm.length == 0) {
+            throw new LeopardInvalidArgumentException("Benchmark requires a factory and non-empty audio.");
+        }
+
+        final List<Layout> candidates = new ArrayList<>();
+        if (gpuDevices.length > 0) {
+            candidates.add(new Layout(gpuDevices.clone(), 0));
+        }
+        candidates.addAll(getCandidateLayouts(instanceMemoryBytes));
+
+        Layout best = null;
+        for (Layout candidate : candidates) {
+            final Layout measured = measure(factory, candidate, pcm);
+            if (best == null || measured.getThroughput() > best.getThroughput()) {
+                best = measured;
+            }
+        }
+        return best;
+    }
+
+    private static Layout measure(LeopardPool.Factory factory, Layout layout, short[] pcm) throws LeopardException {
+        final int numInstances = layout.getNumInstances();
+        final ExecutorService executor = Executors.newFixedThreadPool(numInstances);
+        try (LeopardPool pool = layout.createPool(factory)) {
+            runConcurrently(pool, executor, pcm, numInstances);
+
+            final int numCalls = numInstances * 2;
+            final long before = System.nanoTime();
+            runConcurrently(pool, executor, pcm, numCalls);
+            final double elapsedSec = (System.nanoTime() - before) * 1e-9;
+
+            final Leopard leopard = pool.acquire();
+            final double audioSec = (double) pcm.length / leopard.getSampleRate();
+            pool.release(leopard);
+
+            return new Layout(layout.devices, layout.numThreadsPerInstance, numCalls * audioSec / elapsedSec);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void runConcurrently(
+            LeopardPool pool,
+            ExecutorService executor,
+            short[] pcm,
+            int numCalls) throws LeopardException {
+        final List<Future<LeopardTranscript>> futures = new ArrayList<>(numCalls);
+        for (int i = 0; i < numCalls; i++) {
+            futures.add(executor.submit(() -> pool.process(pcm)));
+        }
+        try {
+            for (Future<LeopardTranscript> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeopardException) {
+                throw (LeopardException) e.getCause();
+            }
+            throw new LeopardException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeopardException(e);
+        }
+    }
+
+    private int getMaxInstances(long instanceMemoryBytes) {
+        if (instanceMemoryBytes <= 0 || totalMemoryBytes <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.max(1, Math.min(
+                Integer.MAX_VALUE,
+                (long) (totalMemoryBytes * MEMORY_BUDGET_FRACTION) / instanceMemoryBytes));
+    }
+
+    private static Layout cpuLayout(int numInstances, int numThreads) {
+        final String[] devices = new String[Math.max(numInstances, 1)];
+        Arrays.fill(devices, "cpu:" + numThreads);
+        return new Layout(devices, numThreads);
+    }
+
+    /**
+     * Pool layout: the device string of every instance.
+     */
+    public static class Layout {
+        private final String[] devices;
+        private final int numThreadsPerInstance;
+        private final double throughput;
+
+        Layout(String[] devices, int numThreadsPerInstance) {
+            this(devices, numThreadsPerInstance, Double.NaN);
+        }
+
+        Layout(String[] devices, int numThreadsPerInstance, double throughput) {
+            this.devices = devices;
+            this.numThreadsPerInstance = numThreadsPerInstance;
+            this.throughput = throughput;
+        }
+
+        /**
+         * Getter for the number of instances.
+         *
+         * @return Number of instances.
+         */
+        public int getNumInstances() {
+            return devices.length;
+        }
+
+        /**
+         * Getter for the number of CPU threads per instance.
+         *
+         * @return Number of threads per instance, or `0` for GPU layouts.
+         */
+        public int getNumThreadsPerInstance() {
+            return numThreadsPerInstance;
+        }
+
+        /**
+         * Getter for the device string of every instance.
+         *
+         * @return Device strings, one per instance.
+         */
+        public String[] getDevices() {
+            return devices.clone();
+        }
+
+        /**
+         * Getter for the measured throughput, in seconds of audio transcribed per second of wall time.
+         *
+         * @return Throughput, or `NaN` if the layout was not benchmarked.
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        /**
+         * Creates a pool with this layout.
+         *
+         * @param factory Factory that creates a Leopard instance for a device string.
+         * @return New pool.
+         * @throws LeopardException if an instance cannot be created.
+         */
+        public LeopardPool createPool(LeopardPool.Factory factory) throws LeopardException {
+            return new LeopardPool.Builder()
+                    .setFactory(factory)
+                    .setDevices(devices)
+                    .build();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d x %s%s",
+                    devices.length,
+                    numThreadsPerInstance > 0 ? devices[0] : String.join(", ", devices),
+                    Double.isNaN(throughput) ? "" : String.format(" (%.1fx realtime)", throughput));
+        }
+    }
+}
@@ -12,6 +12,10 @@
 
 package ai.picovoice.leopard;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 /**
  * Class that contains transcription results returned from Leopard.
  */
@@ -49,6 +53,33 @@ public class LeopardTranscript {
         return wordArray;
     }
 
+    /**
+     * Writes the transcript to a stream in a compact binary format. Word strings are dictionary-coded
+     * and timestamps are delta-encoded at millisecond resolution.
+     *
+     * @param os Stream to write the encoded transcript to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        TranscriptCodec.encode(this, os);
+    }
+
+    /**
+     * Reads a transcript written by {@link #writeTo(OutputStream)}. Decoding starts at the current
+     * position of the buffer and advances it past the encoded transcript. Strings are decoded directly
+     * from the backing array of heap buffers.
+     *
+     * @param buffer Buffer containing the encoded transcript.
+     * @return Decoded LeopardTranscript.
+     * @throws LeopardException if the buffer does not contain a valid encoded transcript.
+     */
+    public static LeopardTranscript readFrom(ByteBuffer buffer) throws LeopardException {
+        if (buffer == null) {
+            throw new LeopardInvalidArgumentException("Passed null buffer to LeopardTranscript readFrom.");
+        }
+        return TranscriptCodec.decode(buffer);
+    }
+
     /**
      * Class for storing word metadata.
      */
@@ -0,0 +1,121 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Owner of a native Leopard object.
+ *
+ * <p>Calls into the engine hold the read lock for their whole duration, while {@link #close()} takes the write
+ * lock, so a handle is never freed while a call is still using it. If the owning {@link Leopard} becomes
+ * unreachable without being deleted, a daemon thread frees the native object as a safety net. This mirrors
+ * {@code java.lang.ref.Cleaner}, which is not available on the Java 8 runtime this library targets.
+ */
+final class NativeHandle {
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    private static final Set<Reclaimer> RECLAIMERS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    static {
+        Thread reclaimerThread = new Thread(NativeHandle::reclaim, "leopard-handle-reclaimer");
+        reclaimerThread.setDaemon(true);
+        reclaimerThread.start();
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Reclaimer reclaimer;
+    private long handle;
+
+    NativeHandle(Object owner, long handle) {
+        this.handle = handle;
+        this.reclaimer = new Reclaimer(owner, this);
+        RECLAIMERS.add(reclaimer);
+    }
+
+    private static void reclaim() {
+        while (true) {
+            try {
+                Reference<?> reference = QUEUE.remove();
+                if (reference instanceof Reclaimer) {
+                    Reclaimer reclaimer = (Reclaimer) reference;
+                    if (RECLAIMERS.remove(reclaimer)) {
+                        reclaimer.target.free();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // keep serving the queue; this thread lives for the lifetime of the JVM
+            } catch (Throwable t) {
+                // a failing native delete must not stop reclamation of other handles
+            }
+        }
+    }
+
+    /**
+     * Acquires the handle for a native call. A non-zero result must be paired with {@link #release()}.
+     *
+     * @return The native handle, or `0` if it has already been freed.
+     */
+    long acquire() {
+        lock.readLock().lock();
+        if (handle == 0) {
+            lock.readLock().unlock();
+            return 0;
+        }
+        return handle;
+    }
+
+    /**
+     * Releases a handle obtained from a successful {@link #acquire()}.
+     */
+    void release() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * Frees the native object once all in-flight calls have returned. Safe to call more than once.
+     */
+    void close() {
+        if (RECLAIMERS.remove(reclaimer)) {
+            reclaimer.clear();
+        }
+        free();
+    }
+
+    private void free() {
+        lock.writeLock().lock();
+        try {
+            if (handle != 0) {
+                LeopardNative.delete(handle);
+                handle = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Reclaimer extends PhantomReference<Object> {
+        private final NativeHandle target;
+
+        Reclaimer(Object owner, NativeHandle target) {
+            super(owner, QUEUE);
+            this.target = target;
+        }
+    }
+}
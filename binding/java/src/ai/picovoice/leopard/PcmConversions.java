@@ -0,0 +1,164 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+/**
+ * Bulk conversions between PCM sample formats.
+ *
+ * <p>On JDK 22 and later, when the `jdk.incubator.vector` module is added to the runtime
+ * (`--add-modules jdk.incubator.vector`), conversions use SIMD instructions through the Vector API. Otherwise they
+ * run as scalar loops. Both produce identical results.
+ */
+public final class PcmConversions {
+
+    private static final Kernels KERNELS = loadKernels();
+
+    private PcmConversions() {
+    }
+
+    /**
+     * Converts normalized float samples to 16-bit samples. Samples are scaled by 32768, clipped to the 16-bit range
+     * and truncated toward zero. `NaN` converts to `0`.
+     *
+     * @param src       Float samples, nominally in `[-1, 1]`.
+     * @param srcOffset Index of the first sample to convert.
+     * @param dst       Array receiving 16-bit samples.
+     * @param dstOffset Index of the first output sample.
+     * @param length    Number of samples to convert.
+     */
+    public static void floatToShort(float[] src, int srcOffset, short[] dst, int dstOffset, int length) {
+        checkRange(src.length, srcOffset, length);
+        checkRange(dst.length, dstOffset, length);
+        KERNELS.floatToShort(src, srcOffset, dst, dstOffset, length);
+    }
+
+    /**
+     * Converts 16-bit samples to normalized float samples in `[-1, 1)`.
+     *
+     * @param src       16-bit samples.
+     * @param srcOffset Index of the first sample to convert.
+     * @param dst       Array receiving float samples.
+     * @param dstOffset Index of the first output sample.
+     * @param length    Number of samples to convert.
+     */
+    public static void shortToFloat(short[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+        checkRange(src.length, srcOffset, length);
+        checkRange(dst.length, dstOffset, length);
+        KERNELS.shortToFloat(src, srcOffset, dst, dstOffset, length);
+    }
+
+    /**
+     * Averages the channels of interleaved stereo 16-bit samples, rounding toward negative infinity.
+     *
+     * @param src       Interleaved left and right samples.
+     * @param srcOffset Index of the left sample of the first frame.
+     * @param dst       Array receiving mono samples.
+     * @param dstOffset Index of the first output sample.
+     * @param numFrames Number of stereo frames to downmix.
+     */
+    public static void downmixStereo(short[] src, int srcOffset, short[] dst, int dstOffset, int numFrames) {
+        checkRange(src.length, srcOffset, 2 * numFrames);
+        checkRange(dst.length, dstOffset, numFrames);
+        KERNELS.downmixStereo(src, srcOffset, dst, dstOffset, numFrames);
+    }
+
+    /**
+     * Averages the channels of interleaved stereo float samples.
+     *
+     * @param src       Interleaved left and right samples.
+     * @param srcOffset Index of the left sample of the first frame.
+     * @param dst       Array receiving mono samples.
+     * @param dstOffset Index of the first output sample.
+     * @param numFrames Number of stereo frames to downmix.
+     */
+    public static void downmixStereo(float[] src, int srcOffset, float[] dst, int dstOffset, int numFrames) {
+        checkRange(src.length, srcOffset, 2 * numFrames);
+        checkRange(dst.length, dstOffset, numFrames);
+        KERNELS.downmixStereo(src, srcOffset, dst, dstOffset, numFrames);
+    }
+
+    /**
+     * Whether conversions use the Vector API.
+     *
+     * @return `true` if conversions run as SIMD instructions.
+     */
+    public static boolean isVectorized() {
+        return !(KERNELS instanceof ScalarKernels);
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range [%d, %d + %d) is out of bounds for length %d.", offset, offset, length, arrayLength));
+        }
+    }
+
+    static Kernels loadKernels() {
+        try {
+            // packaged under META-INF/versions/22 and only linkable when jdk.incubator.vector is present
+            return (Kernels) Class.forName("ai.picovoice.leopard.VectorKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return new ScalarKernels();
+        }
+    }
+
+    /**
+     * Conversion loops over validated ranges.
+     */
+    interface Kernels {
+        void floatToShort(float[] src, int srcOffset, short[] dst, int dstOffset, int length);
+
+        void shortToFloat(short[] src, int srcOffset, float[] dst, int dstOffset, int length);
+
+        void downmixStereo(short[] src, int srcOffset, short[] dst, int dstOffset, int numFrames);
+
+        void downmixStereo(float[] src, int srcOffset, float[] dst, int dstOffset, int numFrames);
+    }
+
+    /**
+     * Portable conversion loops, also used for the tails of vectorized loops.
+     */
+    static final class ScalarKernels implements Kernels {
+
+        @Override
+        public void floatToShort(float[] src, int srcOffset, short[] dst, int dstOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                final float scaled = src[srcOffset + i] * 32768f;
+                dst[dstOffset + i] = (short) (int) Math.min(Math.max(scaled, -32768f), 32767f);
+            }
+        }
+
+        @Override
+        public void shortToFloat(short[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstOffset + i] = src[srcOffset + i] * (1f / 32768f);
+            }
+        }
+
+        @Override
+        public void downmixStereo(short[] src, int srcOffset, short[] dst, int dstOffset, int numFrames) {
+            for (int i = 0; i < numFrames; i++) {
+                dst[dstOffset + i] = (short) ((src[srcOffset + 2 * i] + src[srcOffset + 2 * i + 1]) >> 1);
+            }
+        }
+
+        @Override
+        public void downmixStereo(float[] src, int srcOffset, float[] dst, int dstOffset, int numFrames) {
+            for (int i = 0; i < numFrames; i++) {
+                dst[dstOffset + i] = (src[srcOffset + 2 * i] + src[srcOffset + 2 * i + 1]) * 0.5f;
+            }
+        }
+    }
+}
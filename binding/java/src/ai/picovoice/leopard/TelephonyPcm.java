@@ -0,0 +1,265 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Converts 8kHz G.711 telephony audio into the 16kHz 16-bit PCM that Leopard accepts.
+ *
+ * <p>Samples are expanded through a 256-entry table and upsampled by two with a half-band interpolation filter.
+ * A converter keeps the filter state between calls, so a stream can be converted in chunks of any size without
+ * allocating. Output lags input by {@link #FILTER_DELAY} input samples; call {@link #flush(short[], int)} at the end
+ * of the stream to emit them. A converter is not thread-safe.
+ */
+public final class TelephonyPcm {
+
+    /**
+     * G.711 companding law.
+     */
+    public enum Encoding {
+        /**
+         * G.711 mu-law, used in North America and Japan.
+         */
+        MU_LAW,
+        /**
+         * G.711 A-law, used in Europe and most other regions.
+         */
+        A_LAW
+    }
+
+    /**
+     * Sample rate of G.711 audio.
+     */
+    public static final int INPUT_SAMPLE_RATE = 8000;
+
+    /**
+     * Number of input samples the output lags behind the input.
+     */
+    public static final int FILTER_DELAY = 6;
+
+    private static final short[] MU_LAW_TABLE = new short[256];
+    private static final short[] A_LAW_TABLE = new short[256];
+
+    /**
+     * Q15 coefficients of the odd phase of the half-band filter, applied symmetrically around the output sample.
+     * The even phase passes input samples through.
+     */
+    private static final int[] TAPS = new int[FILTER_DELAY];
+
+    private static final int CHUNK_LENGTH = 160;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            MU_LAW_TABLE[i] = mulawToLinear((byte) i);
+            A_LAW_TABLE[i] = alawToLinear((byte) i);
+        }
+
+        // windowed sinc at half-sample offsets, normalized to unity DC gain
+        final double[] taps = new double[FILTER_DELAY];
+        double sum = 0;
+        for (int k = 0; k < FILTER_DELAY; k++) {
+            final double x = k + 0.5;
+            final double window = 0.42 + 0.5 * Math.cos(Math.PI * x / FILTER_DELAY) +
+                    0.08 * Math.cos(2 * Math.PI * x / FILTER_DELAY);
+            taps[k] = Math.sin(Math.PI * x) / (Math.PI * x) * window;
+            sum += 2 * taps[k];
+        }
+        for (int k = 0; k < FILTER_DELAY; k++) {
+            TAPS[k] = (int) Math.round(taps[k] / sum * 32768);
+        }
+    }
+
+    private final short[] table;
+    private final short[] history = new short[2 * FILTER_DELAY];
+    private int historyIndex = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param encoding Companding law of the input.
+     */
+    public TelephonyPcm(Encoding encoding) {
+        if (encoding == null) {
+            throw new IllegalArgumentException("TelephonyPcm encoding must not be null.");
+        }
+        this.table = encoding == Encoding.MU_LAW ? MU_LAW_TABLE : A_LAW_TABLE;
+    }
+
+    /**
+     * Decodes a single G.711 sample without resampling.
+     *
+     * @param encoding Companding law of the sample.
+     * @param sample   Encoded sample.
+     * @return 16-bit linear sample.
+     */
+    public static short decodeSample(Encoding encoding, byte sample) {
+        return (encoding == Encoding.MU_LAW ? MU_LAW_TABLE : A_LAW_TABLE)[sample & 0xFF];
+    }
+
+    /**
+     * Converts a chunk of G.711 samples. Writes two output samples per input sample.
+     *
+     * @param input        Encoded 8kHz samples.
+     * @param offset       Index of the first sample to convert.
+     * @param length       Number of samples to convert.
+     * @param output       Array receiving 16kHz samples. It must have room for `2 * length` samples.
+     * @param outputOffset Index of the first output sample.
+     * @return Number of output samples written.
+     */
+    public int convert(byte[] input, int offset, int length, short[] output, int outputOffset) {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new IndexOutOfBoundsException("Input range is out of bounds.");
+        }
+        if (outputOffset < 0 || outputOffset + 2 * length > output.length) {
+            throw new IndexOutOfBoundsException("Output array is too small for the converted samples.");
+        }
+        int o = outputOffset;
+        for (int i = offset; i < offset + length; i++) {
+            o = push(table[input[i] & 0xFF], output, o);
+        }
+        return o - outputOffset;
+    }
+
+    /**
+     * Emits the samples still held by the filter and resets the converter for a new stream.
+     *
+     * @param output       Array receiving 16kHz samples. It must have room for `2 * FILTER_DELAY` samples.
+     * @param outputOffset Index of the first output sample.
+     * @return Number of output samples written.
+     */
+    public int flush(short[] output, int outputOffset) {
+        if (outputOffset < 0 || outputOffset + 2 * FILTER_DELAY > output.length) {
+            throw new IndexOutOfBoundsException("Output array is too small for the flushed samples.");
+        }
+        int o = outputOffset;
+        for (int i = 0; i < FILTER_DELAY; i++) {
+            o = push((short) 0, output, o);
+        }
+        reset();
+        return o - outputOffset;
+    }
+
+    /**
+     * Discards the filter state, starting a new stream.
+     */
+    public void reset() {
+        Arrays.fill(history, (short) 0);
+        historyIndex = 0;
+    }
+
+    /**
+     * Adds one input sample and writes the two output samples centered `FILTER_DELAY` samples earlier.
+     */
+    private int push(short sample, short[] output, int o) {
+        final int n = history.length;
+        history[historyIndex] = sample;
+        historyIndex = (historyIndex + 1) % n;
+
+        // history[historyIndex] is now the oldest sample; center is between the two middle samples
+        final int center = (historyIndex + FILTER_DELAY - 1) % n;
+        int acc = 1 << 14;
+        for (int k = 0; k < FILTER_DELAY; k++) {
+            acc += TAPS[k] * (history[(center - k + n) % n] + history[(center + 1 + k) % n]);
+        }
+        output[o] = history[center];
+        output[o + 1] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, acc >> 15));
+        return o + 2;
+    }
+
+    /**
+     * Converts a raw G.711 stream and transcribes it. The stream is read in 20ms chunks and converted into a
+     * single buffer.
+     *
+     * @param leopard  Leopard instance to transcribe with.
+     * @param input    Stream of encoded 8kHz samples, without a header. It is not closed.
+     * @param encoding Companding law of the stream.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if the stream cannot be read or there is an error while processing the audio.
+     */
+    public static LeopardTranscript process(Leopard leopard, InputStream input, Encoding encoding)
+            throws LeopardException {
+        if (leopard.getSampleRate() != 2 * INPUT_SAMPLE_RATE) {
+            throw new LeopardInvalidArgumentException(String.format(
+                    "TelephonyPcm produces %dHz audio, but Leopard requires %dHz.",
+                    2 * INPUT_SAMPLE_RATE,
+                    leopard.getSampleRate()));
+        }
+
+        final TelephonyPcm converter = new TelephonyPcm(encoding);
+        final byte[] chunk = new byte[CHUNK_LENGTH];
+        short[] pcm = new short[INPUT_SAMPLE_RATE * 2 * 30];
+        int length = 0;
+        try {
+            int numRead;
+            while ((numRead = input.read(chunk)) != -1) {
+                if (length + 2 * numRead + 2 * FILTER_DELAY > pcm.length) {
+                    pcm = Arrays.copyOf(pcm, pcm.length * 2);
+                }
+                length += converter.convert(chunk, 0, numRead, pcm, length);
+            }
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+        length += converter.flush(pcm, length);
+
+        // drop the filter delay so word timestamps match the input
+        return leopard.process(Arrays.copyOfRange(pcm, 2 * FILTER_DELAY, length));
+    }
+
+    /**
+     * Converts a raw G.711 file and transcribes it.
+     *
+     * @param leopard  Leopard instance to transcribe with.
+     * @param path     Path to a file of encoded 8kHz samples, without a header.
+     * @param encoding Companding law of the file.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if the file cannot be read or there is an error while processing the audio.
+     */
+    public static LeopardTranscript processFile(Leopard leopard, String path, Encoding encoding)
+            throws LeopardException {
+        try (InputStream input = new FileInputStream(path)) {
+            return process(leopard, input, encoding);
+        } catch (IOException e) {
+            throw new LeopardIOException(e);
+        }
+    }
+
+    /**
+     * Expands a mu-law sample as specified by ITU-T G.711.
+     */
+    static short mulawToLinear(byte encoded) {
+        final int u = ~encoded & 0xFF;
+        final int exponent = (u >> 4) & 0x07;
+        final int mantissa = u & 0x0F;
+        final int magnitude = (((mantissa << 3) + 0x84) << exponent) - 0x84;
+        return (short) ((u & 0x80) != 0 ? -magnitude : magnitude);
+    }
+
+    /**
+     * Expands an A-law sample as specified by ITU-T G.711.
+     */
+    static short alawToLinear(byte encoded) {
+        final int a = (encoded ^ 0x55) & 0xFF;
+        final int exponent = (a >> 4) & 0x07;
+        final int mantissa = a & 0x0F;
+        int magnitude = (mantissa << 4) + 8;
+        if (exponent > 0) {
+            magnitude = (magnitude + 0x100) << (exponent - 1);
+        }
+        return (short) ((a & 0x80) != 0 ? magnitude : -magnitude);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Compact binary encoding of {@link LeopardTranscript}.
+ *
+ * <p>Layout (all integers are unsigned LEB128 varints unless noted otherwise):
+ * <pre>
+ *   magic        4 bytes, "LPTR"
+ *   version      1 byte
+ *   transcript   length, UTF-8 bytes
+ *   numWords
+ *   dictSize     followed by dictSize entries of (length, UTF-8 bytes)
+ *   word column  numWords dictionary indices
+ *   start column numWords zigzag deltas from the previous start, in milliseconds
+ *   end column   numWords zigzag durations (end - start), in milliseconds
+ *   confidence   numWords little-endian float32 values
+ *   speaker      numWords zigzag speaker tags
+ * </pre>
+ * Timestamps are stored at millisecond resolution; every other field round-trips exactly.
+ */
+final class TranscriptCodec {
+
+    private static final byte[] MAGIC = {'L', 'P', 'T', 'R'};
+    private static final int VERSION = 1;
+
+    private TranscriptCodec() {
+    }
+
+    static void encode(LeopardTranscript transcript, OutputStream os) throws IOException {
+        final LeopardTranscript.Word[] words = transcript.getWordArray() != null ?
+                transcript.getWordArray() :
+                new LeopardTranscript.Word[0];
+        final Encoder enc = new Encoder(64 + words.length * 12);
+
+        enc.putBytes(MAGIC);
+        enc.putByte(VERSION);
+        enc.putString(transcript.getTranscriptString() != null ? transcript.getTranscriptString() : "");
+        enc.putVarint(words.length);
+
+        final HashMap<String, Integer> dictionary = new HashMap<>();
+        final ArrayList<String> entries = new ArrayList<>();
+        final int[] indices = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            Integer index = dictionary.get(words[i].getWord());
+            if (index == null) {
+                index = entries.size();
+                dictionary.put(words[i].getWord(), index);
+                entries.add(words[i].getWord());
+            }
+            indices[i] = index;
+        }
+        enc.putVarint(entries.size());
+        for (String entry : entries) {
+            enc.putString(entry);
+        }
+        for (int index : indices) {
+            enc.putVarint(index);
+        }
+
+        final int[] startMs = new int[words.length];
+        int previousStartMs = 0;
+        for (int i = 0; i < words.length; i++) {
+            startMs[i] = toMillis(words[i].getStartSec());
+            enc.putVarint(zigzag(startMs[i] - previousStartMs));
+            previousStartMs = startMs[i];
+        }
+        for (int i = 0; i < words.length; i++) {
+            enc.putVarint(zigzag(toMillis(words[i].getEndSec()) - startMs[i]));
+        }
+        for (LeopardTranscript.Word word : words) {
+            enc.putFloat(word.getConfidence());
+        }
+        for (LeopardTranscript.Word word : words) {
+            enc.putVarint(zigzag(word.getSpeakerTag()));
+        }
+
+        os.write(enc.buffer, 0, enc.length);
+    }
+
+    static LeopardTranscript decode(ByteBuffer buffer) throws LeopardException {
+        try {
+            final Decoder dec = new Decoder(buffer);
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    throw new LeopardInvalidArgumentException("Buffer does not contain an encoded LeopardTranscript.");
+                }
+            }
+            final int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new LeopardInvalidArgumentException(
+                        String.format("Unsupported LeopardTranscript encoding version '%d'.", version));
+            }
+
+            final String transcriptString = dec.getString();
+            final int numWords = dec.getLength();
+
+            final String[] entries = new String[dec.getLength()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = dec.getString();
+            }
+            final String[] wordStrings = new String[numWords];
+            for (int i = 0; i < numWords; i++) {
+                final int index = dec.getVarint();
+                if (index < 0 || index >= entries.length) {
+                    throw new LeopardInvalidArgumentException(
+                            String.format("Invalid word dictionary index '%d'.", index));
+                }
+                wordStrings[i] = entries[index];
+            }
+
+            final int[] startMs = new int[numWords];
+            int previousStartMs = 0;
+            for (int i = 0; i < numWords; i++) {
+                startMs[i] = previousStartMs + unzigzag(dec.getVarint());
+                previousStartMs = startMs[i];
+            }
+            final int[] endMs = new int[numWords];
+            for (int i = 0; i < numWords; i++) {
+                endMs[i] = startMs[i] + unzigzag(dec.getVarint());
+            }
+            final float[] confidences = new float[numWords];
+            for (int i = 0; i < numWords; i++) {
+                confidences[i] = dec.getFloat();
+            }
+
+            final LeopardTranscript.Word[] words = new LeopardTranscript.Word[numWords];
+            for (int i = 0; i < numWords; i++) {
+                words[i] = new LeopardTranscript.Word(
+                        wordStrings[i],
+                        confidences[i],
+                        startMs[i] / 1000f,
+                        endMs[i] / 1000f,
+                        unzigzag(dec.getVarint()));
+            }
+            return new LeopardTranscript(transcriptString, words);
+        } catch (BufferUnderflowException e) {
+            throw new LeopardInvalidArgumentException("Encoded LeopardTranscript is truncated.");
+        }
+    }
+
+    private static int toMillis(float sec) {
+        return Math.round(sec * 1000f);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Encoder {
+        private byte[] buffer;
+        private int length;
+
+        Encoder(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, length + extra)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+        }
+
+        void putByte(int b) {
+            ensure(1);
+            buffer[length++] = (byte) b;
+        }
+
+        void putBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void putVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void putFloat(float value) {
+            final int bits = Float.floatToRawIntBits(value);
+            ensure(4);
+            buffer[length++] = (byte) bits;
+            buffer[length++] = (byte) (bits >>> 8);
+            buffer[length++] = (byte) (bits >>> 16);
+            buffer[length++] = (byte) (bits >>> 24);
+        }
+
+        void putString(String value) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length);
+            putBytes(bytes);
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private byte[] scratch;
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int getVarint() throws LeopardException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new LeopardInvalidArgumentException("Malformed varint in encoded LeopardTranscript.");
+        }
+
+        int getLength() throws LeopardException {
+            final int length = getVarint();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new LeopardInvalidArgumentException("Encoded LeopardTranscript is truncated.");
+            }
+            return length;
+        }
+
+        float getFloat() {
+            final int bits = (buffer.get() & 0xFF) |
+                    (buffer.get() & 0xFF) << 8 |
+                    (buffer.get() & 0xFF) << 16 |
+                    (buffer.get() & 0xFF) << 24;
+            return Float.intBitsToFloat(bits);
+        }
+
+        String getString() throws LeopardException {
+            final int length = getLength();
+            final String value;
+            if (buffer.hasArray()) {
+                // decode straight out of the backing array without an intermediate copy
+                value = new String(
+                        buffer.array(),
+                        buffer.arrayOffset() + buffer.position(),
+                        length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                if (scratch == null || scratch.length < length) {
+                    scratch = new byte[Math.max(length, 64)];
+                }
+                buffer.get(scratch, 0, length);
+                value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.IOException;
+
+/**
+ * Streams a {@link LeopardTranscript} to an output format. Instances are created with {@link TranscriptWriters}.
+ */
+public interface TranscriptWriter {
+
+    /**
+     * Writes the transcript as a complete document and flushes the underlying writer.
+     * The underlying writer is not closed.
+     *
+     * @param transcript Transcript to write.
+     * @throws IOException if writing to the underlying writer fails.
+     */
+    void write(LeopardTranscript transcript) throws IOException;
+}
@@ -0,0 +1,338 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Factory for {@link TranscriptWriter}s that stream JSON, SRT and WebVTT output directly to a {@link Writer}.
+ * Words are written as they are visited, so exporting a transcript does not build the document in memory.
+ * The returned writers keep a small scratch buffer and are not thread-safe.
+ */
+public final class TranscriptWriters {
+
+    /**
+     * Default maximum number of characters in a subtitle cue.
+     */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 42;
+
+    /**
+     * Default silence, in seconds, between two words that starts a new subtitle cue.
+     */
+    public static final float DEFAULT_ENDPOINT_SEC = 1.0f;
+
+    private TranscriptWriters() {
+    }
+
+    /**
+     * Creates a writer that outputs the transcript string and word metadata as a JSON object.
+     *
+     * @param writer Destination writer.
+     * @return JSON TranscriptWriter.
+     */
+    public static TranscriptWriter json(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Passed null writer to TranscriptWriters json.");
+        }
+        return new JsonWriter(writer);
+    }
+
+    /**
+     * Creates a writer that outputs SubRip (SRT) subtitles with default segmentation.
+     *
+     * @param writer Destination writer.
+     * @return SRT TranscriptWriter.
+     */
+    public static TranscriptWriter srt(Writer writer) {
+        return srt(writer, DEFAULT_MAX_LINE_LENGTH, DEFAULT_ENDPOINT_SEC);
+    }
+
+    /**
+     * Creates a writer that outputs SubRip (SRT) subtitles. A new cue is started when the speaker changes, when
+     * the silence between two words reaches `endpointSec`, or when adding a word would exceed `maxLineLength`.
+     *
+     * @param writer        Destination writer.
+     * @param maxLineLength Maximum number of characters in a cue. A single longer word still gets its own cue.
+     * @param endpointSec   Silence, in seconds, between two words that starts a new cue.
+     * @return SRT TranscriptWriter.
+     */
+    public static TranscriptWriter srt(Writer writer, int maxLineLength, float endpointSec) {
+        validateSubtitleArgs(writer, maxLineLength, endpointSec);
+        return new SubtitleWriter(writer, false, maxLineLength, endpointSec);
+    }
+
+    /**
+     * Creates a writer that outputs WebVTT subtitles with default segmentation.
+     *
+     * @param writer Destination writer.
+     * @return WebVTT TranscriptWriter.
+     */
+    public static TranscriptWriter vtt(Writer writer) {
+        return vtt(writer, DEFAULT_MAX_LINE_LENGTH, DEFAULT_ENDPOINT_SEC);
+    }
+
+    /**
+     * Creates a writer that outputs WebVTT subtitles. Segmentation follows {@link #srt(Writer, int, float)}.
+     * Cues of diarized transcripts are tagged with a voice span for the speaker.
+     *
+     * @param writer        Destination writer.
+     * @param maxLineLength Maximum number of characters in a cue. A single longer word still gets its own cue.
+     * @param endpointSec   Silence, in seconds, between two words that starts a new cue.
+     * @return WebVTT TranscriptWriter.
+     */
+    public static TranscriptWriter vtt(Writer writer, int maxLineLength, float endpointSec) {
+        validateSubtitleArgs(writer, maxLineLength, endpointSec);
+        return new SubtitleWriter(writer, true, maxLineLength, endpointSec);
+    }
+
+    private static void validateSubtitleArgs(Writer writer, int maxLineLength, float endpointSec) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Passed null writer to TranscriptWriters.");
+        }
+        if (maxLineLength <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Max line length must be positive, got %d.", maxLineLength));
+        }
+        if (endpointSec <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Endpoint duration must be positive, got %f.", endpointSec));
+        }
+    }
+
+    private static LeopardTranscript.Word[] wordsOf(LeopardTranscript transcript) {
+        return transcript.getWordArray() != null ? transcript.getWordArray() : new LeopardTranscript.Word[0];
+    }
+
+    private static final class JsonWriter implements TranscriptWriter {
+        private final Writer writer;
+
+        JsonWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(LeopardTranscript transcript) throws IOException {
+            final LeopardTranscript.Word[] words = wordsOf(transcript);
+
+            writer.write("{\"transcript\":");
+            writeString(transcript.getTranscriptString() != null ? transcript.getTranscriptString() : "");
+            writer.write(",\"words\":[");
+            for (int i = 0; i < words.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write("{\"word\":");
+                writeString(words[i].getWord());
+                writer.write(",\"start_sec\":");
+                writeNumber(words[i].getStartSec());
+                writer.write(",\"end_sec\":");
+                writeNumber(words[i].getEndSec());
+                writer.write(",\"confidence\":");
+                writeNumber(words[i].getConfidence());
+                writer.write(",\"speaker_tag\":");
+                writer.write(Integer.toString(words[i].getSpeakerTag()));
+                writer.write('}');
+            }
+            writer.write("]}");
+            writer.flush();
+        }
+
+        /**
+         * Writes `value`, or `null` for NaN and infinities, which JSON has no literal for.
+         */
+        private void writeNumber(float value) throws IOException {
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                writer.write("null");
+            } else {
+                writer.write(Float.toString(value));
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            writer.write('"');
+            int runStart = 0;
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c != '"' && c != '\\' && c >= 0x20) {
+                    continue;
+                }
+                writer.write(value, runStart, i - runStart);
+                switch (c) {
+                    case '"':
+                        writer.write("\\\"");
+                        break;
+                    case '\\':
+                        writer.write("\\\\");
+                        break;
+                    case '\n':
+                        writer.write("\\n");
+                        break;
+                    case '\r':
+                        writer.write("\\r");
+                        break;
+                    case '\t':
+                        writer.write("\\t");
+                        break;
+                    default:
+                        writer.write(String.format("\\u%04x", (int) c));
+                        break;
+                }
+                runStart = i + 1;
+            }
+            writer.write(value, runStart, value.length() - runStart);
+            writer.write('"');
+        }
+    }
+
+    private static final class SubtitleWriter implements TranscriptWriter {
+        private final Writer writer;
+        private final boolean isVtt;
+        private final int maxLineLength;
+        private final float endpointSec;
+        private final char[] timecode = new char[12];
+
+        SubtitleWriter(Writer writer, boolean isVtt, int maxLineLength, float endpointSec) {
+            this.writer = writer;
+            this.isVtt = isVtt;
+            this.maxLineLength = maxLineLength;
+            this.endpointSec = endpointSec;
+        }
+
+        @Override
+        public void write(LeopardTranscript transcript) throws IOException {
+            final LeopardTranscript.Word[] words = wordsOf(transcript);
+            if (isVtt) {
+                writer.write("WEBVTT\n\n");
+            }
+
+            int cueIndex = 1;
+            int cueStart = 0;
+            int cueLength = 0;
+            for (int i = 0; i < words.length; i++) {
+                final int wordLength = words[i].getWord().length();
+                if (i > cueStart) {
+                    final LeopardTranscript.Word previous = words[i - 1];
+                    final boolean isEndpoint = words[i].getStartSec() - previous.getEndSec() >= endpointSec;
+                    final boolean isSpeakerChange = words[i].getSpeakerTag() != previous.getSpeakerTag();
+                    final boolean isTooLong = cueLength + 1 + wordLength > maxLineLength;
+                    if (isEndpoint || isSpeakerChange || isTooLong) {
+                        writeCue(cueIndex++, words, cueStart, i);
+                        cueStart = i;
+                        cueLength = wordLength;
+                        continue;
+                    }
+                    cueLength += 1 + wordLength;
+                } else {
+                    cueLength = wordLength;
+                }
+            }
+            if (cueStart < words.length) {
+                writeCue(cueIndex, words, cueStart, words.length);
+            }
+            writer.flush();
+        }
+
+        private void writeCue(int cueIndex, LeopardTranscript.Word[] words, int start, int end) throws IOException {
+            if (!isVtt) {
+                writer.write(Integer.toString(cueIndex));
+                writer.write('\n');
+            }
+            writeTimecode(words[start].getStartSec());
+            writer.write(" --> ");
+            writeTimecode(words[end - 1].getEndSec());
+            writer.write('\n');
+
+            final int speakerTag = words[start].getSpeakerTag();
+            if (isVtt && speakerTag > 0) {
+                writer.write("<v Speaker ");
+                writer.write(Integer.toString(speakerTag));
+                writer.write('>');
+            }
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    writer.write(' ');
+                }
+                if (isVtt) {
+                    writeVttText(words[i].getWord());
+                } else {
+                    writer.write(words[i].getWord());
+                }
+            }
+            writer.write("\n\n");
+        }
+
+        /**
+         * Writes cue text with the characters WebVTT reserves for tags and entities escaped, which also keeps a
+         * `-->` inside a word from being read as a timing line.
+         */
+        private void writeVttText(String value) throws IOException {
+            int runStart = 0;
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c != '&' && c != '<' && c != '>') {
+                    continue;
+                }
+                writer.write(value, runStart, i - runStart);
+                switch (c) {
+                    case '&':
+                        writer.write("&amp;");
+                        break;
+                    case '<':
+                        writer.write("&lt;");
+                        break;
+                    default:
+                        writer.write("&gt;");
+                        break;
+                }
+                runStart = i + 1;
+            }
+            writer.write(value, runStart, value.length() - runStart);
+        }
+
+        /**
+         * Writes `HH:MM:SS,mmm` (`.` before the milliseconds for WebVTT). Past 99 hours the hours take as many
+         * digits as they need, which both formats allow.
+         */
+        private void writeTimecode(float sec) throws IOException {
+            long ms = Math.max(0, Math.round(sec * 1000.0));
+            final long hours = ms / 3600000;
+            ms -= hours * 3600000;
+            final long minutes = ms / 60000;
+            ms -= minutes * 60000;
+            final long seconds = ms / 1000;
+            ms -= seconds * 1000;
+
+            timecode[2] = ':';
+            writeDigits(3, minutes, 2);
+            timecode[5] = ':';
+            writeDigits(6, seconds, 2);
+            timecode[8] = isVtt ? '.' : ',';
+            writeDigits(9, ms, 3);
+            if (hours < 100) {
+                writeDigits(0, hours, 2);
+                writer.write(timecode, 0, timecode.length);
+            } else {
+                writer.write(Long.toString(hours));
+                writer.write(timecode, 2, timecode.length - 2);
+            }
+        }
+
+        private void writeDigits(int offset, long value, int numDigits) {
+            for (int i = numDigits - 1; i >= 0; i--) {
+                timecode[offset + i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
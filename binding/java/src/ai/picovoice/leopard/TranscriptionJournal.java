@@ -0,0 +1,650 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only record of completed transcriptions, so an interrupted batch can resume where it stopped.
+ *
+ * <p>Each completion is appended to the journal file as a checksummed record holding the input (e.g. an audio
+ * path) and a pointer to its result (e.g. a transcript path). Records are flushed to disk in batches, so a power
+ * failure loses at most the last unsynced batch, which is then transcribed again. A record torn by a crash is
+ * truncated when the journal is reopened. A damaged record followed by valid ones is skipped instead, so that the
+ * completions after it are kept, and counted in {@link #getNumDamagedRecords()}.
+ *
+ * <p>Lookups go through a memory-mapped hash index stored next to the journal (`&lt;journal&gt;.idx`), so checking
+ * whether an input is done takes constant time and reopening a journal only reads the records appended since the
+ * index was last synced. The journal stays the source of truth: every index hit is verified against its record, an
+ * entry whose record fails verification is dropped, and an index that does not match the journal is rebuilt.
+ */
+public final class TranscriptionJournal implements AutoCloseable {
+
+    private static final int JOURNAL_MAGIC = 0x4C504A31;
+    private static final int INDEX_MAGIC = 0x4C504A49;
+    private static final int JOURNAL_HEADER_LENGTH = 8;
+    private static final int RECORD_HEADER_LENGTH = 8;
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final int SCAN_WINDOW_LENGTH = 1 << 16;
+
+    // magic, journal nonce, capacity, count, synced journal length and start of the last synced record
+    private static final int INDEX_HEADER_LENGTH = 32;
+    private static final int SLOT_LENGTH = 16;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final Path path;
+    private final Path indexPath;
+    private final FileChannel journal;
+    private final FileChannel indexFile;
+    private final int syncBatchSize;
+    private final long syncIntervalNs;
+
+    private int nonce;
+    private long length;
+    private long syncedLength;
+    private long lastRecord = 0;
+    private int numUnsynced = 0;
+    private long firstUnsyncedNs = 0;
+    private int numDamagedRecords = 0;
+
+    private MappedByteBuffer index;
+    private int capacity;
+    private int count;
+
+    private TranscriptionJournal(Path path, int syncBatchSize, Duration syncInterval) throws IOException {
+        this.path = path;
+        this.indexPath = Paths.get(path + ".idx");
+        this.syncBatchSize = syncBatchSize;
+        this.syncIntervalNs = syncInterval.toNanos();
+        this.journal = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel openedIndex = null;
+        try {
+            openedIndex = FileChannel.open(
+                    indexPath,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.indexFile = openedIndex;
+            recover();
+        } catch (IOException | RuntimeException e) {
+            if (openedIndex != null) {
+                openedIndex.close();
+            }
+            journal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether an input has been recorded as completed.
+     *
+     * @param input Input identifier, e.g. the path of an audio file.
+     * @return `true` if the input is completed.
+     * @throws IOException if the journal cannot be read.
+     */
+    public synchronized boolean isCompleted(String input) throws IOException {
+        return find(input) != null;
+    }
+
+    /**
+     * Getter for the result pointer recorded for an input.
+     *
+     * @param input Input identifier, e.g. the path of an audio file.
+     * @return Result pointer passed to {@link #markCompleted(String, String)}, or `null` if the input is not
+     *         completed.
+     * @throws IOException if the journal cannot be read.
+     */
+    public synchronized String getResult(String input) throws IOException {
+        return find(input);
+    }
+
+    /**
+     * Records an input as completed. The record is durable once the current sync batch is flushed, when the batch
+     * is full, its interval has elapsed at the time of a later call, or on {@link #sync()} and {@link #close()}.
+     *
+     * @param input  Input identifier, e.g. the path of an audio file.
+     * @param result Pointer to the result, e.g. the path of the transcript. Must not be `null`.
+     * @throws IOException if the record cannot be written.
+     */
+    public synchronized void markCompleted(String input, String result) throws IOException {
+        if (input == null || result == null) {
+            throw new IllegalArgumentException("TranscriptionJournal input and result must not be null.");
+        }
+        checkOpen();
+        final byte[] inputBytes = input.getBytes(StandardCharsets.UTF_8);
+        final byte[] resultBytes = result.getBytes(StandardCharsets.UTF_8);
+        final int payloadLength = 4 + inputBytes.length + resultBytes.length;
+        if (payloadLength > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("TranscriptionJournal record must not exceed 1MiB.");
+        }
+
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + payloadLength);
+        record.putInt(payloadLength).putInt(0).putInt(inputBytes.length).put(inputBytes).put(resultBytes);
+        final CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_LENGTH, payloadLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        final long offset = length;
+        writeFully(journal, record, offset);
+        length += record.limit();
+        lastRecord = offset;
+        insert(hash(inputBytes), offset);
+
+        if (numUnsynced++ == 0) {
+            firstUnsyncedNs = System.nanoTime();
+        }
+        if (numUnsynced >= syncBatchSize || System.nanoTime() - firstUnsyncedNs >= syncIntervalNs) {
+            sync();
+        }
+    }
+
+    /**
+     * Flushes unsynced records to disk.
+     *
+     * @throws IOException if the records cannot be flushed.
+     */
+    public synchronized void sync() throws IOException {
+        checkOpen();
+        if (syncedLength == length) {
+            return;
+        }
+        journal.force(false);
+        syncedLength = length;
+        numUnsynced = 0;
+        index.putLong(24, lastRecord);
+        index.putLong(16, syncedLength);
+        index.putInt(12, count);
+    }
+
+    /**
+     * Getter for the number of completed inputs. A synced record that is damaged on disk is only detected, and
+     * stops being counted, when its input is looked up.
+     *
+     * @return Number of distinct completed inputs.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Getter for the number of damaged records skipped when the journal was opened. Their inputs are not
+     * reported as completed and are transcribed again.
+     *
+     * @return Number of damaged records followed by valid ones.
+     */
+    public synchronized int getNumDamagedRecords() {
+        return numDamagedRecords;
+    }
+
+    /**
+     * Getter for the path of the journal file.
+     *
+     * @return Journal path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flushes unsynced records and closes the journal.
+     *
+     * @throws IOException if the records cannot be flushed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!journal.isOpen()) {
+            return;
+        }
+        try {
+            sync();
+            index.force();
+        } finally {
+            index = null;
+            indexFile.close();
+            journal.close();
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (!journal.isOpen()) {
+            throw new IOException("Attempted to use TranscriptionJournal after close.");
+        }
+    }
+
+    private String find(String input) throws IOException {
+        checkOpen();
+        final byte[] inputBytes = input.getBytes(StandardCharsets.UTF_8);
+        final long hash = hash(inputBytes);
+        final int mask = capacity - 1;
+        for (int slot = (int) mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int position = INDEX_HEADER_LENGTH + slot * SLOT_LENGTH;
+            final long offsetPlusOne = index.getLong(position);
+            if (offsetPlusOne == 0) {
+                return null;
+            }
+            if (index.getLong(position + 8) == hash) {
+                final String[] record = readRecord(offsetPlusOne - 1);
+                if (record == null) {
+                    // the record was damaged on disk after it was indexed
+                    remove(slot);
+                    return null;
+                }
+                return record[0].equals(input) ? record[1] : null;
+            }
+        }
+    }
+
+    /**
+     * Reads the record at `offset`, returning `{input, result}`, or `null` if it is missing or corrupt.
+     */
+    private String[] readRecord(long offset) throws IOException {
+        if (offset < JOURNAL_HEADER_LENGTH || offset + RECORD_HEADER_LENGTH > length) {
+            return null;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+        readFully(journal, header, offset);
+        final int payloadLength = header.getInt(0);
+        if (payloadLength < 4 || payloadLength > MAX_RECORD_LENGTH ||
+                offset + RECORD_HEADER_LENGTH + payloadLength > length) {
+            return null;
+        }
+        final ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        readFully(journal, payload, offset + RECORD_HEADER_LENGTH);
+        return decode(payload.array(), header.getInt(4));
+    }
+
+    private static String[] decode(byte[] payload, int expectedCrc) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        final int inputLength = ByteBuffer.wrap(payload).getInt(0);
+        if (inputLength < 0 || inputLength > payload.length - 4) {
+            return null;
+        }
+        return new String[]{
+                new String(payload, 4, inputLength, StandardCharsets.UTF_8),
+                new String(payload, 4 + inputLength, payload.length - 4 - inputLength, StandardCharsets.UTF_8)
+        };
+    }
+
+    /**
+     * Validates the journal, truncates a torn tail and brings the index up to date with the journal. Only the
+     * records after the checkpoint of the index are read. Damaged records before the tail are skipped by
+     * {@link #replay(long)} and kept in the file.
+     */
+    private void recover() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_LENGTH);
+        if (journal.size() < JOURNAL_HEADER_LENGTH) {
+            nonce = new SecureRandom().nextInt();
+            header.putInt(JOURNAL_MAGIC).putInt(nonce).flip();
+            journal.truncate(0);
+            writeFully(journal, header, 0);
+            journal.force(true);
+        } else {
+            readFully(journal, header, 0);
+            if (header.getInt(0) != JOURNAL_MAGIC) {
+                throw new IOException(String.format("`%s` is not a transcription journal.", path));
+            }
+            nonce = header.getInt(4);
+        }
+        length = journal.size();
+
+        long coveredLength = mapIndex();
+        if (coveredLength < JOURNAL_HEADER_LENGTH || coveredLength > length) {
+            coveredLength = resetIndex(INITIAL_CAPACITY);
+        } else {
+            // drop entries for records that were indexed before a crash but not synced; replay indexes the
+            // ones that survived it again
+            lastRecord = index.getLong(24);
+            rehash(capacity, coveredLength);
+        }
+        long validLength = replay(coveredLength);
+        if (validLength == coveredLength && coveredLength < length && !endsRecord(coveredLength)) {
+            // nothing after the checkpoint parsed and the checkpoint is not the end of the last synced record, so
+            // verify the journal from the start. Otherwise the bytes after the checkpoint are a torn tail.
+            numDamagedRecords = 0;
+            lastRecord = 0;
+            coveredLength = resetIndex(capacity);
+            validLength = replay(coveredLength);
+        }
+        // only bytes after the last valid record are cut off
+        if (validLength < length) {
+            journal.truncate(validLength);
+            journal.force(true);
+            length = validLength;
+        }
+        syncedLength = length;
+        index.putInt(12, count);
+        index.putLong(24, lastRecord);
+        index.putLong(16, syncedLength);
+    }
+
+    /**
+     * Checks whether `checkpoint` is the end of the last synced record recorded in the index.
+     */
+    private boolean endsRecord(long checkpoint) throws IOException {
+        if (checkpoint == JOURNAL_HEADER_LENGTH) {
+            return true;
+        }
+        if (lastRecord < JOURNAL_HEADER_LENGTH || lastRecord + RECORD_HEADER_LENGTH > checkpoint) {
+            return false;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(journal, header, lastRecord);
+        return lastRecord + RECORD_HEADER_LENGTH + header.getInt(0) == checkpoint && readRecord(lastRecord) != null;
+    }
+
+    /**
+     * Maps an existing index, returning the journal length it covers, or `-1` if it must be rebuilt.
+     */
+    private long mapIndex() throws IOException {
+        if (indexFile.size() < INDEX_HEADER_LENGTH) {
+            return -1;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_LENGTH);
+        readFully(indexFile, header, 0);
+        final int storedCapacity = header.getInt(8);
+        if (header.getInt(0) != INDEX_MAGIC || header.getInt(4) != nonce ||
+                storedCapacity < INITIAL_CAPACITY || storedCapacity > MAX_CAPACITY ||
+                Integer.bitCount(storedCapacity) != 1 ||
+                indexFile.size() < INDEX_HEADER_LENGTH + (long) storedCapacity * SLOT_LENGTH) {
+            return -1;
+        }
+        capacity = storedCapacity;
+        index = indexFile.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_LENGTH + (long) capacity * SLOT_LENGTH);
+        // the stored count is only updated on sync, so count the slots
+        count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (index.getLong(INDEX_HEADER_LENGTH + slot * SLOT_LENGTH) != 0) {
+                count++;
+            }
+        }
+        return header.getLong(16);
+    }
+
+    /**
+     * Clears the index, returning the journal length it covers. The index file only grows, as a mapped file
+     * cannot be truncated on all platforms.
+     */
+    private long resetIndex(int newCapacity) throws IOException {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IOException("TranscriptionJournal index is full.");
+        }
+        capacity = newCapacity;
+        count = 0;
+        index = indexFile.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_LENGTH + (long) capacity * SLOT_LENGTH);
+        for (int position = 0; position < index.capacity(); position += 8) {
+            index.putLong(position, 0);
+        }
+        index.putInt(0, INDEX_MAGIC).putInt(4, nonce).putInt(8, capacity).putInt(12, 0);
+        index.putLong(16, JOURNAL_HEADER_LENGTH);
+        return JOURNAL_HEADER_LENGTH;
+    }
+
+    /**
+     * Rebuilds the index with `newCapacity` slots, keeping the entries of records that start before `limit`.
+     */
+    private void rehash(int newCapacity, long limit) throws IOException {
+        final long[] entries = new long[2 * count];
+        int n = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final int position = INDEX_HEADER_LENGTH + slot * SLOT_LENGTH;
+            final long offsetPlusOne = index.getLong(position);
+            if (offsetPlusOne != 0 && offsetPlusOne - 1 + RECORD_HEADER_LENGTH <= limit) {
+                entries[n++] = index.getLong(position + 8);
+                entries[n++] = offsetPlusOne - 1;
+            }
+        }
+        final long coveredLength = index.getLong(16);
+        final long coveredRecord = index.getLong(24);
+        // while rebuilding, the index claims to cover no records, so a crash leads to a full replay
+        resetIndex(newCapacity);
+        for (int i = 0; i < n; i += 2) {
+            insert(entries[i], entries[i + 1]);
+        }
+        index.putInt(12, count);
+        if (coveredLength <= limit) {
+            index.putLong(24, coveredRecord);
+            index.putLong(16, coveredLength);
+        }
+    }
+
+    /**
+     * Indexes the records from `start`, returning the end of the last valid record. A damaged record is skipped
+     * if a valid record follows it; otherwise it is part of the torn tail and replay stops.
+     */
+    private long replay(long start) throws IOException {
+        DataInputStream input = openAt(start);
+        long offset = start;
+        while (offset + RECORD_HEADER_LENGTH <= length) {
+            int payloadLength = -1;
+            String[] record = null;
+            try {
+                payloadLength = input.readInt();
+                final int crc = input.readInt();
+                if (payloadLength >= 4 && payloadLength <= MAX_RECORD_LENGTH &&
+                        offset + RECORD_HEADER_LENGTH + payloadLength <= length) {
+                    final byte[] payload = new byte[payloadLength];
+                    input.readFully(payload);
+                    record = decode(payload, crc);
+                }
+            } catch (EOFException e) {
+                record = null;
+            }
+            if (record == null) {
+                // the length field may be damaged too, so resynchronize on the next record that verifies
+                final long next = findRecord(offset + 1);
+                if (next < 0) {
+                    break;
+                }
+                numDamagedRecords++;
+                offset = next;
+                input = openAt(offset);
+                continue;
+            }
+            insert(hash(record[0].getBytes(StandardCharsets.UTF_8)), offset);
+            lastRecord = offset;
+            offset += RECORD_HEADER_LENGTH + payloadLength;
+        }
+        return offset;
+    }
+
+    private DataInputStream openAt(long offset) throws IOException {
+        journal.position(offset);
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(journal)));
+    }
+
+    /**
+     * Returns the offset of the first valid record at or after `from`, or `-1` if there is none.
+     */
+    private long findRecord(long from) throws IOException {
+        final ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW_LENGTH);
+        long base = from;
+        while (base + RECORD_HEADER_LENGTH <= length) {
+            window.clear();
+            window.limit((int) Math.min(SCAN_WINDOW_LENGTH, length - base));
+            readFully(journal, window, base);
+            final int end = window.limit() - RECORD_HEADER_LENGTH;
+            for (int position = 0; position <= end; position++) {
+                final int payloadLength = window.getInt(position);
+                if (payloadLength >= 4 && payloadLength <= MAX_RECORD_LENGTH &&
+                        base + position + RECORD_HEADER_LENGTH + payloadLength <= length &&
+                        readRecord(base + position) != null) {
+                    return base + position;
+                }
+            }
+            base += end + 1;
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long offset) throws IOException {
+        if ((count + 1) * 10L > capacity * 7L) {
+            rehash(capacity * 2, Long.MAX_VALUE);
+        }
+        final int mask = capacity - 1;
+        for (int slot = (int) mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int position = INDEX_HEADER_LENGTH + slot * SLOT_LENGTH;
+            final long offsetPlusOne = index.getLong(position);
+            if (offsetPlusOne == 0) {
+                index.putLong(position + 8, hash);
+                index.putLong(position, offset + 1);
+                count++;
+                return;
+            }
+            if (index.getLong(position + 8) == hash) {
+                // a later record for the same input replaces the earlier one
+                index.putLong(position, offset + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in `slot`, moving later entries of its probe sequence back so that lookups still find them.
+     */
+    private void remove(int slot) {
+        final int mask = capacity - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            final int position = INDEX_HEADER_LENGTH + next * SLOT_LENGTH;
+            final long offsetPlusOne = index.getLong(position);
+            if (offsetPlusOne == 0) {
+                break;
+            }
+            final long hash = index.getLong(position + 8);
+            final int home = (int) mix(hash) & mask;
+            // an entry can fill the hole unless its home slot lies between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                final int holePosition = INDEX_HEADER_LENGTH + hole * SLOT_LENGTH;
+                index.putLong(holePosition + 8, hash);
+                index.putLong(holePosition, offsetPlusOne);
+                hole = next;
+            }
+        }
+        index.putLong(INDEX_HEADER_LENGTH + hole * SLOT_LENGTH, 0);
+        count--;
+    }
+
+    private static long hash(byte[] bytes) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int numRead = channel.read(buffer, position);
+            if (numRead < 0) {
+                throw new EOFException();
+            }
+            position += numRead;
+        }
+    }
+
+    /**
+     * Builder for opening a TranscriptionJournal.
+     */
+    public static class Builder {
+        private Path path = null;
+        private int syncBatchSize = 64;
+        private Duration syncInterval = Duration.ofSeconds(1);
+
+        /**
+         * Setter for the journal path. The file is created if it does not exist; the index is stored at the same
+         * path with an `.idx` suffix.
+         *
+         * @param path Path to the journal file.
+         */
+        public Builder setPath(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Setter for the number of records after which the journal is flushed to disk.
+         *
+         * @param syncBatchSize Records per sync. Set to `1` to flush every record.
+         */
+        public Builder setSyncBatchSize(int syncBatchSize) {
+            this.syncBatchSize = syncBatchSize;
+            return this;
+        }
+
+        /**
+         * Setter for the time after which a partial batch is flushed by the next completion.
+         *
+         * @param syncInterval Maximum age of the oldest unsynced record.
+         */
+        public Builder setSyncInterval(Duration syncInterval) {
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * Opens the journal, repairing a torn tail and updating the index.
+         *
+         * @throws IOException if the journal cannot be opened or is not a transcription journal.
+         */
+        public TranscriptionJournal build() throws IOException {
+            if (path == null) {
+                throw new IllegalArgumentException("TranscriptionJournal path must not be null.");
+            }
+            if (syncBatchSize < 1) {
+                throw new IllegalArgumentException("TranscriptionJournal sync batch size must be positive.");
+            }
+            if (syncInterval == null || syncInterval.isNegative()) {
+                throw new IllegalArgumentException("TranscriptionJournal sync interval must not be negative.");
+            }
+            return new TranscriptionJournal(path, syncBatchSize, syncInterval);
+        }
+    }
+}
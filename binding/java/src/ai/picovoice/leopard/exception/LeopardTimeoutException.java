@@ -0,0 +1,27 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+public class LeopardTimeoutException extends LeopardException {
+    public LeopardTimeoutException(Throwable cause) {
+        super(cause);
+    }
+
+    public LeopardTimeoutException(String message) {
+        super(message);
+    }
+
+    public LeopardTimeoutException(String message, String[] messageStack) {
+        super(message, messageStack);
+    }
+}
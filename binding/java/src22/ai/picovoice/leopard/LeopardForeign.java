@@ -0,0 +1,484 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BOOLEAN;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+/**
+ * Leopard Speech-to-Text engine that calls the native library through the Foreign Function &amp; Memory API
+ * instead of JNI. Available on JDK 22 and later.
+ *
+ * <p>Audio in a direct {@link ByteBuffer} (e.g. a memory-mapped file or an audio driver buffer) is passed to the
+ * engine without copying, and word metadata is read straight from the native result. Access to native code
+ * must be granted with `--enable-native-access=ALL-UNNAMED` (or the name of the calling module). Transcripts are
+ * identical to those of {@link Leopard}.
+ */
+public final class LeopardForeign implements AutoCloseable {
+
+    private static final StructLayout WORD_LAYOUT = MemoryLayout.structLayout(
+            ADDRESS.withName("word"),
+            JAVA_FLOAT.withName("start_sec"),
+            JAVA_FLOAT.withName("end_sec"),
+            JAVA_FLOAT.withName("confidence"),
+            JAVA_INT.withName("speaker_tag"));
+    private static final long WORD_OFFSET = offsetOf("word");
+    private static final long START_SEC_OFFSET = offsetOf("start_sec");
+    private static final long END_SEC_OFFSET = offsetOf("end_sec");
+    private static final long CONFIDENCE_OFFSET = offsetOf("confidence");
+    private static final long SPEAKER_TAG_OFFSET = offsetOf("speaker_tag");
+
+    private static final ConcurrentHashMap<String, Library> LIBRARIES = new ConcurrentHashMap<>();
+
+    private final Library library;
+    private MemorySegment object;
+
+    private LeopardForeign(
+            Library library,
+            String accessKey,
+            String modelPath,
+            String device,
+            boolean enableAutomaticPunctuation,
+            boolean enableDiarization) throws LeopardException {
+        this.library = library;
+        try (Arena arena = Arena.ofConfined()) {
+            final MemorySegment objectRef = arena.allocate(ADDRESS);
+            final int status = (int) library.init.invokeExact(
+                    arena.allocateFrom(accessKey),
+                    arena.allocateFrom(modelPath),
+                    arena.allocateFrom(device),
+                    enableAutomaticPunctuation,
+                    enableDiarization,
+                    objectRef);
+            library.check(status, "Initialization failed");
+            this.object = objectRef.get(ADDRESS, 0);
+        } catch (LeopardException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new LeopardException(t);
+        }
+    }
+
+    private static long offsetOf(String name) {
+        return WORD_LAYOUT.byteOffset(MemoryLayout.PathElement.groupElement(name));
+    }
+
+    /**
+     * Processes audio held in memory, from the position to the limit of the buffer. A direct buffer is passed to
+     * the engine as is; a heap buffer is copied to native memory first.
+     *
+     * @param pcm 16-bit samples in native byte order with a sample rate equal to {@link #getSampleRate()},
+     *            single channel.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public LeopardTranscript process(ByteBuffer pcm) throws LeopardException {
+        if (pcm == null) {
+            throw new LeopardInvalidArgumentException("Passed null frame to Leopard process.");
+        }
+        return process(MemorySegment.ofBuffer(pcm));
+    }
+
+    /**
+     * Processes given audio data and returns its transcription.
+     *
+     * @param pcm A frame of audio samples. See {@link Leopard#process(short[])}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public LeopardTranscript process(short[] pcm) throws LeopardException {
+        if (pcm == null) {
+            throw new LeopardInvalidArgumentException("Passed null frame to Leopard process.");
+        }
+        return process(MemorySegment.ofArray(pcm));
+    }
+
+    private synchronized LeopardTranscript process(MemorySegment pcm) throws LeopardException {
+        if (pcm.byteSize() % Short.BYTES != 0 || pcm.byteSize() / Short.BYTES > Integer.MAX_VALUE) {
+            throw new LeopardInvalidArgumentException(
+                    "Leopard process requires a whole number of 16-bit samples, at most 2^31 - 1 of them.");
+        }
+        checkNotDeleted("process");
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment samples = pcm;
+            if (!pcm.isNative()) {
+                samples = arena.allocate(pcm.byteSize(), JAVA_SHORT.byteAlignment());
+                samples.copyFrom(pcm);
+            }
+            final MemorySegment transcriptRef = arena.allocate(ADDRESS);
+            final MemorySegment numWordsRef = arena.allocate(JAVA_INT);
+            final MemorySegment wordsRef = arena.allocate(ADDRESS);
+            final int status = (int) library.process.invokeExact(
+                    object,
+                    samples,
+                    (int) (pcm.byteSize() / Short.BYTES),
+                    transcriptRef,
+                    numWordsRef,
+                    wordsRef);
+            library.check(status, "Processing failed");
+            return readTranscript(transcriptRef, numWordsRef, wordsRef);
+        } catch (LeopardException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new LeopardException(t);
+        }
+    }
+
+    /**
+     * Processes given audio file and returns its transcription.
+     *
+     * @param path Absolute path to the audio file. See {@link Leopard#processFile(String)}.
+     * @return LeopardTranscript object which contains the transcription results of the engine.
+     * @throws LeopardException if there is an error while processing the audio.
+     */
+    public synchronized LeopardTranscript processFile(String path) throws LeopardException {
+        if (path == null) {
+            throw new LeopardInvalidArgumentException("Passed null path to Leopard processFile.");
+        }
+        checkNotDeleted("processFile");
+
+        try (Arena arena = Arena.ofConfined()) {
+            final MemorySegment transcriptRef = arena.allocate(ADDRESS);
+            final MemorySegment numWordsRef = arena.allocate(JAVA_INT);
+            final MemorySegment wordsRef = arena.allocate(ADDRESS);
+            final int status = (int) library.processFile.invokeExact(
+                    object,
+                    arena.allocateFrom(path),
+                    transcriptRef,
+                    numWordsRef,
+                    wordsRef);
+            library.check(status, "Processing failed");
+            return readTranscript(transcriptRef, numWordsRef, wordsRef);
+        } catch (LeopardException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new LeopardException(t);
+        }
+    }
+
+    private LeopardTranscript readTranscript(
+            MemorySegment transcriptRef,
+            MemorySegment numWordsRef,
+            MemorySegment wordsRef) throws Throwable {
+        final MemorySegment transcript = transcriptRef.get(ADDRESS, 0);
+        final int numWords = numWordsRef.get(JAVA_INT, 0);
+        final MemorySegment words = wordsRef.get(ADDRESS, 0).reinterpret(numWords * WORD_LAYOUT.byteSize());
+        try {
+            final LeopardTranscript.Word[] wordArray = new LeopardTranscript.Word[numWords];
+            for (int i = 0; i < numWords; i++) {
+                final long offset = i * WORD_LAYOUT.byteSize();
+                wordArray[i] = new LeopardTranscript.Word(
+                        readString(words.get(ADDRESS, offset + WORD_OFFSET)),
+                        words.get(JAVA_FLOAT, offset + CONFIDENCE_OFFSET),
+                        words.get(JAVA_FLOAT, offset + START_SEC_OFFSET),
+                        words.get(JAVA_FLOAT, offset + END_SEC_OFFSET),
+                        words.get(JAVA_INT, offset + SPEAKER_TAG_OFFSET));
+            }
+            return new LeopardTranscript(readString(transcript), wordArray);
+        } finally {
+            library.wordsDelete.invokeExact(wordsRef.get(ADDRESS, 0));
+            library.transcriptDelete.invokeExact(transcript);
+        }
+    }
+
+    private static String readString(MemorySegment string) {
+        return string.reinterpret(Long.MAX_VALUE).getString(0);
+    }
+
+    private void checkNotDeleted(String method) throws LeopardInvalidStateException {
+        if (object == null) {
+            throw new LeopardInvalidStateException(
+                    String.format("Attempted to call Leopard %s after delete.", method));
+        }
+    }
+
+    /**
+     * Getter for the required audio sample rate.
+     *
+     * @return Required sample rate for PCM data.
+     */
+    public int getSampleRate() {
+        try {
+            return (int) library.sampleRate.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Getter for the version of the native library.
+     *
+     * @return Leopard version.
+     */
+    public String getVersion() {
+        try {
+            return readString((MemorySegment) library.version.invokeExact());
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Releases resources acquired by Leopard. Waits for a call in progress on this instance to return.
+     */
+    public synchronized void delete() {
+        if (object == null) {
+            return;
+        }
+        try {
+            library.delete.invokeExact(object);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        } finally {
+            object = null;
+        }
+    }
+
+    /**
+     * Releases resources acquired by Leopard. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    private static Library loadLibrary(String libraryPath) throws LeopardException {
+        try {
+            return LIBRARIES.computeIfAbsent(libraryPath, Library::new);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new LeopardIOException(e);
+        }
+    }
+
+    /**
+     * Method handles for the functions of one native library, which stays loaded for the life of the JVM.
+     */
+    private static final class Library {
+        private final MethodHandle init;
+        private final MethodHandle delete;
+        private final MethodHandle process;
+        private final MethodHandle processFile;
+        private final MethodHandle transcriptDelete;
+        private final MethodHandle wordsDelete;
+        private final MethodHandle version;
+        private final MethodHandle sampleRate;
+        private final MethodHandle statusToString;
+        private final MethodHandle getErrorStack;
+        private final MethodHandle freeErrorStack;
+
+        Library(String libraryPath) {
+            final Linker linker = Linker.nativeLinker();
+            final SymbolLookup lookup = SymbolLookup.libraryLookup(Paths.get(libraryPath), Arena.global());
+
+            init = downcall(linker, lookup, "pv_leopard_init", FunctionDescriptor.of(
+                    JAVA_INT, ADDRESS, ADDRESS, ADDRESS, JAVA_BOOLEAN, JAVA_BOOLEAN, ADDRESS));
+            delete = downcall(linker, lookup, "pv_leopard_delete", FunctionDescriptor.ofVoid(ADDRESS));
+            process = downcall(linker, lookup, "pv_leopard_process", FunctionDescriptor.of(
+                    JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+            processFile = downcall(linker, lookup, "pv_leopard_process_file", FunctionDescriptor.of(
+                    JAVA_INT, ADDRESS, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+            transcriptDelete = downcall(
+                    linker, lookup, "pv_leopard_transcript_delete", FunctionDescriptor.ofVoid(ADDRESS));
+            wordsDelete = downcall(linker, lookup, "pv_leopard_words_delete", FunctionDescriptor.ofVoid(ADDRESS));
+            version = downcall(linker, lookup, "pv_leopard_version", FunctionDescriptor.of(ADDRESS));
+            sampleRate = downcall(linker, lookup, "pv_sample_rate", FunctionDescriptor.of(JAVA_INT));
+            statusToString = downcall(
+                    linker, lookup, "pv_status_to_string", FunctionDescriptor.of(ADDRESS, JAVA_INT));
+            getErrorStack = downcall(
+                    linker, lookup, "pv_get_error_stack", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+            freeErrorStack = downcall(linker, lookup, "pv_free_error_stack", FunctionDescriptor.ofVoid(ADDRESS));
+
+            final MethodHandle setSdk = downcall(linker, lookup, "pv_set_sdk", FunctionDescriptor.ofVoid(ADDRESS));
+            try (Arena arena = Arena.ofConfined()) {
+                setSdk.invokeExact(arena.allocateFrom("java"));
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        private static MethodHandle downcall(
+                Linker linker,
+                SymbolLookup lookup,
+                String name,
+                FunctionDescriptor descriptor) {
+            return linker.downcallHandle(
+                    lookup.find(name).orElseThrow(() -> new IllegalArgumentException(
+                            String.format("Symbol `%s` not found in the Leopard library.", name))),
+                    descriptor);
+        }
+
+        void check(int status, String message) throws Throwable {
+            if (status == 0) {
+                return;
+            }
+            final String statusString = readString((MemorySegment) statusToString.invokeExact(status));
+            throw statusToException(status, String.format("%s: %s", message, statusString), readErrorStack());
+        }
+
+        private String[] readErrorStack() throws Throwable {
+            try (Arena arena = Arena.ofConfined()) {
+                final MemorySegment stackRef = arena.allocate(ADDRESS);
+                final MemorySegment depthRef = arena.allocate(JAVA_INT);
+                final int status = (int) getErrorStack.invokeExact(stackRef, depthRef);
+                if (status != 0) {
+                    return new String[0];
+                }
+                final int depth = depthRef.get(JAVA_INT, 0);
+                final MemorySegment stack = stackRef.get(ADDRESS, 0).reinterpret(depth * ADDRESS.byteSize());
+                final String[] messages = new String[depth];
+                for (int i = 0; i < depth; i++) {
+                    messages[i] = readString(stack.getAtIndex(ADDRESS, i));
+                }
+                freeErrorStack.invokeExact(stackRef.get(ADDRESS, 0));
+                return messages;
+            }
+        }
+
+        private static LeopardException statusToException(int status, String message, String[] stack) {
+            switch (status) {
+                case 1:
+                    return new LeopardMemoryException(message, stack);
+                case 2:
+                    return new LeopardIOException(message, stack);
+                case 3:
+                    return new LeopardInvalidArgumentException(message, stack);
+                case 4:
+                    return new LeopardStopIterationException(message, stack);
+                case 5:
+                    return new LeopardKeyException(message, stack);
+                case 6:
+                    return new LeopardInvalidStateException(message, stack);
+                case 7:
+                    return new LeopardRuntimeException(message, stack);
+                case 8:
+                    return new LeopardActivationException(message, stack);
+                case 9:
+                    return new LeopardActivationLimitException(message, stack);
+                case 10:
+                    return new LeopardActivationThrottledException(message, stack);
+                case 11:
+                    return new LeopardActivationRefusedException(message, stack);
+                default:
+                    return new LeopardException(message, stack);
+            }
+        }
+    }
+
+    /**
+     * Builder for creating an instance of LeopardForeign with a mixture of default arguments.
+     */
+    public static class Builder {
+        private String accessKey = null;
+        private String libraryPath = null;
+        private String modelPath = null;
+        private String device = null;
+        private boolean enableAutomaticPunctuation = false;
+        private boolean enableDiarization = false;
+
+        /**
+         * Setter for the AccessKey.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console.
+         */
+        public Builder setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+            return this;
+        }
+
+        /**
+         * Setter for the path to the native library. It must export the Leopard C API; the library packaged
+         * with this binding does.
+         *
+         * @param libraryPath Absolute path to the native Leopard library.
+         */
+        public Builder setLibraryPath(String libraryPath) {
+            this.libraryPath = libraryPath;
+            return this;
+        }
+
+        /**
+         * Setter for the model path.
+         *
+         * @param modelPath Absolute path to the file containing Leopard model parameters.
+         */
+        public Builder setModelPath(String modelPath) {
+            this.modelPath = modelPath;
+            return this;
+        }
+
+        /**
+         * Setter for the device. See {@link Leopard.Builder#setDevice(String)}.
+         *
+         * @param device String representation of the device to use.
+         */
+        public Builder setDevice(String device) {
+            this.device = device;
+            return this;
+        }
+
+        /**
+         * Setter for enabling automatic punctuation insertion.
+         *
+         * @param enableAutomaticPunctuation Set to `true` to enable automatic punctuation insertion.
+         */
+        public Builder setEnableAutomaticPunctuation(boolean enableAutomaticPunctuation) {
+            this.enableAutomaticPunctuation = enableAutomaticPunctuation;
+            return this;
+        }
+
+        /**
+         * Setter for enabling speaker diarization.
+         *
+         * @param enableDiarization Set to `true` to enable speaker diarization.
+         */
+        public Builder setEnableDiarization(boolean enableDiarization) {
+            this.enableDiarization = enableDiarization;
+            return this;
+        }
+
+        /**
+         * Creates an instance of the Leopard Speech-to-Text engine.
+         */
+        public LeopardForeign build() throws LeopardException {
+            if (accessKey == null || accessKey.isEmpty()) {
+                throw new LeopardInvalidArgumentException("AccessKey must not be null or empty");
+            }
+            final String library = libraryPath != null ? libraryPath : Leopard.LIBRARY_PATH;
+            final String model = modelPath != null ? modelPath : Leopard.MODEL_PATH;
+            return new LeopardForeign(
+                    loadLibrary(library),
+                    accessKey,
+                    model,
+                    device != null ? device : "best",
+                    enableAutomaticPunctuation,
+                    enableDiarization);
+        }
+    }
+}
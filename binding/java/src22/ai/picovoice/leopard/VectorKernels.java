@@ -0,0 +1,110 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link PcmConversions} loops on the Vector API. Loaded by {@link PcmConversions#loadKernels()} when the
+ * `jdk.incubator.vector` module is present; tails shorter than a vector run on the scalar loops.
+ */
+final class VectorKernels implements PcmConversions.Kernels {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+    private static final VectorSpecies<Short> SHORTS = VectorSpecies.of(
+            short.class,
+            VectorShape.forBitSize(FLOATS.vectorBitSize() / 2));
+    private static final VectorSpecies<Short> SHORT_PAIRS = VectorSpecies.of(short.class, FLOATS.vectorShape());
+
+    // gather the even and odd lanes of a vector into its lower half, and those of the next vector into its upper half
+    private static final VectorShuffle<Float> EVEN_FLOATS = VectorShuffle.fromOp(
+            FLOATS,
+            i -> (2 * i) % FLOATS.length());
+    private static final VectorShuffle<Float> ODD_FLOATS = VectorShuffle.fromOp(
+            FLOATS,
+            i -> (2 * i + 1) % FLOATS.length());
+    private static final VectorMask<Float> UPPER_HALF = VectorMask.fromLong(
+            FLOATS,
+            -1L << (FLOATS.length() / 2));
+
+    private final PcmConversions.ScalarKernels scalar = new PcmConversions.ScalarKernels();
+
+    @Override
+    public void floatToShort(float[] src, int srcOffset, short[] dst, int dstOffset, int length) {
+        final int bound = FLOATS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, src, srcOffset + i)
+                    .mul(32768f)
+                    .max(-32768f)
+                    .min(32767f)
+                    .convertShape(VectorOperators.F2I, INTS, 0)
+                    .castShape(SHORTS, 0)
+                    .reinterpretAsShorts()
+                    .intoArray(dst, dstOffset + i);
+        }
+        scalar.floatToShort(src, srcOffset + i, dst, dstOffset + i, length - i);
+    }
+
+    @Override
+    public void shortToFloat(short[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+        final int bound = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ((FloatVector) ShortVector.fromArray(SHORTS, src, srcOffset + i)
+                    .castShape(FLOATS, 0))
+                    .mul(1f / 32768f)
+                    .intoArray(dst, dstOffset + i);
+        }
+        scalar.shortToFloat(src, srcOffset + i, dst, dstOffset + i, length - i);
+    }
+
+    @Override
+    public void downmixStereo(short[] src, int srcOffset, short[] dst, int dstOffset, int numFrames) {
+        // each int lane holds one little-endian frame: left in the low half, right in the high half
+        final int bound = INTS.loopBound(numFrames);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            final IntVector frames = ShortVector.fromArray(SHORT_PAIRS, src, srcOffset + 2 * i).reinterpretAsInts();
+            final IntVector left = frames.lanewise(VectorOperators.LSHL, 16).lanewise(VectorOperators.ASHR, 16);
+            final IntVector right = frames.lanewise(VectorOperators.ASHR, 16);
+            ((ShortVector) left.add(right).lanewise(VectorOperators.ASHR, 1).castShape(SHORTS, 0))
+                    .intoArray(dst, dstOffset + i);
+        }
+        scalar.downmixStereo(src, srcOffset + 2 * i, dst, dstOffset + i, numFrames - i);
+    }
+
+    @Override
+    public void downmixStereo(float[] src, int srcOffset, float[] dst, int dstOffset, int numFrames) {
+        final int bound = FLOATS.loopBound(numFrames);
+        int i = 0;
+        for (; i < bound; i += FLOATS.length()) {
+            final FloatVector first = FloatVector.fromArray(FLOATS, src, srcOffset + 2 * i);
+            final FloatVector second = FloatVector.fromArray(FLOATS, src, srcOffset + 2 * i + FLOATS.length());
+            final FloatVector left = first.rearrange(EVEN_FLOATS).blend(second.rearrange(EVEN_FLOATS), UPPER_HALF);
+            final FloatVector right = first.rearrange(ODD_FLOATS).blend(second.rearrange(ODD_FLOATS), UPPER_HALF);
+            left.add(right)
+                    .mul(0.5f)
+                    .intoArray(dst, dstOffset + i);
+        }
+        scalar.downmixStereo(src, srcOffset + 2 * i, dst, dstOffset + i, numFrames - i);
+    }
+}
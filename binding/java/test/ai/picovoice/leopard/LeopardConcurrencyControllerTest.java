@@ -0,0 +1,68 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LeopardConcurrencyControllerTest {
+
+    private static final long TARGET_NS = 1_000_000_000L;
+    private static final double TARGET_RTF = 0.25;
+
+    private static LeopardConcurrencyController.Aimd newAimd() {
+        return new LeopardConcurrencyController.Aimd(1, 8, TARGET_NS, TARGET_RTF, 0.5);
+    }
+
+    @Test
+    void decreaseWhenCallsAreSlow() {
+        LeopardConcurrencyController.Aimd aimd = newAimd();
+        assertEquals(4, aimd.next(8, 3 * TARGET_NS, 2 * TARGET_RTF, 10));
+        assertEquals(2, aimd.next(4, 2 * TARGET_NS, 2 * TARGET_RTF, 8));
+        assertEquals(1, aimd.next(2, 2 * TARGET_NS, 2 * TARGET_RTF, 6));
+        assertEquals(1, aimd.next(1, 2 * TARGET_NS, 2 * TARGET_RTF, 5));
+    }
+
+    @Test
+    void increaseWhileQueueingAndCapacityGrows() {
+        LeopardConcurrencyController.Aimd aimd = newAimd();
+        assertEquals(3, aimd.next(2, 2 * TARGET_NS, TARGET_RTF / 2, 4));
+        assertEquals(4, aimd.next(3, 2 * TARGET_NS, TARGET_RTF / 2, 5));
+        // the fourth instance lowered capacity, so go back and stop there
+        assertEquals(3, aimd.next(4, 2 * TARGET_NS, TARGET_RTF / 2, 4));
+        assertEquals(3, aimd.next(3, 2 * TARGET_NS, TARGET_RTF / 2, 5));
+    }
+
+    @Test
+    void increaseForLongAudio() {
+        // ten-minute recordings take far longer than the target latency on any layout, but run well within the
+        // target real-time factor, so instances are added for throughput instead of being removed
+        LeopardConcurrencyController.Aimd aimd = newAimd();
+        assertEquals(3, aimd.next(2, 60 * TARGET_NS, 0.05, 20));
+        assertEquals(4, aimd.next(3, 60 * TARGET_NS, 0.06, 28));
+        assertEquals(5, aimd.next(4, 60 * TARGET_NS, 0.07, 34));
+        assertEquals(4, aimd.next(5, 60 * TARGET_NS, 0.09, 30));
+        assertEquals(4, aimd.next(4, 60 * TARGET_NS, 0.07, 34));
+    }
+
+    @Test
+    void holdWithinTarget() {
+        LeopardConcurrencyController.Aimd aimd = newAimd();
+        assertEquals(4, aimd.next(4, TARGET_NS / 2, TARGET_RTF / 4, 6));
+        assertEquals(4, aimd.next(4, TARGET_NS, TARGET_RTF / 4, 6));
+
+        aimd.limit(4, 5);
+        assertEquals(4, aimd.next(4, 2 * TARGET_NS, TARGET_RTF / 4, 6));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LeopardKeyedPoolTest {
+    private final String accessKey = System.getProperty("pvTestingAccessKey");
+    private final String device = System.getProperty("pvTestingDevice");
+    private final String testAudioPath = Paths.get(System.getProperty("user.dir"))
+            .resolve("../../resources/audio_samples/test.wav")
+            .toString();
+
+    private final LeopardKeyedPool.Config plain = new LeopardKeyedPool.Config(null, device, false, false);
+    private final LeopardKeyedPool.Config punctuated = new LeopardKeyedPool.Config(null, device, true, false);
+    private final LeopardKeyedPool.Config diarized = new LeopardKeyedPool.Config(null, device, false, true);
+
+    private LeopardKeyedPool pool;
+
+    private LeopardKeyedPool buildPool(int maxInstances, int maxInstancesPerConfig) throws LeopardException {
+        return new LeopardKeyedPool.Builder()
+                .setAccessKey(accessKey)
+                .setMaxInstances(maxInstances)
+                .setMaxInstancesPerConfig(maxInstancesPerConfig)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.delete();
+            pool = null;
+        }
+    }
+
+    @Test
+    void createsInstancesOnFirstUse() throws Exception {
+        pool = buildPool(2, 0);
+        assertEquals(0, pool.getNumInstances());
+
+        Leopard leopard = pool.acquire(punctuated);
+        assertEquals(1, pool.getNumInstances());
+        assertEquals(0, pool.getNumIdle());
+        LeopardTranscript result = leopard.processFile(testAudioPath);
+        assertTrue(result.getTranscriptString().matches(".*[.,?!].*"));
+        pool.release(leopard);
+        assertEquals(1, pool.getNumIdle());
+
+        // the warm instance is reused instead of initializing another one
+        assertSame(leopard, pool.acquire(punctuated));
+        assertEquals(1, pool.getNumInstances());
+        pool.release(leopard);
+
+        LeopardTranscript plainResult = pool.processFile(plain, testAudioPath);
+        assertFalse(plainResult.getTranscriptString().matches(".*[.,?!].*"));
+        assertEquals(2, pool.getNumInstances());
+        assertThrows(IllegalArgumentException.class, () -> pool.release(leopard));
+    }
+
+    @Test
+    void capsInstancesPerConfig() throws Exception {
+        pool = buildPool(3, 1);
+
+        Leopard leased = pool.acquire(plain);
+        assertThrows(LeopardTimeoutException.class, () -> pool.acquire(plain, Duration.ofMillis(100)));
+        assertEquals(0, pool.getQueueDepth());
+
+        // other configurations still get instances of their own
+        Leopard other = pool.acquire(punctuated);
+        assertNotSame(leased, other);
+        assertEquals(2, pool.getNumInstances());
+        pool.release(other);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Leopard> waiting = executor.submit(() -> pool.acquire(plain));
+            while (pool.getQueueDepth() == 0) {
+                Thread.sleep(10);
+            }
+            pool.release(leased);
+            assertSame(leased, waiting.get(1, TimeUnit.MINUTES));
+            pool.release(leased);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedConfig() throws Exception {
+        pool = buildPool(2, 0);
+
+        pool.release(pool.acquire(plain));
+        pool.release(pool.acquire(punctuated));
+        pool.release(pool.acquire(plain));
+        assertEquals(Arrays.asList(punctuated, plain), pool.getConfigs());
+
+        Leopard leopard = pool.acquire(diarized);
+        assertEquals(2, pool.getNumInstances());
+        assertEquals(1, pool.getNumEvictions());
+        assertEquals(Arrays.asList(plain, diarized), pool.getConfigs());
+        pool.release(leopard);
+    }
+
+    @Test
+    void acquireTimesOutWhenAllInstancesAreLeased() throws Exception {
+        pool = buildPool(1, 0);
+
+        Leopard leased = pool.acquire(plain);
+        // leased instances are never evicted, so another configuration has to wait
+        assertThrows(LeopardTimeoutException.class, () -> pool.acquire(punctuated, Duration.ofMillis(100)));
+        assertEquals(0, pool.getNumEvictions());
+        assertEquals(0, pool.getQueueDepth());
+
+        pool.release(leased);
+        Leopard other = pool.acquire(punctuated, Duration.ofMinutes(1));
+        assertEquals(1, pool.getNumEvictions());
+        assertEquals(1, pool.getNumInstances());
+        pool.release(other);
+    }
+
+    @Test
+    void deleteWhileLeased() throws Exception {
+        pool = buildPool(2, 0);
+
+        Leopard leased = pool.acquire(plain);
+        pool.release(pool.acquire(punctuated));
+        pool.delete();
+
+        assertThrows(LeopardInvalidStateException.class, () -> leased.processFile(testAudioPath));
+        assertThrows(LeopardInvalidStateException.class, () -> pool.acquire(plain));
+        assertEquals(0, pool.getNumInstances());
+        // returning the lease after delete is still allowed
+        pool.release(leased);
+    }
+}
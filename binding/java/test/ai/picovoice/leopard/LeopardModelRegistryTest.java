@@ -0,0 +1,78 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LeopardModelRegistryTest {
+
+    @Test
+    void resolveLanguages(@TempDir Path dir) throws IOException, LeopardException {
+        for (String name : new String[]{"leopard_params.pv", "leopard_params_de.pv", "leopard_params_ja.pv",
+                "leopard_params_xyz.pv", "notes.txt"}) {
+            Files.write(dir.resolve(name), new byte[16]);
+        }
+        Path custom = dir.resolve("custom_de.pv");
+        Files.write(custom, new byte[16]);
+
+        LeopardModelRegistry registry = new LeopardModelRegistry.Builder()
+                .setModelDirectory(dir.toString())
+                .addModel("DE", custom.toString())
+                .setMemoryBudget(1024)
+                .setFactory(config -> {
+                    throw new LeopardException("unexpected engine creation");
+                })
+                .build();
+        try {
+            assertEquals(Arrays.asList("de", "en", "ja"), registry.getLanguages());
+            assertEquals(dir.resolve("leopard_params.pv").toAbsolutePath().toString(), registry.getModelPath("en"));
+            assertEquals(custom.toString(), registry.getModelPath("de"));
+            assertEquals(registry.getModelPath("ja"), registry.getModelPath("JA"));
+            assertNull(registry.getModelPath("fr"));
+            assertThrows(LeopardInvalidArgumentException.class, () -> registry.acquire("fr"));
+            assertEquals(0, registry.getNumInstances());
+        } finally {
+            registry.delete();
+        }
+    }
+
+    @Test
+    void rejectsModelOverBudget(@TempDir Path dir) throws IOException, LeopardException {
+        Path model = dir.resolve("leopard_params.pv");
+        Files.write(model, new byte[4096]);
+
+        LeopardModelRegistry registry = new LeopardModelRegistry.Builder()
+                .setModelDirectory(dir.toString())
+                .setMemoryBudget(1024)
+                .setFactory(config -> {
+                    throw new LeopardException("unexpected engine creation");
+                })
+                .build();
+        try {
+            assertThrows(LeopardInvalidArgumentException.class, () -> registry.acquire("en"));
+            assertEquals(0, registry.getResidentBytes());
+        } finally {
+            registry.delete();
+        }
+    }
+}
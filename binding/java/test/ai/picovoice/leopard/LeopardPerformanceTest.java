@@ -12,11 +12,16 @@
 
 package ai.picovoice.leopard;
 
+import com.google.gson.Gson;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LeopardPerformanceTest {
@@ -96,4 +101,84 @@ public class LeopardPerformanceTest {
                         avgPerfSec)
         );
     }
+
+    @Test
+    void conversionPerformance() {
+        // one second of 16kHz stereo audio, downmixed and converted to 16-bit 60 times
+        final int numFrames = 16000;
+        float[] stereo = new float[2 * numFrames];
+        Random random = new Random(0);
+        for (int i = 0; i < stereo.length; i++) {
+            stereo[i] = (float) (random.nextGaussian() * 0.3);
+        }
+        float[] mono = new float[numFrames];
+        short[] expected = new short[numFrames];
+        short[] actual = new short[numFrames];
+
+        PcmConversions.Kernels scalar = new PcmConversions.ScalarKernels();
+        PcmConversions.Kernels kernels = PcmConversions.loadKernels();
+        long scalarNs = 0;
+        long kernelsNs = 0;
+        for (int i = 0; i < numTestIterations * 10 + 10; i++) {
+            long before = System.nanoTime();
+            for (int j = 0; j < 60; j++) {
+                scalar.downmixStereo(stereo, 0, mono, 0, numFrames);
+                scalar.floatToShort(mono, 0, expected, 0, numFrames);
+            }
+            long scalarTime = System.nanoTime() - before;
+
+            before = System.nanoTime();
+            for (int j = 0; j < 60; j++) {
+                kernels.downmixStereo(stereo, 0, mono, 0, numFrames);
+                kernels.floatToShort(mono, 0, actual, 0, numFrames);
+            }
+            long kernelsTime = System.nanoTime() - before;
+
+            // the first iterations warm up the JIT
+            if (i >= 10) {
+                scalarNs += scalarTime;
+                kernelsNs += kernelsTime;
+            }
+        }
+        assertArrayEquals(expected, actual);
+        System.out.printf(
+                "Average stereo float to mono int16 conversion of 60s: scalar %.3fms, %s %.3fms (%.2fx)\n",
+                scalarNs * 1e-6 / (numTestIterations * 10),
+                PcmConversions.isVectorized() ? "vectorized" : "scalar",
+                kernelsNs * 1e-6 / (numTestIterations * 10),
+                (double) scalarNs / kernelsNs);
+    }
+
+    @Test
+    void transcriptCodecPerformance() throws Exception {
+        final Gson gson = new Gson();
+        final LeopardTranscript transcript = LeopardTranscriptCodecTest.createTranscript(20000, true);
+        final byte[] binary = LeopardTranscriptCodecTest.encode(transcript);
+        final byte[] json = gson.toJson(transcript).getBytes(StandardCharsets.UTF_8);
+
+        long binaryNs = 0;
+        long jsonNs = 0;
+        for (int i = 0; i < numTestIterations * 10 + 1; i++) {
+            long before = System.nanoTime();
+            LeopardTranscript.readFrom(ByteBuffer.wrap(LeopardTranscriptCodecTest.encode(transcript)));
+            long binaryTime = System.nanoTime() - before;
+
+            before = System.nanoTime();
+            gson.fromJson(
+                    new String(gson.toJson(transcript).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
+                    LeopardTranscript.class);
+            long jsonTime = System.nanoTime() - before;
+
+            if (i > 0) {
+                binaryNs += binaryTime;
+                jsonNs += jsonTime;
+            }
+        }
+        System.out.printf(
+                "Transcript codec: binary %d bytes, %.3fms per round trip | JSON %d bytes, %.3fms per round trip\n",
+                binary.length,
+                binaryNs * 1e-6 / (numTestIterations * 10),
+                json.length,
+                jsonNs * 1e-6 / (numTestIterations * 10));
+    }
 }
@@ -0,0 +1,76 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LeopardPoolTest {
+
+    @Test
+    void readChannels(@TempDir Path dir) throws IOException {
+        final int numFrames = 10000;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + numFrames * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes()).putInt(buffer.capacity() - 8).put("WAVE".getBytes());
+        buffer.put("fmt ".getBytes()).putInt(16)
+                .putShort((short) 1).putShort((short) 2).putInt(16000).putInt(64000)
+                .putShort((short) 4).putShort((short) 16);
+        buffer.put("data".getBytes()).putInt(numFrames * 4);
+        short[] left = new short[numFrames];
+        short[] right = new short[numFrames];
+        for (int i = 0; i < numFrames; i++) {
+            left[i] = (short) (i * 7);
+            right[i] = (short) -(i * 3);
+            buffer.putShort(left[i]).putShort(right[i]);
+        }
+        Path wav = dir.resolve("stereo.wav");
+        Files.write(wav, buffer.array());
+
+        short[][] channels = LeopardPool.readChannels(wav.toString(), AudioProbe.probeWav(wav.toString()));
+        assertEquals(2, channels.length);
+        assertArrayEquals(left, channels[0]);
+        assertArrayEquals(right, channels[1]);
+    }
+
+    @Test
+    void mergeChannels() {
+        LeopardTranscript agent = new LeopardTranscript("hello how can I help", new LeopardTranscript.Word[]{
+                new LeopardTranscript.Word("hello", 0.9f, 0.1f, 0.4f, -1),
+                new LeopardTranscript.Word("how", 0.9f, 0.5f, 0.6f, -1),
+                new LeopardTranscript.Word("can", 0.9f, 0.7f, 0.8f, -1),
+                new LeopardTranscript.Word("I", 0.9f, 0.9f, 1.0f, -1),
+                new LeopardTranscript.Word("help", 0.9f, 2.5f, 2.8f, -1),
+        });
+        LeopardTranscript customer = new LeopardTranscript("hi there", new LeopardTranscript.Word[]{
+                new LeopardTranscript.Word("hi", 0.8f, 0.5f, 0.7f, -1),
+                new LeopardTranscript.Word("there", 0.8f, 1.2f, 1.5f, -1),
+        });
+
+        LeopardTranscript merged = LeopardPool.mergeChannels(new LeopardTranscript[]{agent, customer});
+        assertEquals("hello how hi can I there help", merged.getTranscriptString());
+        int[] speakerTags = new int[merged.getWordArray().length];
+        for (int i = 0; i < speakerTags.length; i++) {
+            speakerTags[i] = merged.getWordArray()[i].getSpeakerTag();
+        }
+        assertArrayEquals(new int[]{1, 1, 2, 1, 1, 2, 1}, speakerTags);
+    }
+}
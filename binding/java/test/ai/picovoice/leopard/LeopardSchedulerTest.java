@@ -0,0 +1,149 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LeopardSchedulerTest {
+
+    private static LeopardScheduler.Job job(long seq, String tenant, double durationSec) {
+        return new LeopardScheduler.Job(seq, tenant, false, 0, durationSec, null);
+    }
+
+    private static LeopardScheduler.Job job(long seq, long deadlineNs, double durationSec) {
+        return new LeopardScheduler.Job(seq, "", true, deadlineNs, durationSec, null);
+    }
+
+    private static long[] drain(LeopardScheduler.JobQueue queue) {
+        long[] order = new long[queue.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = queue.poll().seq;
+        }
+        assertNull(queue.poll());
+        return order;
+    }
+
+    @Test
+    void shortestJobFirst() {
+        LeopardScheduler.JobQueue queue = LeopardScheduler.newQueue(LeopardScheduler.Policy.SHORTEST_JOB_FIRST);
+        queue.add(job(0, "", 10800));
+        queue.add(job(1, "", 30));
+        queue.add(job(2, "", 45));
+        queue.add(job(3, "", 30));
+        assertEquals("[1, 3, 2, 0]", Arrays.toString(drain(queue)));
+    }
+
+    @Test
+    void deadline() {
+        LeopardScheduler.JobQueue queue = LeopardScheduler.newQueue(LeopardScheduler.Policy.DEADLINE);
+        queue.add(job(0, "", 5));
+        queue.add(job(1, 2000, 600));
+        queue.add(job(2, 1000, 900));
+        queue.add(job(3, "", 1));
+        assertEquals("[2, 1, 3, 0]", Arrays.toString(drain(queue)));
+    }
+
+    @Test
+    void fairShare() {
+        LeopardScheduler.JobQueue queue = LeopardScheduler.newQueue(LeopardScheduler.Policy.FAIR_SHARE);
+        for (int i = 0; i < 4; i++) {
+            queue.add(job(i, "bulk", 60));
+        }
+        queue.add(job(4, "voicemail", 30));
+        queue.add(job(5, "voicemail", 30));
+        queue.add(job(6, "voicemail", 30));
+
+        assertEquals(0, queue.poll().seq);
+        assertEquals(4, queue.poll().seq);
+        assertEquals(5, queue.poll().seq);
+        assertEquals(1, queue.poll().seq);
+        assertEquals(6, queue.poll().seq);
+        assertEquals(2, queue.poll().seq);
+
+        // a tenant that was idle does not get credit for the time it did not use
+        queue.add(job(7, "late", 60));
+        queue.add(job(8, "late", 60));
+        assertEquals(7, queue.poll().seq);
+        assertEquals(3, queue.poll().seq);
+        assertEquals(8, queue.poll().seq);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void segmentBoundaries() throws IOException {
+        final int sampleRate = 1000;
+        final short[] pcm = new short[25 * sampleRate + 7];
+        for (int i = 0; i < pcm.length; i++) {
+            // one quiet 100ms gap every 3 seconds
+            pcm[i] = (short) ((i % (3 * sampleRate)) < 100 ? 0 : 1000 + i % 7);
+        }
+
+        long[] boundaries = LeopardScheduler.findSegmentBoundaries(
+                pcm.length,
+                10 * sampleRate,
+                2 * sampleRate,
+                20,
+                (start, length) -> Arrays.copyOfRange(pcm, (int) start, (int) start + length));
+
+        assertEquals(0, boundaries[0]);
+        assertEquals(pcm.length, boundaries[boundaries.length - 1]);
+        for (int i = 1; i < boundaries.length; i++) {
+            assertTrue(boundaries[i] - boundaries[i - 1] <= 10 * sampleRate);
+            assertTrue(boundaries[i] > boundaries[i - 1]);
+        }
+        for (int i = 1; i + 1 < boundaries.length; i++) {
+            assertEquals(0, pcm[(int) boundaries[i]], "cut at " + boundaries[i]);
+        }
+    }
+
+    @Test
+    void probeWav(@TempDir Path dir) throws IOException {
+        Path wav = dir.resolve("test.wav");
+        int numSamples = 24000;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + 12 + numSamples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes()).putInt(buffer.capacity() - 8).put("WAVE".getBytes());
+        buffer.put("fmt ".getBytes()).putInt(16)
+                .putShort((short) 1).putShort((short) 1).putInt(16000).putInt(32000)
+                .putShort((short) 2).putShort((short) 16);
+        buffer.put("LIST".getBytes()).putInt(4).put("INFO".getBytes());
+        buffer.put("data".getBytes()).putInt(numSamples * 2);
+        Files.write(wav, buffer.array());
+
+        AudioProbe.WavInfo info = AudioProbe.probeWav(wav.toString());
+        assertNotNull(info);
+        assertEquals(1, info.getNumChannels());
+        assertEquals(16000, info.getSampleRate());
+        assertEquals(16, info.getBitsPerSample());
+        assertEquals(56, info.getDataOffset());
+        assertEquals(numSamples, info.getNumFrames());
+        assertEquals(1.5, AudioProbe.estimateDurationSec(wav.toString()), 1e-9);
+
+        Path mp3 = dir.resolve("test.mp3");
+        Files.write(mp3, new byte[32000]);
+        assertNull(AudioProbe.probeWav(mp3.toString()));
+        assertEquals(2.0, AudioProbe.estimateDurationSec(mp3.toString()), 1e-9);
+    }
+}
@@ -32,12 +32,22 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class LeopardTest {
     private final String accessKey = System.getProperty("pvTestingAccessKey");
@@ -371,6 +381,119 @@ public class LeopardTest {
         }
     }
 
+    private static short[] repeat(short[] pcm, int times) {
+        final short[] repeated = new short[pcm.length * times];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(pcm, 0, repeated, i * pcm.length, pcm.length);
+        }
+        return repeated;
+    }
+
+    private static void awaitAbandonedCalls(Leopard leopard) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (leopard.isAbandonedCallRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void processWithTimeout() throws Exception {
+        leopard = new Leopard.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        String testAudioPath = Paths.get(System.getProperty("user.dir"))
+                .resolve("../../resources/audio_samples/test.wav")
+                .toString();
+        short[] pcm = repeat(readAudioFile(testAudioPath), 20);
+
+        assertThrows(LeopardTimeoutException.class, () -> leopard.process(pcm, Duration.ofMillis(1)));
+
+        // a call that timed out keeps running, and later calls wait for it instead of failing
+        LeopardTranscript result = leopard.process(pcm, Duration.ofMinutes(5));
+        assertTrue(result.getWordArray().length > 0);
+        awaitAbandonedCalls(leopard);
+        assertFalse(leopard.isAbandonedCallRunning());
+    }
+
+    @Test
+    void processFileWithTimeout() throws Exception {
+        leopard = new Leopard.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        String testAudioPath = Paths.get(System.getProperty("user.dir"))
+                .resolve("../../resources/audio_samples/test.wav")
+                .toString();
+
+        assertThrows(LeopardTimeoutException.class, () -> leopard.processFile(testAudioPath, Duration.ofNanos(1)));
+        assertThrows(
+                LeopardInvalidArgumentException.class,
+                () -> leopard.processFile(testAudioPath, Duration.ZERO));
+
+        LeopardTranscript result = leopard.processFile(testAudioPath, Duration.ofMinutes(1));
+        assertTrue(result.getWordArray().length > 0);
+    }
+
+    @Test
+    void processFileAsyncWithTimeout() throws Exception {
+        leopard = new Leopard.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        String testAudioPath = Paths.get(System.getProperty("user.dir"))
+                .resolve("../../resources/audio_samples/test.wav")
+                .toString();
+        LeopardTranscript reference = leopard.processFile(testAudioPath);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LeopardTranscript> future = leopard.processFileAsync(testAudioPath, executor);
+            assertThrows(TimeoutException.class, () -> future.get(1, TimeUnit.NANOSECONDS));
+
+            // giving up on the future does not stop the transcription
+            LeopardTranscript result = future.get(1, TimeUnit.MINUTES);
+            assertEquals(reference.getTranscriptString(), result.getTranscriptString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void poolHoldsBackInstanceWithAbandonedCall() throws Exception {
+        String testAudioPath = Paths.get(System.getProperty("user.dir"))
+                .resolve("../../resources/audio_samples/test.wav")
+                .toString();
+        short[] pcm = repeat(readAudioFile(testAudioPath), 20);
+
+        try (LeopardPool pool = new LeopardPool.Builder()
+                .setDevices(1, device)
+                .setFactory(instanceDevice -> new Leopard.Builder()
+                        .setAccessKey(accessKey)
+                        .setDevice(instanceDevice)
+                        .build())
+                .build()) {
+            Leopard leased = pool.acquire();
+            // a call that times out before the engine starts it is dropped, so retry until one is left running
+            for (int i = 0; i < 10 && !leased.isAbandonedCallRunning(); i++) {
+                assertThrows(LeopardTimeoutException.class, () -> leased.process(pcm, Duration.ofMillis(5)));
+            }
+            assumeTrue(leased.isAbandonedCallRunning());
+
+            pool.release(leased);
+            assertEquals(0, pool.getNumIdle());
+            assertThrows(LeopardTimeoutException.class, () -> pool.acquire(Duration.ofMillis(1)));
+
+            awaitAbandonedCalls(leased);
+            Leopard next = pool.acquire(Duration.ofMinutes(1));
+            assertSame(leased, next);
+            pool.release(next);
+        }
+    }
+
     private static class ProcessTestData {
         public final String language;
         public final String audioFile;
@@ -0,0 +1,65 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LeopardTopologyTest {
+
+    private static final long GIB = 1024L * 1024L * 1024L;
+
+    @Test
+    void parseDevices() {
+        LeopardTopology topology = new LeopardTopology(new String[]{"cpu:12", "gpu:0", "gpu:1"}, 8, 16 * GIB);
+        assertEquals(12, topology.getNumCpuThreads());
+        assertArrayEquals(new String[]{"gpu:0", "gpu:1"}, topology.getGpuDevices());
+
+        LeopardTopology.Layout layout = topology.recommend(GIB);
+        assertArrayEquals(new String[]{"gpu:0", "gpu:1"}, layout.getDevices());
+        assertEquals(0, layout.getNumThreadsPerInstance());
+    }
+
+    @Test
+    void recommendCpu() {
+        LeopardTopology topology = new LeopardTopology(new String[]{"cpu"}, 8, 16 * GIB);
+        assertEquals(8, topology.getNumCpuThreads());
+
+        LeopardTopology.Layout layout = topology.recommend(0);
+        assertEquals(4, layout.getNumInstances());
+        assertEquals(2, layout.getNumThreadsPerInstance());
+        assertEquals("cpu:2", layout.getDevices()[0]);
+
+        LeopardTopology.Layout memoryBound = topology.recommend(6 * GIB);
+        assertEquals(2, memoryBound.getNumInstances());
+    }
+
+    @Test
+    void candidateLayouts() {
+        LeopardTopology topology = new LeopardTopology(new String[]{"cpu:6"}, 6, -1);
+        List<LeopardTopology.Layout> layouts = topology.getCandidateLayouts(GIB);
+
+        assertEquals(4, layouts.size());
+        assertEquals(6, layouts.get(0).getNumInstances());
+        assertEquals(1, layouts.get(0).getNumThreadsPerInstance());
+        assertEquals(3, layouts.get(1).getNumInstances());
+        assertEquals(1, layouts.get(2).getNumInstances());
+        assertEquals(4, layouts.get(2).getNumThreadsPerInstance());
+        assertEquals(1, layouts.get(3).getNumInstances());
+        assertEquals(6, layouts.get(3).getNumThreadsPerInstance());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LeopardTranscriptCodecTest {
+
+    private static final String[] VOCABULARY = {
+            "Mr", "Quilter", "is", "the", "apostle", "of", "middle", "classes", "and", "we", "are", "glad",
+            "to", "welcome", "his", "gospel", "über", "señor", "日本語"
+    };
+
+    static LeopardTranscript createTranscript(int numWords, boolean enableDiarization) {
+        final Random random = new Random(42);
+        final LeopardTranscript.Word[] words = new LeopardTranscript.Word[numWords];
+        final StringBuilder sb = new StringBuilder();
+        float time = 0.32f;
+        for (int i = 0; i < numWords; i++) {
+            final String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            final float startSec = time;
+            final float endSec = startSec + 0.064f + random.nextInt(20) * 0.032f;
+            words[i] = new LeopardTranscript.Word(
+                    word,
+                    random.nextFloat(),
+                    startSec,
+                    endSec,
+                    enableDiarization ? random.nextInt(3) : -1);
+            time = endSec + random.nextInt(4) * 0.032f;
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(word);
+        }
+        return new LeopardTranscript(sb.toString(), words);
+    }
+
+    static byte[] encode(LeopardTranscript transcript) throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        transcript.writeTo(os);
+        return os.toByteArray();
+    }
+
+    private static void validateTranscript(LeopardTranscript result, LeopardTranscript reference) {
+        assertEquals(reference.getTranscriptString(), result.getTranscriptString());
+        LeopardTranscript.Word[] words = result.getWordArray();
+        LeopardTranscript.Word[] referenceWords = reference.getWordArray();
+        assertEquals(referenceWords.length, words.length);
+        for (int i = 0; i < words.length; i++) {
+            assertEquals(referenceWords[i].getWord(), words[i].getWord());
+            assertEquals(referenceWords[i].getStartSec(), words[i].getStartSec(), 0.001);
+            assertEquals(referenceWords[i].getEndSec(), words[i].getEndSec(), 0.001);
+            assertEquals(referenceWords[i].getConfidence(), words[i].getConfidence());
+            assertEquals(referenceWords[i].getSpeakerTag(), words[i].getSpeakerTag());
+        }
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        LeopardTranscript transcript = createTranscript(500, true);
+        byte[] bytes = encode(transcript);
+
+        validateTranscript(LeopardTranscript.readFrom(ByteBuffer.wrap(bytes)), transcript);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        validateTranscript(LeopardTranscript.readFrom(direct), transcript);
+        assertEquals(0, direct.remaining());
+    }
+
+    @Test
+    void roundTripEmpty() throws Exception {
+        LeopardTranscript transcript = new LeopardTranscript("", new LeopardTranscript.Word[0]);
+        validateTranscript(LeopardTranscript.readFrom(ByteBuffer.wrap(encode(transcript))), transcript);
+    }
+
+    @Test
+    void readConsecutive() throws Exception {
+        LeopardTranscript first = createTranscript(10, false);
+        LeopardTranscript second = createTranscript(20, true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        first.writeTo(os);
+        second.writeTo(os);
+
+        ByteBuffer buffer = ByteBuffer.wrap(os.toByteArray());
+        validateTranscript(LeopardTranscript.readFrom(buffer), first);
+        validateTranscript(LeopardTranscript.readFrom(buffer), second);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void readInvalid() throws Exception {
+        byte[] bytes = encode(createTranscript(50, false));
+
+        assertThrows(
+                LeopardInvalidArgumentException.class,
+                () -> LeopardTranscript.readFrom(ByteBuffer.wrap(bytes, 0, bytes.length / 2)));
+        assertThrows(
+                LeopardInvalidArgumentException.class,
+                () -> LeopardTranscript.readFrom(ByteBuffer.wrap("not a transcript".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void smallerThanJson() throws Exception {
+        LeopardTranscript transcript = createTranscript(20000, true);
+        byte[] binary = encode(transcript);
+        byte[] json = new Gson().toJson(transcript).getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(binary.length < json.length / 4);
+        validateTranscript(LeopardTranscript.readFrom(ByteBuffer.wrap(binary)), transcript);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PcmConversionsTest {
+
+    @Test
+    void floatToShort() {
+        float[] src = {0f, 0.5f, -0.5f, 1f, -1f, 2f, -2f, Float.NaN, 1f / 32768f, -0.99999f};
+        short[] dst = new short[src.length];
+        PcmConversions.floatToShort(src, 0, dst, 0, src.length);
+        assertArrayEquals(new short[]{0, 16384, -16384, 32767, -32768, 32767, -32768, 0, 1, -32767}, dst);
+    }
+
+    @Test
+    void shortToFloatRoundTrip() {
+        short[] src = new short[65536];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = (short) (i - 32768);
+        }
+        float[] floats = new float[src.length];
+        short[] dst = new short[src.length];
+        PcmConversions.shortToFloat(src, 0, floats, 0, src.length);
+        PcmConversions.floatToShort(floats, 0, dst, 0, floats.length);
+        assertArrayEquals(src, dst);
+    }
+
+    @Test
+    void downmixStereo() {
+        short[] shorts = {100, 200, -32768, -32768, 32767, 32767, -3, 0, 1, 2};
+        short[] mono = new short[4];
+        PcmConversions.downmixStereo(shorts, 2, mono, 0, 4);
+        assertArrayEquals(new short[]{-32768, 32767, -2, 1}, mono);
+
+        float[] floats = {0.5f, -0.5f, 1f, 0f};
+        float[] monoFloats = new float[2];
+        PcmConversions.downmixStereo(floats, 0, monoFloats, 0, 2);
+        assertArrayEquals(new float[]{0f, 0.5f}, monoFloats);
+    }
+
+    @Test
+    void kernelsMatchScalar() {
+        PcmConversions.Kernels kernels = PcmConversions.loadKernels();
+        PcmConversions.Kernels scalar = new PcmConversions.ScalarKernels();
+        Random random = new Random(7);
+        for (int length : new int[]{0, 1, 7, 8, 15, 16, 33, 100, 1001}) {
+            int offset = random.nextInt(5);
+            float[] floats = new float[2 * length + offset];
+            short[] shorts = new short[2 * length + offset];
+            for (int i = 0; i < floats.length; i++) {
+                floats[i] = (float) (random.nextGaussian() * 0.7);
+                shorts[i] = (short) random.nextInt();
+            }
+
+            short[] expectedShorts = new short[length];
+            short[] actualShorts = new short[length];
+            scalar.floatToShort(floats, offset, expectedShorts, 0, length);
+            kernels.floatToShort(floats, offset, actualShorts, 0, length);
+            assertArrayEquals(expectedShorts, actualShorts);
+
+            float[] expectedFloats = new float[length];
+            float[] actualFloats = new float[length];
+            scalar.shortToFloat(shorts, offset, expectedFloats, 0, length);
+            kernels.shortToFloat(shorts, offset, actualFloats, 0, length);
+            assertArrayEquals(expectedFloats, actualFloats);
+
+            scalar.downmixStereo(shorts, offset, expectedShorts, 0, length);
+            kernels.downmixStereo(shorts, offset, actualShorts, 0, length);
+            assertArrayEquals(expectedShorts, actualShorts);
+
+            scalar.downmixStereo(floats, offset, expectedFloats, 0, length);
+            kernels.downmixStereo(floats, offset, actualFloats, 0, length);
+            assertArrayEquals(expectedFloats, actualFloats);
+        }
+    }
+
+    @Test
+    void outOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> PcmConversions.floatToShort(new float[4], 1, new short[4], 0, 4));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> PcmConversions.downmixStereo(new short[7], 0, new short[4], 0, 4));
+    }
+}
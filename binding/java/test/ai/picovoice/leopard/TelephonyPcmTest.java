@@ -0,0 +1,93 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TelephonyPcmTest {
+
+    @Test
+    void decodeTables() {
+        assertEquals(0, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.MU_LAW, (byte) 0xFF));
+        assertEquals(-32124, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.MU_LAW, (byte) 0x00));
+        assertEquals(32124, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.MU_LAW, (byte) 0x80));
+        assertEquals(8, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.A_LAW, (byte) 0xD5));
+        assertEquals(-8, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.A_LAW, (byte) 0x55));
+        assertEquals(32256, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.A_LAW, (byte) 0xAA));
+        assertEquals(-32256, TelephonyPcm.decodeSample(TelephonyPcm.Encoding.A_LAW, (byte) 0x2A));
+    }
+
+    @Test
+    void chunkedConversionMatchesWhole() {
+        byte[] input = new byte[1000];
+        new Random(42).nextBytes(input);
+
+        TelephonyPcm whole = new TelephonyPcm(TelephonyPcm.Encoding.MU_LAW);
+        short[] expected = new short[2 * input.length + 2 * TelephonyPcm.FILTER_DELAY];
+        int length = whole.convert(input, 0, input.length, expected, 0);
+        length += whole.flush(expected, length);
+        assertEquals(expected.length, length);
+
+        TelephonyPcm chunked = new TelephonyPcm(TelephonyPcm.Encoding.MU_LAW);
+        short[] actual = new short[expected.length];
+        int offset = 0;
+        int o = 0;
+        for (int chunk : new int[]{1, 7, 160, 0, 333, 499}) {
+            o += chunked.convert(input, offset, chunk, actual, o);
+            offset += chunk;
+        }
+        o += chunked.flush(actual, o);
+        assertEquals(expected.length, o);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void upsamplesSine() {
+        // a 1kHz tone at 8kHz, encoded close to linear by mu-law at high amplitude
+        final int numSamples = 800;
+        byte[] input = new byte[numSamples];
+        short[] linear = new short[256];
+        for (int i = 0; i < 256; i++) {
+            linear[i] = TelephonyPcm.decodeSample(TelephonyPcm.Encoding.MU_LAW, (byte) i);
+        }
+        for (int i = 0; i < numSamples; i++) {
+            double target = 10000 * Math.sin(2 * Math.PI * 1000 * i / 8000.0);
+            int best = 0;
+            for (int j = 1; j < 256; j++) {
+                if (Math.abs(linear[j] - target) < Math.abs(linear[best] - target)) {
+                    best = j;
+                }
+            }
+            input[i] = (byte) best;
+        }
+
+        TelephonyPcm converter = new TelephonyPcm(TelephonyPcm.Encoding.MU_LAW);
+        short[] output = new short[2 * numSamples + 2 * TelephonyPcm.FILTER_DELAY];
+        int length = converter.convert(input, 0, numSamples, output, 0);
+        converter.flush(output, length);
+
+        // skip the filter delay and edges, then compare against the tone at 16kHz
+        double maxError = 0;
+        for (int i = 100; i < 2 * numSamples - 100; i++) {
+            double expected = 10000 * Math.sin(2 * Math.PI * 1000 * i / 16000.0);
+            maxError = Math.max(maxError, Math.abs(output[i + 2 * TelephonyPcm.FILTER_DELAY] - expected));
+        }
+        assertTrue(maxError < 600, "max error " + maxError);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TranscriptWritersTest {
+
+    private static LeopardTranscript createTranscript() {
+        return new LeopardTranscript(
+                "Hello \"world\". How are you today?",
+                new LeopardTranscript.Word[]{
+                        new LeopardTranscript.Word("Hello", 0.9f, 0.32f, 0.64f, 1),
+                        new LeopardTranscript.Word("\"world\".", 0.8f, 0.7f, 1.1f, 1),
+                        new LeopardTranscript.Word("How", 0.95f, 3661.5f, 3661.7f, 2),
+                        new LeopardTranscript.Word("are", 0.97f, 3661.8f, 3661.9f, 2),
+                        new LeopardTranscript.Word("you", 0.99f, 3662.0f, 3662.2f, 2),
+                        new LeopardTranscript.Word("today?", 0.91f, 3662.3f, 3662.8f, 2)
+                });
+    }
+
+    @Test
+    void json() throws Exception {
+        LeopardTranscript transcript = createTranscript();
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.json(sw).write(transcript);
+
+        JsonObject json = JsonParser.parseString(sw.toString()).getAsJsonObject();
+        assertEquals(transcript.getTranscriptString(), json.get("transcript").getAsString());
+        JsonArray words = json.getAsJsonArray("words");
+        assertEquals(transcript.getWordArray().length, words.size());
+        for (int i = 0; i < words.size(); i++) {
+            LeopardTranscript.Word word = transcript.getWordArray()[i];
+            JsonObject wordJson = words.get(i).getAsJsonObject();
+            assertEquals(word.getWord(), wordJson.get("word").getAsString());
+            assertEquals(word.getStartSec(), wordJson.get("start_sec").getAsFloat());
+            assertEquals(word.getEndSec(), wordJson.get("end_sec").getAsFloat());
+            assertEquals(word.getConfidence(), wordJson.get("confidence").getAsFloat());
+            assertEquals(word.getSpeakerTag(), wordJson.get("speaker_tag").getAsInt());
+        }
+    }
+
+    @Test
+    void jsonWritesNullForNonFiniteValues() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.json(sw).write(new LeopardTranscript(
+                "odd",
+                new LeopardTranscript.Word[]{
+                        new LeopardTranscript.Word("odd", Float.NaN, 1.5f, Float.POSITIVE_INFINITY, 0)
+                }));
+
+        assertEquals(
+                "{\"transcript\":\"odd\",\"words\":[{\"word\":\"odd\",\"start_sec\":1.5,\"end_sec\":null," +
+                        "\"confidence\":null,\"speaker_tag\":0}]}",
+                sw.toString());
+    }
+
+    @Test
+    void srt() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.srt(sw, 12, 1.0f).write(createTranscript());
+
+        assertEquals(
+                "1\n00:00:00,320 --> 00:00:00,640\nHello\n\n" +
+                        "2\n00:00:00,700 --> 00:00:01,100\n\"world\".\n\n" +
+                        "3\n01:01:01,500 --> 01:01:02,200\nHow are you\n\n" +
+                        "4\n01:01:02,300 --> 01:01:02,800\ntoday?\n\n",
+                sw.toString());
+    }
+
+    @Test
+    void vtt() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.vtt(sw).write(createTranscript());
+
+        assertEquals(
+                "WEBVTT\n\n" +
+                        "00:00:00.320 --> 00:00:01.100\n<v Speaker 1>Hello \"world\".\n\n" +
+                        "01:01:01.500 --> 01:01:02.800\n<v Speaker 2>How are you today?\n\n",
+                sw.toString());
+    }
+
+    @Test
+    void vttEscapesCueText() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.vtt(sw).write(new LeopardTranscript(
+                "R&D <b> -->",
+                new LeopardTranscript.Word[]{
+                        new LeopardTranscript.Word("R&D", 0.9f, 0.0f, 0.5f, 1),
+                        new LeopardTranscript.Word("<b>", 0.9f, 0.6f, 0.8f, 1),
+                        new LeopardTranscript.Word("-->", 0.9f, 0.9f, 1.0f, 1)
+                }));
+
+        assertEquals(
+                "WEBVTT\n\n" +
+                        "00:00:00.000 --> 00:00:01.000\n<v Speaker 1>R&amp;D &lt;b&gt; --&gt;\n\n",
+                sw.toString());
+    }
+
+    @Test
+    void timecodesPastNinetyNineHours() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.srt(sw).write(new LeopardTranscript(
+                "late",
+                new LeopardTranscript.Word[]{
+                        new LeopardTranscript.Word("late", 0.9f, 360125.5f, 360126.25f, -1)
+                }));
+
+        assertEquals("1\n100:02:05,500 --> 100:02:06,250\nlate\n\n", sw.toString());
+    }
+
+    @Test
+    void empty() throws Exception {
+        StringWriter sw = new StringWriter();
+        TranscriptWriters.srt(sw).write(new LeopardTranscript("", new LeopardTranscript.Word[0]));
+        assertEquals("", sw.toString());
+    }
+}
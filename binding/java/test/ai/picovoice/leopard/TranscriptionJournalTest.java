@@ -0,0 +1,209 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leopard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TranscriptionJournalTest {
+
+    private static TranscriptionJournal open(Path path) throws IOException {
+        return new TranscriptionJournal.Builder().setPath(path).build();
+    }
+
+    @Test
+    void resumesAfterReopen(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        try (TranscriptionJournal journal = open(path)) {
+            for (int i = 0; i < 10000; i++) {
+                journal.markCompleted("audio/" + i + ".wav", "transcripts/" + i + ".json");
+            }
+            journal.markCompleted("audio/7.wav", "transcripts/7-retry.json");
+            assertEquals(10000, journal.size());
+        }
+
+        try (TranscriptionJournal journal = open(path)) {
+            assertEquals(10000, journal.size());
+            assertTrue(journal.isCompleted("audio/9999.wav"));
+            assertEquals("transcripts/42.json", journal.getResult("audio/42.wav"));
+            assertEquals("transcripts/7-retry.json", journal.getResult("audio/7.wav"));
+            assertFalse(journal.isCompleted("audio/10000.wav"));
+            assertNull(journal.getResult("audio/ünicode.wav"));
+        }
+    }
+
+    @Test
+    void repairsTornTail(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        try (TranscriptionJournal journal = open(path)) {
+            journal.markCompleted("a.wav", "a.json");
+            journal.markCompleted("b.wav", "b.json");
+        }
+        long validLength = Files.size(path);
+
+        // a record whose payload was cut short by a crash
+        Files.write(path, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 0, 0}, StandardOpenOption.APPEND);
+        try (TranscriptionJournal journal = open(path)) {
+            assertEquals(validLength, Files.size(path));
+            assertEquals(2, journal.size());
+            journal.markCompleted("c.wav", "c.json");
+        }
+
+        // a synced record damaged on disk fails its checksum on lookup, so the input is transcribed again
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+        try (TranscriptionJournal journal = open(path)) {
+            assertTrue(journal.isCompleted("b.wav"));
+            assertFalse(journal.isCompleted("c.wav"));
+            assertEquals(2, journal.size());
+            journal.markCompleted("c.wav", "c-retry.json");
+            assertEquals("c-retry.json", journal.getResult("c.wav"));
+            assertEquals(3, journal.size());
+        }
+    }
+
+    @Test
+    void keepsRecordsAfterDamagedRecord(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        try (TranscriptionJournal journal = open(path)) {
+            for (int i = 0; i < 10; i++) {
+                journal.markCompleted(i + ".wav", i + ".json");
+            }
+        }
+        long length = Files.size(path);
+
+        // every record is 8 header bytes, a 4-byte input length, "N.wav" and "N.json"
+        final int recordLength = 8 + 4 + 5 + 6;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // a damaged payload in record 3 and a damaged length field in record 6
+            file.seek(8 + 3 * recordLength + 14);
+            file.write('x');
+            file.seek(8 + 6 * recordLength);
+            file.writeInt(5000);
+        }
+        Files.delete(Paths.get(path + ".idx"));
+
+        try (TranscriptionJournal journal = open(path)) {
+            assertEquals(length, Files.size(path));
+            assertEquals(2, journal.getNumDamagedRecords());
+            assertEquals(8, journal.size());
+            assertFalse(journal.isCompleted("3.wav"));
+            assertFalse(journal.isCompleted("6.wav"));
+            assertEquals("7.json", journal.getResult("7.wav"));
+            assertEquals("9.json", journal.getResult("9.wav"));
+            journal.markCompleted("3.wav", "3-retry.json");
+        }
+        try (TranscriptionJournal journal = open(path)) {
+            assertEquals(9, journal.size());
+            assertEquals("3-retry.json", journal.getResult("3.wav"));
+            assertEquals("9.json", journal.getResult("9.wav"));
+        }
+    }
+
+    @Test
+    void truncatesTornTailAtCheckpoint(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        try (TranscriptionJournal journal = open(path)) {
+            for (int i = 0; i < 10; i++) {
+                journal.markCompleted(i + ".wav", i + ".json");
+            }
+        }
+        long length = Files.size(path);
+
+        final int recordLength = 8 + 4 + 5 + 6;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // a damaged payload in record 5, which is covered by the index checkpoint
+            file.seek(8 + 5 * recordLength + 14);
+            file.write('x');
+        }
+        Files.write(path, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 0, 0}, StandardOpenOption.APPEND);
+
+        try (TranscriptionJournal journal = open(path)) {
+            assertEquals(length, Files.size(path));
+            // only the torn tail after the checkpoint was read, not the records before it
+            assertEquals(0, journal.getNumDamagedRecords());
+            assertEquals(10, journal.size());
+            assertFalse(journal.isCompleted("5.wav"));
+            assertEquals(9, journal.size());
+            assertEquals("9.json", journal.getResult("9.wav"));
+        }
+    }
+
+    @Test
+    void recoversFromCrash(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        Path crashed = dir.resolve("crashed.journal");
+        try (TranscriptionJournal journal = new TranscriptionJournal.Builder()
+                .setPath(path)
+                .setSyncBatchSize(100)
+                .build()) {
+            for (int i = 0; i < 250; i++) {
+                journal.markCompleted(i + ".wav", i + ".json");
+            }
+            // snapshot the files as a crashed process would leave them, with 50 records past the last sync
+            Files.copy(path, crashed, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(Paths.get(path + ".idx"), Paths.get(crashed + ".idx"), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (TranscriptionJournal journal = open(crashed)) {
+            assertEquals(250, journal.size());
+            assertEquals("249.json", journal.getResult("249.wav"));
+        }
+
+        // a lost index is rebuilt from the journal
+        Files.delete(Paths.get(crashed + ".idx"));
+        try (TranscriptionJournal journal = open(crashed)) {
+            assertEquals(250, journal.size());
+            assertEquals("0.json", journal.getResult("0.wav"));
+        }
+    }
+
+    @Test
+    void ignoresIndexOfOtherJournal(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("batch.journal");
+        try (TranscriptionJournal journal = open(path)) {
+            journal.markCompleted("a.wav", "a.json");
+        }
+        Path index = Paths.get(path + ".idx");
+        Path savedIndex = dir.resolve("saved.idx");
+        Files.copy(index, savedIndex);
+
+        Files.delete(path);
+        try (TranscriptionJournal journal = open(path)) {
+            journal.markCompleted("b.wav", "b.json");
+        }
+        Files.copy(savedIndex, index, StandardCopyOption.REPLACE_EXISTING);
+        try (TranscriptionJournal journal = open(path)) {
+            assertFalse(journal.isCompleted("a.wav"));
+            assertTrue(journal.isCompleted("b.wav"));
+            assertEquals(1, journal.size());
+        }
+    }
+}
@@ -12,6 +12,8 @@ limitations under the License.
 
 package ai.picovoice.reactnative.leopard;
 
+import android.util.Base64;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -21,24 +23,56 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ai.picovoice.leopard.Leopard;
 import ai.picovoice.leopard.LeopardException;
+import ai.picovoice.leopard.LeopardInvalidArgumentException;
 import ai.picovoice.leopard.LeopardInvalidStateException;
 import ai.picovoice.leopard.LeopardTranscript;
 
 public class LeopardModule extends ReactContextBaseJavaModule {
 
+    private static final int MAX_WORKER_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final long WORKER_KEEP_ALIVE_SEC = 30;
+
     private final ReactApplicationContext reactContext;
-    private final Map<String, Leopard> leopardPool = new HashMap<>();
+    private final ConcurrentHashMap<String, LeopardEntry> leopardPool = new ConcurrentHashMap<>();
+    private final AtomicLong nextHandle = new AtomicLong(1);
+    private final ThreadPoolExecutor executor;
+    private volatile boolean isInvalidated = false;
 
     public LeopardModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
 
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(
+                MAX_WORKER_THREADS,
+                MAX_WORKER_THREADS,
+                WORKER_KEEP_ALIVE_SEC,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "leopard-rn-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
         Leopard.setSdk("react-native");
     }
 
@@ -47,6 +81,16 @@ public class LeopardModule extends ReactContextBaseJavaModule {
         return "PvLeopard";
     }
 
+    @Override
+    public void invalidate() {
+        isInvalidated = true;
+        for (String handle : leopardPool.keySet()) {
+            delete(handle);
+        }
+        executor.shutdown();
+        super.invalidate();
+    }
+
     @ReactMethod
     public void getAvailableDevices(Promise promise) {
         try {
@@ -68,94 +112,158 @@ public class LeopardModule extends ReactContextBaseJavaModule {
             String device,
             boolean enableAutomaticPunctuation,
             boolean enableDiarization,
+            boolean enablePackedResults,
             Promise promise) {
-        try {
+        submit(executor, promise, () -> {
+            try {
+                Leopard leopard = new Leopard.Builder()
+                        .setAccessKey(accessKey)
+                        .setModelPath(modelPath.isEmpty() ? null : modelPath)
+                        .setDevice(device.isEmpty() ? null : device)
+                        .setEnableAutomaticPunctuation(enableAutomaticPunctuation)
+                        .setEnableDiarization(enableDiarization)
+                        .build(reactContext);
+                String handle = String.valueOf(nextHandle.getAndIncrement());
+                leopardPool.put(handle, new LeopardEntry(
+                        leopard,
+                        enablePackedResults,
+                        new SerialExecutor(executor)));
+                // invalidate() sets the flag before deleting the instances it finds, so an instance added after
+                // that pass is deleted here, and one it found is not deleted twice
+                if (isInvalidated) {
+                    if (leopardPool.remove(handle) != null) {
+                        leopard.delete();
+                    }
+                    rejectShuttingDown(promise);
+                    return;
+                }
 
-            Leopard leopard = new Leopard.Builder()
-                    .setAccessKey(accessKey)
-                    .setModelPath(modelPath.isEmpty() ? null : modelPath)
-                    .setDevice(device.isEmpty() ? null : device)
-                    .setEnableAutomaticPunctuation(enableAutomaticPunctuation)
-                    .setEnableDiarization(enableDiarization)
-                    .build(reactContext);
-            leopardPool.put(String.valueOf(System.identityHashCode(leopard)), leopard);
-
-            WritableMap paramMap = Arguments.createMap();
-            paramMap.putString("handle", String.valueOf(System.identityHashCode(leopard)));
-            paramMap.putInt("sampleRate", leopard.getSampleRate());
-            paramMap.putString("version", leopard.getVersion());
-            promise.resolve(paramMap);
-        } catch (LeopardException e) {
-            promise.reject(e.getClass().getSimpleName(), e.getMessage());
-        }
+                WritableMap paramMap = Arguments.createMap();
+                paramMap.putString("handle", handle);
+                paramMap.putInt("sampleRate", leopard.getSampleRate());
+                paramMap.putString("version", leopard.getVersion());
+                promise.resolve(paramMap);
+            } catch (LeopardException e) {
+                promise.reject(e.getClass().getSimpleName(), e.getMessage());
+            }
+        });
     }
 
     @ReactMethod
     public void delete(String handle) {
-        if (leopardPool.containsKey(handle)) {
-            Leopard leopard = leopardPool.get(handle);
-            if (leopard != null) {
-                leopard.delete();
-            }
-            leopardPool.remove(handle);
+        LeopardEntry entry = leopardPool.remove(handle);
+        if (entry != null) {
+            // queued behind the calls already submitted for this handle, so none of them sees a deleted instance;
+            // if the module shuts down first, the instance is deleted when the queue is rejected
+            entry.queue.execute(entry.leopard::delete, entry.leopard::delete);
         }
     }
 
     @ReactMethod
     public void process(String handle, ReadableArray pcmArray, Promise promise) {
 
-        if (!leopardPool.containsKey(handle)) {
+        LeopardEntry entry = leopardPool.get(handle);
+        if (entry == null) {
             promise.reject(LeopardInvalidStateException.class.getSimpleName(),
                     "Invalid Leopard handle provided to native module.");
             return;
         }
 
-        ArrayList<Object> pcmArrayList = pcmArray.toArrayList();
-        short[] buffer = new short[pcmArray.size()];
-        for (int i = 0; i < pcmArray.size(); i++) {
-            buffer[i] = ((Number) pcmArrayList.get(i)).shortValue();
-        }
+        submit(entry.queue, promise, () -> {
+            short[] buffer = new short[pcmArray.size()];
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = (short) pcmArray.getInt(i);
+            }
+
+            try {
+                LeopardTranscript result = entry.leopard.process(buffer);
+                promise.resolve(entry.toWritableMap(result));
+            } catch (LeopardException e) {
+                promise.reject(e.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
 
-        Leopard leopard = leopardPool.get(handle);
-        if (leopard == null) {
+    @ReactMethod
+    public void processBase64(String handle, String pcmBase64, Promise promise) {
+
+        LeopardEntry entry = leopardPool.get(handle);
+        if (entry == null) {
             promise.reject(LeopardInvalidStateException.class.getSimpleName(),
-                    "Instance of Leopard no longer exists.");
+                    "Invalid Leopard handle provided to native module.");
             return;
         }
 
-        try {
-            LeopardTranscript result = leopard.process(buffer);
-            promise.resolve(leopardTranscriptToWriteableMap(result));
-        } catch (LeopardException e) {
-            promise.reject(e.getClass().getSimpleName(), e.getMessage());
-        }
+        submit(entry.queue, promise, () -> {
+            final short[] buffer;
+            try {
+                buffer = decodePcm(pcmBase64);
+            } catch (IllegalArgumentException e) {
+                promise.reject(LeopardInvalidArgumentException.class.getSimpleName(), e.getMessage());
+                return;
+            }
+
+            try {
+                LeopardTranscript result = entry.leopard.process(buffer);
+                promise.resolve(entry.toWritableMap(result));
+            } catch (LeopardException e) {
+                promise.reject(e.getClass().getSimpleName(), e.getMessage());
+            }
+        });
     }
 
     @ReactMethod
     public void processFile(String handle, String audioPath, Promise promise) {
 
-        if (!leopardPool.containsKey(handle)) {
+        LeopardEntry entry = leopardPool.get(handle);
+        if (entry == null) {
             promise.reject(LeopardInvalidStateException.class.getSimpleName(),
                     "Invalid Leopard handle provided to native module.");
             return;
         }
 
-        Leopard leopard = leopardPool.get(handle);
-        if (leopard == null) {
-            promise.reject(LeopardInvalidStateException.class.getSimpleName(),
-                    "Instance of Leopard no longer exists.");
-            return;
-        }
+        submit(entry.queue, promise, () -> {
+            try {
+                LeopardTranscript result = entry.leopard.processFile(audioPath);
+                promise.resolve(entry.toWritableMap(result));
+            } catch (LeopardException e) {
+                promise.reject(e.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
 
+    private static void submit(Executor queue, Promise promise, Runnable task) {
         try {
-            LeopardTranscript result = leopard.processFile(audioPath);
-            promise.resolve(leopardTranscriptToWriteableMap(result));
-        } catch (LeopardException e) {
-            promise.reject(e.getClass().getSimpleName(), e.getMessage());
+            queue.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectShuttingDown(promise);
+        }
+    }
+
+    private static void submit(SerialExecutor queue, Promise promise, Runnable task) {
+        queue.execute(task, () -> rejectShuttingDown(promise));
+    }
+
+    private static void rejectShuttingDown(Promise promise) {
+        promise.reject(LeopardInvalidStateException.class.getSimpleName(),
+                "Leopard native module is shutting down.");
+    }
+
+    private static short[] decodePcm(String pcmBase64) {
+        if (pcmBase64 == null) {
+            throw new IllegalArgumentException("Base64 PCM provided to native module is null.");
+        }
+        byte[] bytes = Base64.decode(pcmBase64, Base64.DEFAULT);
+        if (bytes.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "Base64 PCM provided to native module is not a whole number of 16-bit samples.");
         }
+        short[] buffer = new short[bytes.length / 2];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(buffer);
+        return buffer;
     }
 
-    private WritableMap leopardTranscriptToWriteableMap(LeopardTranscript result) {
+    private static WritableMap leopardTranscriptToWriteableMap(LeopardTranscript result) {
         WritableMap resultMap = Arguments.createMap();
         resultMap.putString("transcript", result.getTranscriptString());
 
@@ -173,4 +281,116 @@ public class LeopardModule extends ReactContextBaseJavaModule {
 
         return resultMap;
     }
+
+    /**
+     * Converts a transcript into a fixed number of flat arrays instead of one map per word. The words are
+     * joined into a single string, and word `i` spans `[wordOffsets[i], wordOffsets[i + 1])` of it.
+     */
+    private static WritableMap leopardTranscriptToPackedWritableMap(LeopardTranscript result) {
+        StringBuilder wordString = new StringBuilder();
+        WritableArray wordOffsets = Arguments.createArray();
+        WritableArray startSec = Arguments.createArray();
+        WritableArray endSec = Arguments.createArray();
+        WritableArray confidence = Arguments.createArray();
+        WritableArray speakerTag = Arguments.createArray();
+        wordOffsets.pushInt(0);
+        for (LeopardTranscript.Word word : result.getWordArray()) {
+            wordString.append(word.getWord());
+            wordOffsets.pushInt(wordString.length());
+            startSec.pushDouble(word.getStartSec());
+            endSec.pushDouble(word.getEndSec());
+            confidence.pushDouble(word.getConfidence());
+            speakerTag.pushInt(word.getSpeakerTag());
+        }
+
+        WritableMap resultMap = Arguments.createMap();
+        resultMap.putString("transcript", result.getTranscriptString());
+        resultMap.putString("wordString", wordString.toString());
+        resultMap.putArray("wordOffsets", wordOffsets);
+        resultMap.putArray("startSec", startSec);
+        resultMap.putArray("endSec", endSec);
+        resultMap.putArray("confidence", confidence);
+        resultMap.putArray("speakerTag", speakerTag);
+        return resultMap;
+    }
+
+    private static class LeopardEntry {
+        private final Leopard leopard;
+        private final boolean packedResults;
+        private final SerialExecutor queue;
+
+        LeopardEntry(Leopard leopard, boolean packedResults, SerialExecutor queue) {
+            this.leopard = leopard;
+            this.packedResults = packedResults;
+            this.queue = queue;
+        }
+
+        WritableMap toWritableMap(LeopardTranscript result) {
+            return packedResults ?
+                    leopardTranscriptToPackedWritableMap(result) :
+                    leopardTranscriptToWriteableMap(result);
+        }
+    }
+
+    /**
+     * Runs the tasks of one Leopard instance in submission order on the shared worker pool, so calls on
+     * different instances run in parallel while calls on the same instance never overlap.
+     */
+    private static class SerialExecutor {
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final Executor executor;
+        private Task active;
+
+        SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Queues `task`. If the worker pool shuts down before it runs, `onRejected` runs instead, so that its
+         * promise is still settled.
+         */
+        synchronized void execute(Runnable task, Runnable onRejected) {
+            tasks.addLast(new Task(task, onRejected));
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.pollFirst();
+            if (active == null) {
+                return;
+            }
+            final Task task = active;
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the module was invalidated while tasks were queued behind a running call
+                final List<Task> rejected = new ArrayList<>(tasks.size() + 1);
+                rejected.add(task);
+                rejected.addAll(tasks);
+                tasks.clear();
+                active = null;
+                for (Task rejectedTask : rejected) {
+                    rejectedTask.onRejected.run();
+                }
+            }
+        }
+
+        private static class Task {
+            private final Runnable run;
+            private final Runnable onRejected;
+
+            Task(Runnable run, Runnable onRejected) {
+                this.run = run;
+                this.onRejected = onRejected;
+            }
+        }
+    }
 }
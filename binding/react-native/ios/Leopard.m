@@ -21,6 +21,7 @@ RCT_EXTERN_METHOD(create: (NSString *)accessKey
                   device: (NSString *)device
                   enableAutomaticPunctuation: (BOOL)enableAutomaticPunctuation
                   enableDiarization: (BOOL)enableDiarization
+                  enablePackedResults: (BOOL)enablePackedResults
                   resolver: (RCTPromiseResolveBlock)resolve
                   rejecter: (RCTPromiseRejectBlock)reject)
 
@@ -31,6 +32,11 @@ RCT_EXTERN_METHOD(process: (NSString *)handle
                   resolver: (RCTPromiseResolveBlock)resolve
                   rejecter: (RCTPromiseRejectBlock)reject)
 
+RCT_EXTERN_METHOD(processBase64: (NSString *)handle
+                  pcmBase64: (NSString *)pcmBase64
+                  resolver: (RCTPromiseResolveBlock)resolve
+                  rejecter: (RCTPromiseRejectBlock)reject)
+
 RCT_EXTERN_METHOD(processFile: (NSString *)handle
                   audioPath: (NSString *)audioPath
                   resolver: (RCTPromiseResolveBlock)resolve
@@ -14,6 +14,7 @@ import Leopard
 @objc(PvLeopard)
 class PvLeopard: NSObject {
     private var leopardPool: [String: Leopard] = [:]
+    private var packedResultHandles: Set<String> = []
 
     override init() {
         super.init()
@@ -37,13 +38,14 @@ class PvLeopard: NSObject {
         }
     }
 
-    @objc(create:modelPath:device:enableAutomaticPunctuation:enableDiarization:resolver:rejecter:)
+    @objc(create:modelPath:device:enableAutomaticPunctuation:enableDiarization:enablePackedResults:resolver:rejecter:)
     func create(
             accessKey: String,
             modelPath: String,
             device: String,
             enableAutomaticPunctuation: Bool,
             enableDiarization: Bool,
+            enablePackedResults: Bool,
             resolver resolve: RCTPromiseResolveBlock,
             rejecter reject: RCTPromiseRejectBlock) {
 
@@ -58,6 +60,9 @@ class PvLeopard: NSObject {
 
             let handle: String = String(describing: leopard)
             leopardPool[handle] = leopard
+            if enablePackedResults {
+                packedResultHandles.insert(handle)
+            }
 
             var param: [String: Any] = [:]
             param["handle"] = handle
@@ -76,6 +81,7 @@ class PvLeopard: NSObject {
 
     @objc(delete:)
     func delete(handle: String) {
+        packedResultHandles.remove(handle)
         if let leopard = leopardPool.removeValue(forKey: handle) {
             leopard.delete()
         }
@@ -90,7 +96,7 @@ class PvLeopard: NSObject {
         do {
             if let leopard = leopardPool[handle] {
                 let result = try leopard.process(pcm)
-                let resultMap = leopardTranscriptToDictionary(result: result)
+                let resultMap = leopardTranscriptToResult(handle: handle, result: result)
                 resolve(resultMap)
             } else {
                 let (code, message) = errorToCodeAndMessage(
@@ -106,6 +112,44 @@ class PvLeopard: NSObject {
         }
     }
 
+    @objc(processBase64:pcmBase64:resolver:rejecter:)
+    func processBase64(
+            handle: String,
+            pcmBase64: String,
+            resolver resolve: RCTPromiseResolveBlock,
+            rejecter reject: RCTPromiseRejectBlock) {
+        do {
+            guard let leopard = leopardPool[handle] else {
+                let (code, message) = errorToCodeAndMessage(
+                        LeopardRuntimeError("Invalid handle provided to Leopard 'process'"))
+                reject(code, message, nil)
+                return
+            }
+            guard let data = Data(base64Encoded: pcmBase64), data.count % 2 == 0 else {
+                let (code, message) = errorToCodeAndMessage(
+                        LeopardInvalidArgumentError("Invalid base64 PCM provided to Leopard 'process'"))
+                reject(code, message, nil)
+                return
+            }
+
+            var pcm = [Int16](repeating: 0, count: data.count / 2)
+            _ = pcm.withUnsafeMutableBytes { data.copyBytes(to: $0) }
+            for i in 0..<pcm.count {
+                pcm[i] = Int16(littleEndian: pcm[i])
+            }
+
+            let result = try leopard.process(pcm)
+            let resultMap = leopardTranscriptToResult(handle: handle, result: result)
+            resolve(resultMap)
+        } catch let error as LeopardError {
+            let (code, message) = errorToCodeAndMessage(error)
+            reject(code, message, nil)
+        } catch {
+            let (code, message) = errorToCodeAndMessage(LeopardError(error.localizedDescription))
+            reject(code, message, nil)
+        }
+    }
+
     @objc(processFile:audioPath:resolver:rejecter:)
     func processFile(
             handle: String,
@@ -115,7 +159,7 @@ class PvLeopard: NSObject {
         do {
             if let leopard = leopardPool[handle] {
                 let result = try leopard.processFile(audioPath)
-                let resultMap = leopardTranscriptToDictionary(result: result)
+                let resultMap = leopardTranscriptToResult(handle: handle, result: result)
                 resolve(resultMap)
             } else {
                 let (code, message) = errorToCodeAndMessage(
@@ -135,6 +179,38 @@ class PvLeopard: NSObject {
         return (error.name.replacingOccurrences(of: "Error", with: "Exception"), error.localizedDescription)
     }
 
+    private func leopardTranscriptToResult(
+            handle: String,
+            result: (transcript: String, words: [LeopardWord])) -> [String: Any] {
+        if packedResultHandles.contains(handle) {
+            return leopardTranscriptToPackedDictionary(result: result)
+        }
+        return leopardTranscriptToDictionary(result: result)
+    }
+
+    private func leopardTranscriptToPackedDictionary(
+            result: (transcript: String, words: [LeopardWord])) -> [String: Any] {
+        var wordString = ""
+        var wordOffsets: [Int] = [0]
+        var utf16Length = 0
+        wordOffsets.reserveCapacity(result.words.count + 1)
+        for wordMeta in result.words {
+            wordString += wordMeta.word
+            utf16Length += wordMeta.word.utf16.count
+            wordOffsets.append(utf16Length)
+        }
+
+        var resultMap: [String: Any] = [:]
+        resultMap["transcript"] = result.transcript
+        resultMap["wordString"] = wordString
+        resultMap["wordOffsets"] = wordOffsets
+        resultMap["startSec"] = result.words.map { $0.startSec }
+        resultMap["endSec"] = result.words.map { $0.endSec }
+        resultMap["confidence"] = result.words.map { $0.confidence }
+        resultMap["speakerTag"] = result.words.map { $0.speakerTag }
+        return resultMap
+    }
+
     private func leopardTranscriptToDictionary(result: (transcript: String, words: [LeopardWord])) -> [String: Any] {
         var resultMap: [String: Any] = [:]
         resultMap["transcript"] = result.transcript
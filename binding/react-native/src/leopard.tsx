@@ -11,7 +11,11 @@
 
 import { NativeModules } from 'react-native';
 import * as LeopardErrors from './leopard_errors';
-import type { LeopardTranscript, LeopardOptions } from './leopard_types';
+import type {
+  LeopardTranscript,
+  LeopardOptions,
+  LeopardWord,
+} from './leopard_types';
 
 const RCTLeopard = NativeModules.PvLeopard;
 
@@ -20,6 +24,78 @@ type NativeError = {
   message: string;
 };
 
+type PackedTranscript = {
+  transcript: string;
+  wordString: string;
+  wordOffsets: number[];
+  startSec: number[];
+  endSec: number[];
+  confidence: number[];
+  speakerTag: number[];
+};
+
+/**
+ * Expands the packed result format, where word `i` spans `[wordOffsets[i], wordOffsets[i + 1])` of `wordString`.
+ */
+function toLeopardTranscript(
+  result: LeopardTranscript | PackedTranscript
+): LeopardTranscript {
+  if (!('wordOffsets' in result)) {
+    return result;
+  }
+  const words: LeopardWord[] = [];
+  for (let i = 0; i < result.startSec.length; i++) {
+    words.push({
+      word: result.wordString.substring(
+        result.wordOffsets[i],
+        result.wordOffsets[i + 1]
+      ),
+      startSec: result.startSec[i],
+      endSec: result.endSec[i],
+      confidence: result.confidence[i],
+      speakerTag: result.speakerTag[i],
+    });
+  }
+  return { transcript: result.transcript, words };
+}
+
+const BASE64_ALPHABET =
+  'ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/';
+
+/**
+ * Encodes the bytes of 16-bit PCM as base64, so the bridge carries a single string instead of one boxed number
+ * per sample. Typed arrays use the platform byte order, which is little-endian on all supported devices.
+ */
+function pcmToBase64(pcm: Int16Array): string {
+  const bytes = new Uint8Array(pcm.buffer, pcm.byteOffset, pcm.byteLength);
+  const chunks: string[] = [];
+  const chunkLength = 3 * 4096;
+  for (let start = 0; start < bytes.length; start += chunkLength) {
+    const end = Math.min(start + chunkLength, bytes.length);
+    let chunk = '';
+    let i = start;
+    for (; i + 2 < end; i += 3) {
+      const n = (bytes[i] << 16) | (bytes[i + 1] << 8) | bytes[i + 2];
+      chunk +=
+        BASE64_ALPHABET[(n >> 18) & 63] +
+        BASE64_ALPHABET[(n >> 12) & 63] +
+        BASE64_ALPHABET[(n >> 6) & 63] +
+        BASE64_ALPHABET[n & 63];
+    }
+    if (i < end) {
+      const hasSecond = i + 1 < end;
+      const n = (bytes[i] << 16) | (hasSecond ? bytes[i + 1] << 8 : 0);
+      chunk +=
+        BASE64_ALPHABET[(n >> 18) & 63] +
+        BASE64_ALPHABET[(n >> 12) & 63] +
+        (hasSecond ? BASE64_ALPHABET[(n >> 6) & 63] : '=') +
+        '=';
+    }
+    chunks.push(chunk);
+  }
+  return chunks.join('');
+}
+
 class Leopard {
   private readonly _handle: string;
   private readonly _sampleRate: number;
@@ -58,6 +134,8 @@ class Leopard {
    * @param options.enableAutomaticPunctuation Set to `true` to enable automatic punctuation insertion.
    * @param options.enableDiarization Set to `true` to enable speaker diarization, which allows Leopard to differentiate speakers
    * as part of the transcription process. Word metadata will include a `speakerTag` to identify unique speakers.
+   * @param options.enablePackedResults Set to `true` to receive word metadata from the native module as flat arrays,
+   * which is much cheaper for long transcripts.
    * @returns An instance of the engine.
    */
   public static async create(
@@ -66,15 +144,19 @@ class Leopard {
     device: string = '',
     options: LeopardOptions = {}
   ) {
-    const { enableAutomaticPunctuation = false, enableDiarization = false } =
-      options;
+    const {
+      enableAutomaticPunctuation = false,
+      enableDiarization = false,
+      enablePackedResults = false,
+    } = options;
     try {
       let { handle, sampleRate, version } = await RCTLeopard.create(
         accessKey,
         modelPath,
         device,
         enableAutomaticPunctuation,
-        enableDiarization
+        enableDiarization,
+        enablePackedResults
       );
       return new Leopard(handle, sampleRate, version);
     } catch (err) {
@@ -97,16 +179,28 @@ class Leopard {
    * Process a frame of audio with the speech-to-text engine.
    * @param frame An array of 16-bit pcm samples. The audio needs to have a sample rate equal to `.sampleRate` and be 16-bit
    *    linearly-encoded. This function operates on single-channel audio. If you wish to process data in a different
-   *    sample rate or format consider using `.processFile`.
+   *    sample rate or format consider using `.processFile`. Passing an `Int16Array` is much faster for long audio, since
+   *    the samples cross the bridge as a single binary payload instead of one number per sample.
    * @returns {Promise<LeopardTranscript>} LeopardTranscript object which contains the transcription results of the engine.
    */
-  async process(frame: number[]): Promise<LeopardTranscript> {
-    if (frame === undefined) {
+  async process(frame: number[] | Int16Array): Promise<LeopardTranscript> {
+    if (frame === undefined || frame === null) {
       throw new LeopardErrors.LeopardInvalidArgumentError(
         'Frame array provided to process() is undefined or null'
       );
     }
 
+    if (frame instanceof Int16Array) {
+      try {
+        return toLeopardTranscript(
+          await RCTLeopard.processBase64(this._handle, pcmToBase64(frame))
+        );
+      } catch (err) {
+        const nativeError = err as NativeError;
+        throw Leopard.codeToError(nativeError.code, nativeError.message);
+      }
+    }
+
     // sample the first frame to check for non-integer values
     if (!Number.isInteger(frame[0])) {
       throw new LeopardErrors.LeopardInvalidArgumentError(
@@ -115,7 +209,9 @@ class Leopard {
     }
 
     try {
-      return await RCTLeopard.process(this._handle, frame);
+      return toLeopardTranscript(
+        await RCTLeopard.process(this._handle, frame)
+      );
     } catch (err) {
       const nativeError = err as NativeError;
       throw Leopard.codeToError(nativeError.code, nativeError.message);
@@ -136,7 +232,9 @@ class Leopard {
     }
 
     try {
-      return await RCTLeopard.processFile(this._handle, audioPath);
+      return toLeopardTranscript(
+        await RCTLeopard.processFile(this._handle, audioPath)
+      );
     } catch (err) {
       const nativeError = err as NativeError;
       throw Leopard.codeToError(nativeError.code, nativeError.message);
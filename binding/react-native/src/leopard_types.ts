@@ -32,4 +32,10 @@ export type LeopardOptions = {
   enableAutomaticPunctuation?: boolean;
   /** Set to `true` to enable speaker diarization. */
   enableDiarization?: boolean;
+  /**
+   * Set to `true` to have the native module return word metadata as a few flat arrays instead of one object per
+   * word. This makes transcripts with many words much cheaper to pass across the bridge. The returned
+   * `LeopardTranscript` is the same either way.
+   */
+  enablePackedResults?: boolean;
 };
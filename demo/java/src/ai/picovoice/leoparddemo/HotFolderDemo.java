@@ -0,0 +1,570 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leoparddemo;
+
+import ai.picovoice.leopard.Leopard;
+import ai.picovoice.leopard.LeopardException;
+import ai.picovoice.leopard.LeopardTranscript;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HotFolderDemo {
+
+    private static final String DEFAULT_EXTENSIONS = "3gp,flac,m4a,mp3,mp4,ogg,opus,vorbis,wav,webm";
+
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+    private final Path processedDirectory;
+    private final Path failedDirectory;
+    private final Set<String> extensions;
+    private final long settleNs;
+    private final boolean verbose;
+
+    private final BlockingQueue<Leopard> idleEngines;
+    private final ExecutorService workers;
+    private final WatchService watchService;
+
+    // files seen in the input directory that have not been dispatched, keyed by path
+    private final Map<Path, PendingFile> pending = new HashMap<>();
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong numCompleted = new AtomicLong(0);
+    private final AtomicLong numFailed = new AtomicLong(0);
+    private final AtomicLong totalProcessNs = new AtomicLong(0);
+    private final AtomicLong totalOverheadNs = new AtomicLong(0);
+
+    private HotFolderDemo(
+            List<Leopard> engines,
+            Path inputDirectory,
+            Path outputDirectory,
+            Path processedDirectory,
+            Path failedDirectory,
+            Set<String> extensions,
+            long settleMs,
+            boolean verbose) throws IOException {
+        this.idleEngines = new ArrayBlockingQueue<>(engines.size(), true, engines);
+        this.workers = Executors.newFixedThreadPool(engines.size());
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = outputDirectory;
+        this.processedDirectory = processedDirectory;
+        this.failedDirectory = failedDirectory;
+        this.extensions = extensions;
+        this.settleNs = TimeUnit.MILLISECONDS.toNanos(settleMs);
+        this.verbose = verbose;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        inputDirectory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    public static void runDemo(
+            String accessKey,
+            String modelPath,
+            String device,
+            String libraryPath,
+            boolean enableAutomaticPunctuation,
+            boolean enableDiarization,
+            int numInstances,
+            Path inputDirectory,
+            Path outputDirectory,
+            Path processedDirectory,
+            Path failedDirectory,
+            Set<String> extensions,
+            long settleMs,
+            boolean verbose) {
+        List<Leopard> engines = new ArrayList<>(numInstances);
+        CountDownLatch stopped = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < numInstances; i++) {
+                engines.add(new Leopard.Builder()
+                        .setAccessKey(accessKey)
+                        .setLibraryPath(libraryPath)
+                        .setModelPath(modelPath)
+                        .setDevice(device)
+                        .setEnableAutomaticPunctuation(enableAutomaticPunctuation)
+                        .setEnableDiarization(enableDiarization)
+                        .build());
+            }
+            Files.createDirectories(outputDirectory);
+            Files.createDirectories(processedDirectory);
+            Files.createDirectories(failedDirectory);
+
+            HotFolderDemo demo = new HotFolderDemo(
+                    engines,
+                    inputDirectory,
+                    outputDirectory,
+                    processedDirectory,
+                    failedDirectory,
+                    extensions,
+                    settleMs,
+                    verbose);
+
+            // stop on SIGINT/SIGTERM, finishing the files being transcribed
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                demo.stop();
+                try {
+                    stopped.await(5, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+
+            System.out.format(
+                    "Watching `%s` with %d Leopard instance(s) on `%s`. Press Ctrl+C to stop.\n",
+                    inputDirectory,
+                    numInstances,
+                    device);
+            demo.run();
+            demo.printSummary();
+        } catch (Exception e) {
+            System.out.println(e.toString());
+        } finally {
+            for (Leopard leopard : engines) {
+                leopard.delete();
+            }
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Watches the input directory until {@link #stop()} is called, dispatching each file once its size and
+     * modification time have not changed for the settle time.
+     */
+    private void run() throws IOException, InterruptedException {
+        // pick up files that arrived while the worker was not running
+        scan();
+
+        final long pollMs = Math.max(50, TimeUnit.NANOSECONDS.toMillis(settleNs) / 4);
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(pollMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            scan();
+                        } else {
+                            track(inputDirectory.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        throw new IOException(String.format("`%s` is no longer accessible.", inputDirectory));
+                    }
+                }
+                dispatchSettled();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stopped
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void stop() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.out.println(e.toString());
+        }
+    }
+
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory)) {
+            for (Path path : files) {
+                track(path);
+            }
+        }
+    }
+
+    private void track(Path path) {
+        if (pending.containsKey(path) || inFlight.contains(path) || !isAudioFile(path)) {
+            return;
+        }
+        pending.put(path, new PendingFile());
+    }
+
+    private boolean isAudioFile(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        // hidden files are commonly used by uploaders for partial transfers
+        return !name.startsWith(".") &&
+                dot > 0 &&
+                extensions.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH)) &&
+                Files.isRegularFile(path);
+    }
+
+    private void dispatchSettled() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, PendingFile>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, PendingFile> entry = iterator.next();
+            Path path = entry.getKey();
+            PendingFile file = entry.getValue();
+
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                iterator.remove();
+                continue;
+            } catch (IOException e) {
+                continue;
+            }
+
+            long modifiedMs = attributes.lastModifiedTime().toMillis();
+            if (attributes.size() != file.size || modifiedMs != file.modifiedMs) {
+                file.size = attributes.size();
+                file.modifiedMs = modifiedMs;
+                file.stableSinceNs = now;
+                continue;
+            }
+            if (now - file.stableSinceNs < settleNs || attributes.size() == 0 || isLocked(path)) {
+                continue;
+            }
+
+            iterator.remove();
+            inFlight.add(path);
+            final long settledAt = now;
+            workers.execute(() -> transcribe(path, settledAt));
+        }
+    }
+
+    /**
+     * Checks whether another process holds a lock on the file, which writers on Windows do while writing.
+     */
+    private static boolean isLocked(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            FileLock lock = channel.tryLock(0, Long.MAX_VALUE, true);
+            if (lock == null) {
+                return true;
+            }
+            lock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private void transcribe(Path path, long settledAt) {
+        String name = path.getFileName().toString();
+        String baseName = name.substring(0, name.lastIndexOf('.'));
+        try {
+            Leopard leopard = idleEngines.take();
+            long startedAt = System.nanoTime();
+            LeopardTranscript transcript;
+            try {
+                transcript = leopard.processFile(path.toString());
+            } finally {
+                idleEngines.add(leopard);
+            }
+            long finishedAt = System.nanoTime();
+
+            writeAtomically(outputDirectory.resolve(baseName + ".txt"), transcript.getTranscriptString() + "\n");
+            writeAtomically(outputDirectory.resolve(baseName + ".json"), transcriptJson(transcript));
+            Files.move(path, processedDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            long doneAt = System.nanoTime();
+
+            numCompleted.incrementAndGet();
+            totalProcessNs.addAndGet(finishedAt - startedAt);
+            totalOverheadNs.addAndGet(doneAt - finishedAt);
+            if (verbose) {
+                System.out.format(
+                        "%s: transcribed in %.2fs (waited %.2fs for an instance, wrote results in %.1fms)\n",
+                        name,
+                        (finishedAt - startedAt) * 1e-9,
+                        (startedAt - settledAt) * 1e-9,
+                        (doneAt - finishedAt) * 1e-6);
+            }
+        } catch (LeopardException | IOException e) {
+            numFailed.incrementAndGet();
+            System.out.format("%s: failed: %s\n", name, e.getMessage());
+            try {
+                Files.move(path, failedDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                System.out.format("%s: could not move to `%s`: %s\n", name, failedDirectory, moveError);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.remove(path);
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file in the same directory, so readers never see a partial file.
+     */
+    private static void writeAtomically(Path path, String content) throws IOException {
+        Path temporary = Files.createTempFile(path.getParent(), "." + path.getFileName(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(content);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void printSummary() {
+        long completed = numCompleted.get();
+        System.out.format("Transcribed %d file(s), %d failed.\n", completed, numFailed.get());
+        if (completed > 0) {
+            System.out.format(
+                    "Mean processing time %.2fs, mean per-file overhead %.1fms.\n",
+                    totalProcessNs.get() * 1e-9 / completed,
+                    totalOverheadNs.get() * 1e-6 / completed);
+        }
+    }
+
+    private static String transcriptJson(LeopardTranscript transcript) {
+        return TranscriptJson.appendFields(new StringBuilder("{"), transcript).append("}\n").toString();
+    }
+
+    private static final class PendingFile {
+        private long size = -1;
+        private long modifiedMs = -1;
+        private long stableSinceNs = System.nanoTime();
+    }
+
+    public static void main(String[] args) {
+        Options options = buildCommandLineOptions();
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter formatter = new HelpFormatter();
+
+        CommandLine cmd;
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            formatter.printHelp("leopardhotfolderdemo", options);
+            System.exit(1);
+            return;
+        }
+
+        if (cmd.hasOption("help")) {
+            formatter.printHelp("leopardhotfolderdemo", options);
+            return;
+        }
+
+        String accessKey = cmd.getOptionValue("access_key");
+        String modelPath = cmd.getOptionValue("model_path");
+        String device = cmd.getOptionValue("device");
+        String libraryPath = cmd.getOptionValue("library_path");
+        String inputDirectoryPath = cmd.getOptionValue("input_dir");
+        String outputDirectoryPath = cmd.getOptionValue("output_dir");
+        String processedDirectoryPath = cmd.getOptionValue("processed_dir");
+        String failedDirectoryPath = cmd.getOptionValue("failed_dir");
+        boolean enableAutomaticPunctuation = !cmd.hasOption("disable_automatic_punctuation");
+        boolean enableDiarization = !cmd.hasOption("disable_speaker_diarization");
+        boolean verbose = cmd.hasOption("verbose");
+
+        if (accessKey == null || accessKey.length() == 0) {
+            throw new IllegalArgumentException("AccessKey is required for Leopard.");
+        }
+
+        if (inputDirectoryPath == null) {
+            throw new IllegalArgumentException("Input directory is required.");
+        }
+        Path inputDirectory = Paths.get(inputDirectoryPath).toAbsolutePath();
+        if (!Files.isDirectory(inputDirectory)) {
+            throw new IllegalArgumentException(String.format("`%s` is not a directory.", inputDirectory));
+        }
+
+        int numInstances;
+        long settleMs;
+        try {
+            numInstances = Integer.parseInt(cmd.getOptionValue("num_instances", "1"));
+            settleMs = Long.parseLong(cmd.getOptionValue("settle_ms", "2000"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Number of instances and settle time must be integers.");
+        }
+        if (numInstances < 1) {
+            throw new IllegalArgumentException("Number of instances must be at least 1.");
+        }
+        if (settleMs < 0) {
+            throw new IllegalArgumentException("Settle time must not be negative.");
+        }
+
+        Set<String> extensions = new HashSet<>();
+        for (String extension : cmd.getOptionValue("extensions", DEFAULT_EXTENSIONS).split(",")) {
+            extensions.add(extension.trim().toLowerCase(Locale.ENGLISH));
+        }
+
+        if (libraryPath == null) {
+            libraryPath = Leopard.LIBRARY_PATH;
+        }
+
+        if (modelPath == null) {
+            modelPath = Leopard.MODEL_PATH;
+        }
+
+        if (device == null) {
+            device = "best";
+        }
+
+        runDemo(
+                accessKey,
+                modelPath,
+                device,
+                libraryPath,
+                enableAutomaticPunctuation,
+                enableDiarization,
+                numInstances,
+                inputDirectory,
+                outputDirectoryPath != null ? Paths.get(outputDirectoryPath).toAbsolutePath() : inputDirectory,
+                processedDirectoryPath != null ?
+                        Paths.get(processedDirectoryPath).toAbsolutePath() :
+                        inputDirectory.resolve("processed"),
+                failedDirectoryPath != null ?
+                        Paths.get(failedDirectoryPath).toAbsolutePath() :
+                        inputDirectory.resolve("failed"),
+                extensions,
+                settleMs,
+                verbose);
+    }
+
+    private static Options buildCommandLineOptions() {
+        Options options = new Options();
+
+        options.addOption(Option.builder("a")
+                .longOpt("access_key")
+                .hasArg(true)
+                .desc("AccessKey obtained from Picovoice Console (https://console.picovoice.ai/).")
+                .build());
+
+        options.addOption(Option.builder("m")
+                .longOpt("model_path")
+                .hasArg(true)
+                .desc("Absolute path to the file containing model parameters.")
+                .build());
+
+        options.addOption(Option.builder("y")
+                .longOpt("device")
+                .hasArg(true)
+                .desc("Device to run inference on (`best`, `cpu:{num_threads}` or `gpu:{gpu_index}`). " +
+                        "Default: automatically selects best device.")
+                .build());
+
+        options.addOption(Option.builder("l")
+                .longOpt("library_path")
+                .hasArg(true)
+                .desc("Absolute path to the Leopard native runtime library.")
+                .build());
+
+        options.addOption(Option.builder("dp")
+                .longOpt("disable_automatic_punctuation")
+                .desc("Disable automatic punctuation.")
+                .build());
+
+        options.addOption(Option.builder("dd")
+                .longOpt("disable_speaker_diarization")
+                .desc("Disable speaker diarization.")
+                .build());
+
+        options.addOption(Option.builder("i")
+                .longOpt("input_dir")
+                .hasArg(true)
+                .desc("Directory to watch for audio files.")
+                .build());
+
+        options.addOption(Option.builder("o")
+                .longOpt("output_dir")
+                .hasArg(true)
+                .desc("Directory to write `.txt` and `.json` transcripts to. Default: the input directory.")
+                .build());
+
+        options.addOption(Option.builder("pd")
+                .longOpt("processed_dir")
+                .hasArg(true)
+                .desc("Directory transcribed files are moved to. Default: `processed` in the input directory.")
+                .build());
+
+        options.addOption(Option.builder("fd")
+                .longOpt("failed_dir")
+                .hasArg(true)
+                .desc("Directory files that failed to transcribe are moved to. " +
+                        "Default: `failed` in the input directory.")
+                .build());
+
+        options.addOption(Option.builder("e")
+                .longOpt("extensions")
+                .hasArg(true)
+                .desc("Comma-separated extensions of the files to transcribe. Default: " + DEFAULT_EXTENSIONS + ".")
+                .build());
+
+        options.addOption(Option.builder("s")
+                .longOpt("settle_ms")
+                .hasArg(true)
+                .desc("Time a file's size must stay unchanged before it is transcribed. Default: 2000.")
+                .build());
+
+        options.addOption(Option.builder("n")
+                .longOpt("num_instances")
+                .hasArg(true)
+                .desc("Number of Leopard instances that transcribe files concurrently. Default: 1.")
+                .build());
+
+        options.addOption(Option.builder("v")
+                .longOpt("verbose")
+                .desc("Log every transcribed file.")
+                .build());
+
+        options.addOption(new Option("h", "help", false, ""));
+
+        return options;
+    }
+}
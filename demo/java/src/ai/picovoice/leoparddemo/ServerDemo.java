@@ -0,0 +1,486 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leoparddemo;
+
+import ai.picovoice.leopard.Leopard;
+import ai.picovoice.leopard.LeopardException;
+import ai.picovoice.leopard.LeopardTranscript;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.cli.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ServerDemo {
+
+    private static final int HANDLER_THREADS_PER_INSTANCE = 4;
+
+    private static final Map<String, String> CONTENT_TYPE_EXTENSIONS = new HashMap<>();
+
+    static {
+        CONTENT_TYPE_EXTENSIONS.put("audio/wav", "wav");
+        CONTENT_TYPE_EXTENSIONS.put("audio/wave", "wav");
+        CONTENT_TYPE_EXTENSIONS.put("audio/x-wav", "wav");
+        CONTENT_TYPE_EXTENSIONS.put("audio/mpeg", "mp3");
+        CONTENT_TYPE_EXTENSIONS.put("audio/mp3", "mp3");
+        CONTENT_TYPE_EXTENSIONS.put("audio/flac", "flac");
+        CONTENT_TYPE_EXTENSIONS.put("audio/x-flac", "flac");
+        CONTENT_TYPE_EXTENSIONS.put("audio/ogg", "ogg");
+        CONTENT_TYPE_EXTENSIONS.put("audio/opus", "opus");
+        CONTENT_TYPE_EXTENSIONS.put("audio/webm", "webm");
+        CONTENT_TYPE_EXTENSIONS.put("audio/mp4", "m4a");
+        CONTENT_TYPE_EXTENSIONS.put("audio/x-m4a", "m4a");
+        CONTENT_TYPE_EXTENSIONS.put("audio/aac", "aac");
+    }
+
+    private final BlockingQueue<Leopard> idleEngines;
+    private final List<Leopard> engines;
+    private final Path uploadDirectory;
+    private final boolean verbose;
+
+    private final AtomicInteger queueDepth = new AtomicInteger(0);
+    private final AtomicInteger numInFlight = new AtomicInteger(0);
+    private final AtomicLong numCompleted = new AtomicLong(0);
+    private final AtomicLong numFailed = new AtomicLong(0);
+    private final AtomicLong totalQueueNs = new AtomicLong(0);
+    private final AtomicLong totalAudioUs = new AtomicLong(0);
+    private final AtomicLong totalProcessUs = new AtomicLong(0);
+
+    private ServerDemo(List<Leopard> engines, Path uploadDirectory, boolean verbose) {
+        this.engines = engines;
+        this.idleEngines = new ArrayBlockingQueue<>(engines.size(), true, engines);
+        this.uploadDirectory = uploadDirectory;
+        this.verbose = verbose;
+    }
+
+    public static void runDemo(
+            String accessKey,
+            String modelPath,
+            String device,
+            String libraryPath,
+            boolean enableAutomaticPunctuation,
+            boolean enableDiarization,
+            int numInstances,
+            int port,
+            boolean verbose) {
+        List<Leopard> engines = new ArrayList<>(numInstances);
+        HttpServer server = null;
+        ExecutorService handlerExecutor = null;
+        try {
+            for (int i = 0; i < numInstances; i++) {
+                engines.add(new Leopard.Builder()
+                        .setAccessKey(accessKey)
+                        .setLibraryPath(libraryPath)
+                        .setModelPath(modelPath)
+                        .setDevice(device)
+                        .setEnableAutomaticPunctuation(enableAutomaticPunctuation)
+                        .setEnableDiarization(enableDiarization)
+                        .build());
+            }
+
+            ServerDemo demo = new ServerDemo(
+                    engines,
+                    Files.createTempDirectory("leopard-server-"),
+                    verbose);
+
+            // uploads are streamed by the handler threads while transcription is bounded by the engine pool,
+            // so more handler threads than engines keep every engine busy
+            handlerExecutor = Executors.newFixedThreadPool(numInstances * HANDLER_THREADS_PER_INSTANCE);
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/transcribe", demo::handleTranscribe);
+            server.createContext("/metrics", demo::handleMetrics);
+            server.setExecutor(handlerExecutor);
+            server.start();
+
+            System.out.format(
+                    "Listening on http://localhost:%d with %d Leopard instance(s) on `%s`.\n",
+                    port,
+                    numInstances,
+                    device);
+            System.out.println("POST audio to /transcribe and GET /metrics for queue depth and real-time factor.");
+            System.out.println("Press Enter to stop.");
+            System.in.read();
+        } catch (Exception e) {
+            System.out.println(e.toString());
+        } finally {
+            if (server != null) {
+                server.stop(1);
+            }
+            if (handlerExecutor != null) {
+                handlerExecutor.shutdown();
+                try {
+                    handlerExecutor.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (Leopard leopard : engines) {
+                leopard.delete();
+            }
+        }
+    }
+
+    private void handleTranscribe(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendJson(exchange, 405, errorJson("Use POST with the audio file as the request body."));
+                return;
+            }
+
+            // the engine picks the decoder from the file extension, so keep the one the client sent
+            Path audioPath = Files.createTempFile(uploadDirectory, "upload-", "." + getUploadExtension(exchange));
+            try {
+                // stream the upload to disk so request size does not grow the heap
+                try (InputStream body = exchange.getRequestBody()) {
+                    Files.copy(body, audioPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                double audioSec = getWavDurationSec(audioPath);
+
+                long queuedAt = System.nanoTime();
+                queueDepth.incrementAndGet();
+                Leopard leopard;
+                try {
+                    leopard = idleEngines.take();
+                } finally {
+                    queueDepth.decrementAndGet();
+                }
+                long startedAt = System.nanoTime();
+                totalQueueNs.addAndGet(startedAt - queuedAt);
+
+                LeopardTranscript transcript;
+                numInFlight.incrementAndGet();
+                try {
+                    transcript = leopard.processFile(audioPath.toString());
+                } finally {
+                    numInFlight.decrementAndGet();
+                    idleEngines.add(leopard);
+                }
+                double processSec = (System.nanoTime() - startedAt) * 1e-9;
+
+                numCompleted.incrementAndGet();
+                if (audioSec > 0) {
+                    totalAudioUs.addAndGet((long) (audioSec * 1e6));
+                    totalProcessUs.addAndGet((long) (processSec * 1e6));
+                }
+                if (verbose) {
+                    System.out.format(
+                            "transcribed %.2fs of audio in %.2fs (queued %.2fs)\n",
+                            audioSec,
+                            processSec,
+                            (startedAt - queuedAt) * 1e-9);
+                }
+
+                sendJson(exchange, 200, transcriptJson(transcript, audioSec, processSec));
+            } finally {
+                Files.deleteIfExists(audioPath);
+            }
+        } catch (LeopardException e) {
+            numFailed.incrementAndGet();
+            sendJson(exchange, 400, errorJson(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            numFailed.incrementAndGet();
+            sendJson(exchange, 503, errorJson("Server is shutting down."));
+        } catch (IOException e) {
+            numFailed.incrementAndGet();
+            sendJson(exchange, 500, errorJson(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            long completed = numCompleted.get();
+            double audioSec = totalAudioUs.get() * 1e-6;
+            double processSec = totalProcessUs.get() * 1e-6;
+            String json = String.format(
+                    Locale.ENGLISH,
+                    "{\"instances\":%d,\"idle_instances\":%d,\"in_flight\":%d,\"queue_depth\":%d," +
+                            "\"completed\":%d,\"failed\":%d,\"mean_queue_sec\":%.3f," +
+                            "\"audio_sec\":%.3f,\"process_sec\":%.3f,\"rtf\":%s}",
+                    engines.size(),
+                    idleEngines.size(),
+                    numInFlight.get(),
+                    queueDepth.get(),
+                    completed,
+                    numFailed.get(),
+                    completed > 0 ? totalQueueNs.get() * 1e-9 / completed : 0.0,
+                    audioSec,
+                    processSec,
+                    audioSec > 0 ? String.format(Locale.ENGLISH, "%.4f", processSec / audioSec) : "null");
+            sendJson(exchange, 200, json);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Returns the file extension of an upload, taken from a `filename` query parameter, a `Content-Disposition`
+     * filename or the `Content-Type` header, in that order. Defaults to `wav` when none of them name a format.
+     */
+    private static String getUploadExtension(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("filename=")) {
+                    String extension = getFilenameExtension(
+                            URLDecoder.decode(param.substring("filename=".length()), "UTF-8"));
+                    if (extension != null) {
+                        return extension;
+                    }
+                }
+            }
+        }
+
+        String disposition = exchange.getRequestHeaders().getFirst("Content-Disposition");
+        if (disposition != null) {
+            int index = disposition.toLowerCase(Locale.ENGLISH).indexOf("filename=");
+            if (index >= 0) {
+                String extension = getFilenameExtension(
+                        disposition.substring(index + "filename=".length()).split(";")[0].replace("\"", ""));
+                if (extension != null) {
+                    return extension;
+                }
+            }
+        }
+
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null) {
+            String extension = CONTENT_TYPE_EXTENSIONS.get(
+                    contentType.split(";")[0].trim().toLowerCase(Locale.ENGLISH));
+            if (extension != null) {
+                return extension;
+            }
+        }
+        return "wav";
+    }
+
+    private static String getFilenameExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String extension = filename.substring(dot + 1).trim().toLowerCase(Locale.ENGLISH);
+        return extension.matches("[a-z0-9]{1,8}") ? extension : null;
+    }
+
+    /**
+     * Reads the duration of a WAV file from its header, so the real-time factor can be reported.
+     * Returns `-1` for other formats, which are still transcribed but left out of the real-time factor.
+     */
+    private static double getWavDurationSec(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            byte[] header = new byte[12];
+            if (file.read(header) != header.length ||
+                    !new String(header, 0, 4, StandardCharsets.US_ASCII).equals("RIFF") ||
+                    !new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WAVE")) {
+                return -1;
+            }
+
+            int byteRate = 0;
+            byte[] chunkHeader = new byte[8];
+            while (file.read(chunkHeader) == chunkHeader.length) {
+                ByteBuffer buffer = ByteBuffer.wrap(chunkHeader).order(ByteOrder.LITTLE_ENDIAN);
+                String chunkId = new String(chunkHeader, 0, 4, StandardCharsets.US_ASCII);
+                long chunkSize = buffer.getInt(4) & 0xFFFFFFFFL;
+                if (chunkId.equals("fmt ")) {
+                    byte[] fmt = new byte[12];
+                    if (file.read(fmt) != fmt.length) {
+                        return -1;
+                    }
+                    byteRate = ByteBuffer.wrap(fmt).order(ByteOrder.LITTLE_ENDIAN).getInt(8);
+                    file.seek(file.getFilePointer() - fmt.length);
+                } else if (chunkId.equals("data")) {
+                    long dataSize = Math.min(chunkSize, file.length() - file.getFilePointer());
+                    return byteRate > 0 ? (double) dataSize / byteRate : -1;
+                }
+                file.seek(file.getFilePointer() + chunkSize + (chunkSize & 1));
+            }
+            return -1;
+        }
+    }
+
+    private static String transcriptJson(LeopardTranscript transcript, double audioSec, double processSec) {
+        StringBuilder json = TranscriptJson.appendFields(new StringBuilder("{"), transcript);
+        if (audioSec > 0) {
+            json.append(String.format(Locale.ENGLISH, ",\"audio_sec\":%.3f", audioSec));
+        }
+        json.append(String.format(Locale.ENGLISH, ",\"process_sec\":%.3f}", processSec));
+        return json.toString();
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\":" + TranscriptJson.quote(message != null ? message : "") + "}";
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options = buildCommandLineOptions();
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter formatter = new HelpFormatter();
+
+        CommandLine cmd;
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            formatter.printHelp("leopardserverdemo", options);
+            System.exit(1);
+            return;
+        }
+
+        if (cmd.hasOption("help")) {
+            formatter.printHelp("leopardserverdemo", options);
+            return;
+        }
+
+        String accessKey = cmd.getOptionValue("access_key");
+        String modelPath = cmd.getOptionValue("model_path");
+        String device = cmd.getOptionValue("device");
+        String libraryPath = cmd.getOptionValue("library_path");
+        boolean enableAutomaticPunctuation = !cmd.hasOption("disable_automatic_punctuation");
+        boolean enableDiarization = !cmd.hasOption("disable_speaker_diarization");
+        boolean verbose = cmd.hasOption("verbose");
+
+        if (accessKey == null || accessKey.length() == 0) {
+            throw new IllegalArgumentException("AccessKey is required for Leopard.");
+        }
+
+        int numInstances;
+        int port;
+        try {
+            numInstances = Integer.parseInt(cmd.getOptionValue("num_instances", "1"));
+            port = Integer.parseInt(cmd.getOptionValue("port", "8000"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Number of instances and port must be integers.");
+        }
+        if (numInstances < 1) {
+            throw new IllegalArgumentException("Number of instances must be at least 1.");
+        }
+
+        if (libraryPath == null) {
+            libraryPath = Leopard.LIBRARY_PATH;
+        }
+
+        if (modelPath == null) {
+            modelPath = Leopard.MODEL_PATH;
+        }
+
+        if (device == null) {
+            device = "best";
+        }
+
+        runDemo(
+                accessKey,
+                modelPath,
+                device,
+                libraryPath,
+                enableAutomaticPunctuation,
+                enableDiarization,
+                numInstances,
+                port,
+                verbose);
+    }
+
+    private static Options buildCommandLineOptions() {
+        Options options = new Options();
+
+        options.addOption(Option.builder("a")
+                .longOpt("access_key")
+                .hasArg(true)
+                .desc("AccessKey obtained from Picovoice Console (https://console.picovoice.ai/).")
+                .build());
+
+        options.addOption(Option.builder("m")
+                .longOpt("model_path")
+                .hasArg(true)
+                .desc("Absolute path to the file containing model parameters.")
+                .build());
+
+        options.addOption(Option.builder("y")
+                .longOpt("device")
+                .hasArg(true)
+                .desc("Device to run inference on (`best`, `cpu:{num_threads}` or `gpu:{gpu_index}`). " +
+                        "Default: automatically selects best device.")
+                .build());
+
+        options.addOption(Option.builder("l")
+                .longOpt("library_path")
+                .hasArg(true)
+                .desc("Absolute path to the Leopard native runtime library.")
+                .build());
+
+        options.addOption(Option.builder("dp")
+                .longOpt("disable_automatic_punctuation")
+                .desc("Disable automatic punctuation.")
+                .build());
+
+        options.addOption(Option.builder("dd")
+                .longOpt("disable_speaker_diarization")
+                .desc("Disable speaker diarization.")
+                .build());
+
+        options.addOption(Option.builder("n")
+                .longOpt("num_instances")
+                .hasArg(true)
+                .desc("Number of Leopard instances that transcribe requests concurrently. Default: 1.")
+                .build());
+
+        options.addOption(Option.builder("p")
+                .longOpt("port")
+                .hasArg(true)
+                .desc("Port to listen on. Default: 8000.")
+                .build());
+
+        options.addOption(Option.builder("v")
+                .longOpt("verbose")
+                .desc("Log every transcribed request.")
+                .build());
+
+        options.addOption(new Option("h", "help", false, ""));
+
+        return options;
+    }
+}
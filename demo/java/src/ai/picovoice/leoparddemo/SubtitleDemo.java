@@ -0,0 +1,541 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leoparddemo;
+
+import ai.picovoice.leopard.Leopard;
+import ai.picovoice.leopard.LeopardException;
+import ai.picovoice.leopard.LeopardTranscript;
+import org.apache.commons.cli.*;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SubtitleDemo {
+
+    private static final float SEARCH_WINDOW_SEC = 3.0f;
+    private static final float QUIET_FRAME_SEC = 0.02f;
+    private static final float ENDPOINT_SEC = 1.0f;
+
+    public static void runDemo(
+            String accessKey,
+            String modelPath,
+            String device,
+            String libraryPath,
+            boolean enableAutomaticPunctuation,
+            boolean enableDiarization,
+            int numInstances,
+            float chunkSec,
+            int maxLineLength,
+            File inputAudioFile,
+            File outputFile) {
+        List<Leopard> engines = new ArrayList<>(numInstances);
+        ExecutorService executor = null;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(outputFile.toPath()), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < numInstances; i++) {
+                engines.add(new Leopard.Builder()
+                        .setAccessKey(accessKey)
+                        .setLibraryPath(libraryPath)
+                        .setModelPath(modelPath)
+                        .setDevice(device)
+                        .setEnableAutomaticPunctuation(enableAutomaticPunctuation)
+                        .setEnableDiarization(enableDiarization)
+                        .build());
+            }
+            final BlockingQueue<Leopard> idleEngines = new ArrayBlockingQueue<>(numInstances, false, engines);
+            final int sampleRate = engines.get(0).getSampleRate();
+            final CueWriter cueWriter = new CueWriter(
+                    writer,
+                    outputFile.getName().toLowerCase().endsWith(".vtt"),
+                    maxLineLength);
+
+            final long before = System.nanoTime();
+            final AudioInputStream audio = openPcmStream(inputAudioFile, sampleRate);
+            double audioSec;
+            if (audio == null) {
+                // formats Java Sound cannot decode (e.g. MP3) are transcribed in one piece by the engine
+                System.out.println("Input cannot be decoded in chunks; transcribing it as a single file.");
+                LeopardTranscript transcript = engines.get(0).processFile(inputAudioFile.getPath());
+                for (LeopardTranscript.Word word : transcript.getWordArray()) {
+                    cueWriter.add(word, 0);
+                }
+                LeopardTranscript.Word[] words = transcript.getWordArray();
+                audioSec = words.length > 0 ? words[words.length - 1].getEndSec() : 0;
+            } else {
+                executor = Executors.newFixedThreadPool(numInstances);
+                audioSec = transcribeInChunks(
+                        audio,
+                        sampleRate,
+                        (int) (chunkSec * sampleRate),
+                        numInstances,
+                        idleEngines,
+                        executor,
+                        cueWriter);
+            }
+            cueWriter.finish();
+            final double elapsedSec = (System.nanoTime() - before) * 1e-9;
+
+            System.out.format(
+                    "Wrote %d subtitles to %s: %.1fs of audio in %.1fs (%.1fx realtime).\n",
+                    cueWriter.getNumCues(),
+                    outputFile.getPath(),
+                    audioSec,
+                    elapsedSec,
+                    audioSec / elapsedSec);
+        } catch (Exception e) {
+            System.out.println(e.toString());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (Leopard leopard : engines) {
+                leopard.delete();
+            }
+        }
+    }
+
+    private static AudioInputStream openPcmStream(File file, int sampleRate) throws IOException {
+        final AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(file);
+        } catch (UnsupportedAudioFileException e) {
+            return null;
+        }
+        final AudioFormat target = new AudioFormat(sampleRate, 16, 1, true, false);
+        if (source.getFormat().matches(target)) {
+            return source;
+        }
+        if (AudioSystem.isConversionSupported(target, source.getFormat())) {
+            return AudioSystem.getAudioInputStream(target, source);
+        }
+        source.close();
+        return null;
+    }
+
+    /**
+     * Reads the audio in chunks of about `chunkLength` samples and transcribes them concurrently. At most two
+     * chunks per engine are buffered, so memory stays bounded however long the input is, and results are written
+     * in order as soon as the earliest chunk completes.
+     *
+     * @return Duration of the audio in seconds.
+     */
+    private static double transcribeInChunks(
+            AudioInputStream audio,
+            int sampleRate,
+            int chunkLength,
+            int numInstances,
+            BlockingQueue<Leopard> idleEngines,
+            ExecutorService executor,
+            CueWriter cueWriter) throws IOException, LeopardException, InterruptedException {
+        final ChunkReader reader = new ChunkReader(audio, sampleRate, chunkLength);
+        final ArrayDeque<Future<LeopardTranscript>> pending = new ArrayDeque<>();
+        final ArrayDeque<Long> pendingStartSamples = new ArrayDeque<>();
+        try {
+            long startSample = 0;
+            short[] chunk;
+            while ((chunk = reader.next()) != null) {
+                final short[] pcm = chunk;
+                pending.addLast(executor.submit(() -> {
+                    final Leopard leopard = idleEngines.take();
+                    try {
+                        return leopard.process(pcm);
+                    } finally {
+                        idleEngines.add(leopard);
+                    }
+                }));
+                pendingStartSamples.addLast(startSample);
+                startSample += pcm.length;
+
+                if (pending.size() >= numInstances * 2) {
+                    writeNext(pending, pendingStartSamples, sampleRate, cueWriter);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeNext(pending, pendingStartSamples, sampleRate, cueWriter);
+            }
+            return (double) startSample / sampleRate;
+        } finally {
+            audio.close();
+        }
+    }
+
+    private static void writeNext(
+            ArrayDeque<Future<LeopardTranscript>> pending,
+            ArrayDeque<Long> pendingStartSamples,
+            int sampleRate,
+            CueWriter cueWriter) throws IOException, LeopardException, InterruptedException {
+        final LeopardTranscript transcript;
+        try {
+            transcript = pending.pollFirst().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeopardException) {
+                throw (LeopardException) e.getCause();
+            }
+            throw new LeopardException(e.getCause());
+        }
+        final double offsetSec = (double) pendingStartSamples.pollFirst() / sampleRate;
+        for (LeopardTranscript.Word word : transcript.getWordArray()) {
+            cueWriter.add(word, offsetSec);
+        }
+    }
+
+    /**
+     * Splits a PCM stream into chunks, cutting each one at the quietest frame near its end so that words are not
+     * split between chunks.
+     */
+    private static class ChunkReader {
+        private final InputStream stream;
+        private final int chunkLength;
+        private final int searchLength;
+        private final int frameLength;
+        private final byte[] bytes;
+        private short[] carry = new short[0];
+        private boolean isEof = false;
+
+        ChunkReader(InputStream stream, int sampleRate, int chunkLength) {
+            this.stream = stream;
+            this.frameLength = Math.max(1, (int) (QUIET_FRAME_SEC * sampleRate));
+            this.searchLength = Math.min((int) (SEARCH_WINDOW_SEC * sampleRate), chunkLength / 2);
+            this.chunkLength = Math.max(chunkLength, frameLength * 2);
+            this.bytes = new byte[this.chunkLength * 2];
+        }
+
+        short[] next() throws IOException {
+            if (isEof && carry.length == 0) {
+                return null;
+            }
+
+            final short[] buffer = new short[chunkLength];
+            System.arraycopy(carry, 0, buffer, 0, carry.length);
+            int length = carry.length;
+            if (!isEof) {
+                final int numBytes = readFully((chunkLength - length) * 2);
+                for (int i = 0; i + 1 < numBytes; i += 2) {
+                    buffer[length++] = (short) ((bytes[i] & 0xFF) | (bytes[i + 1] << 8));
+                }
+            }
+            if (length == 0) {
+                return null;
+            }
+            if (length < chunkLength) {
+                carry = new short[0];
+                return trim(buffer, length);
+            }
+
+            final int cut = findQuietestFrameEnd(buffer);
+            carry = new short[chunkLength - cut];
+            System.arraycopy(buffer, cut, carry, 0, carry.length);
+            return trim(buffer, cut);
+        }
+
+        private int readFully(int numBytes) throws IOException {
+            int offset = 0;
+            while (offset < numBytes) {
+                final int read = stream.read(bytes, offset, numBytes - offset);
+                if (read < 0) {
+                    isEof = true;
+                    break;
+                }
+                offset += read;
+            }
+            return offset;
+        }
+
+        private int findQuietestFrameEnd(short[] buffer) {
+            int bestEnd = buffer.length;
+            long bestEnergy = Long.MAX_VALUE;
+            for (int end = buffer.length; end - frameLength >= buffer.length - searchLength; end -= frameLength) {
+                long energy = 0;
+                for (int i = end - frameLength; i < end; i++) {
+                    energy += Math.abs(buffer[i]);
+                }
+                if (energy < bestEnergy) {
+                    bestEnergy = energy;
+                    bestEnd = end - frameLength / 2;
+                }
+            }
+            return bestEnd;
+        }
+
+        private static short[] trim(short[] buffer, int length) {
+            if (length == buffer.length) {
+                return buffer;
+            }
+            final short[] trimmed = new short[length];
+            System.arraycopy(buffer, 0, trimmed, 0, length);
+            return trimmed;
+        }
+    }
+
+    /**
+     * Groups words into subtitle cues as they arrive and writes each cue as soon as it is complete. A cue ends at
+     * a pause, a change of speaker, or when its line would exceed the maximum length.
+     */
+    private static class CueWriter {
+        private final Writer writer;
+        private final boolean isVtt;
+        private final int maxLineLength;
+        private final StringBuilder text = new StringBuilder();
+        private double cueStartSec;
+        private double cueEndSec;
+        private int cueSpeakerTag;
+        private int numCues = 0;
+
+        CueWriter(Writer writer, boolean isVtt, int maxLineLength) throws IOException {
+            this.writer = writer;
+            this.isVtt = isVtt;
+            this.maxLineLength = maxLineLength;
+            if (isVtt) {
+                writer.write("WEBVTT\n\n");
+            }
+        }
+
+        void add(LeopardTranscript.Word word, double offsetSec) throws IOException {
+            final double startSec = word.getStartSec() + offsetSec;
+            final double endSec = word.getEndSec() + offsetSec;
+            if (text.length() > 0) {
+                final boolean isEndpoint = startSec - cueEndSec >= ENDPOINT_SEC;
+                final boolean isSpeakerChange = word.getSpeakerTag() != cueSpeakerTag;
+                final boolean isTooLong = text.length() + 1 + word.getWord().length() > maxLineLength;
+                if (isEndpoint || isSpeakerChange || isTooLong) {
+                    writeCue();
+                }
+            }
+            if (text.length() == 0) {
+                cueStartSec = startSec;
+                cueSpeakerTag = word.getSpeakerTag();
+            } else {
+                text.append(' ');
+            }
+            text.append(word.getWord());
+            cueEndSec = endSec;
+        }
+
+        void finish() throws IOException {
+            if (text.length() > 0) {
+                writeCue();
+            }
+            writer.flush();
+        }
+
+        int getNumCues() {
+            return numCues;
+        }
+
+        private void writeCue() throws IOException {
+            numCues++;
+            if (!isVtt) {
+                writer.write(numCues + "\n");
+            }
+            writer.write(formatTimecode(cueStartSec) + " --> " + formatTimecode(cueEndSec) + "\n");
+            if (isVtt && cueSpeakerTag > 0) {
+                writer.write("<v Speaker " + cueSpeakerTag + ">");
+            }
+            writer.write(text + "\n\n");
+            text.setLength(0);
+        }
+
+        private String formatTimecode(double sec) {
+            long ms = Math.max(0, Math.round(sec * 1000.0));
+            return String.format(
+                    "%02d:%02d:%02d%c%03d",
+                    ms / 3600000,
+                    (ms / 60000) % 60,
+                    (ms / 1000) % 60,
+                    isVtt ? '.' : ',',
+                    ms % 1000);
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options = buildCommandLineOptions();
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter formatter = new HelpFormatter();
+
+        CommandLine cmd;
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            formatter.printHelp("leopardsubtitledemo", options);
+            System.exit(1);
+            return;
+        }
+
+        if (cmd.hasOption("help")) {
+            formatter.printHelp("leopardsubtitledemo", options);
+            return;
+        }
+
+        String accessKey = cmd.getOptionValue("access_key");
+        String modelPath = cmd.getOptionValue("model_path");
+        String device = cmd.getOptionValue("device");
+        String libraryPath = cmd.getOptionValue("library_path");
+        boolean enableAutomaticPunctuation = !cmd.hasOption("disable_automatic_punctuation");
+        boolean enableDiarization = !cmd.hasOption("disable_speaker_diarization");
+        String inputAudioPath = cmd.getOptionValue("input_audio_path");
+        String outputPath = cmd.getOptionValue("output_path");
+
+        if (accessKey == null || accessKey.length() == 0) {
+            throw new IllegalArgumentException("AccessKey is required for Leopard.");
+        }
+
+        if (inputAudioPath == null) {
+            throw new IllegalArgumentException("No input audio file provided. This is a required argument.");
+        }
+        File inputAudioFile = new File(inputAudioPath);
+        if (!inputAudioFile.exists()) {
+            throw new IllegalArgumentException(String.format("Audio file at path %s does not exits.", inputAudioPath));
+        }
+
+        if (outputPath == null) {
+            String name = inputAudioFile.getPath();
+            int extension = name.lastIndexOf('.');
+            outputPath = (extension > name.lastIndexOf(File.separatorChar) ? name.substring(0, extension) : name) +
+                    ".srt";
+        }
+
+        int numInstances;
+        float chunkSec;
+        int maxLineLength;
+        try {
+            numInstances = Integer.parseInt(cmd.getOptionValue("num_instances", "1"));
+            chunkSec = Float.parseFloat(cmd.getOptionValue("chunk_sec", "120"));
+            maxLineLength = Integer.parseInt(cmd.getOptionValue("max_line_length", "42"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Number of instances, chunk length and line length must be numbers.");
+        }
+        if (numInstances < 1 || chunkSec < 10 || maxLineLength < 1) {
+            throw new IllegalArgumentException(
+                    "Requires at least 1 instance, chunks of at least 10 seconds and a positive line length.");
+        }
+
+        if (libraryPath == null) {
+            libraryPath = Leopard.LIBRARY_PATH;
+        }
+
+        if (modelPath == null) {
+            modelPath = Leopard.MODEL_PATH;
+        }
+
+        if (device == null) {
+            device = "best";
+        }
+
+        runDemo(
+                accessKey,
+                modelPath,
+                device,
+                libraryPath,
+                enableAutomaticPunctuation,
+                enableDiarization,
+                numInstances,
+                chunkSec,
+                maxLineLength,
+                inputAudioFile,
+                new File(outputPath));
+    }
+
+    private static Options buildCommandLineOptions() {
+        Options options = new Options();
+
+        options.addOption(Option.builder("a")
+                .longOpt("access_key")
+                .hasArg(true)
+                .desc("AccessKey obtained from Picovoice Console (https://console.picovoice.ai/).")
+                .build());
+
+        options.addOption(Option.builder("m")
+                .longOpt("model_path")
+                .hasArg(true)
+                .desc("Absolute path to the file containing model parameters.")
+                .build());
+
+        options.addOption(Option.builder("y")
+                .longOpt("device")
+                .hasArg(true)
+                .desc("Device to run inference on (`best`, `cpu:{num_threads}` or `gpu:{gpu_index}`). " +
+                        "Default: automatically selects best device.")
+                .build());
+
+        options.addOption(Option.builder("l")
+                .longOpt("library_path")
+                .hasArg(true)
+                .desc("Absolute path to the Leopard native runtime library.")
+                .build());
+
+        options.addOption(Option.builder("dp")
+                .longOpt("disable_automatic_punctuation")
+                .desc("Disable automatic punctuation.")
+                .build());
+
+        options.addOption(Option.builder("dd")
+                .longOpt("disable_speaker_diarization")
+                .desc("Disable speaker diarization.")
+                .build());
+
+        options.addOption(Option.builder("i")
+                .longOpt("input_audio_path")
+                .hasArg(true)
+                .desc("Absolute path to input audio file.")
+                .build());
+
+        options.addOption(Option.builder("o")
+                .longOpt("output_path")
+                .hasArg(true)
+                .desc("Path to the subtitle file. A `.vtt` extension writes WebVTT, anything else SubRip. " +
+                        "Default: input path with a `.srt` extension.")
+                .build());
+
+        options.addOption(Option.builder("n")
+                .longOpt("num_instances")
+                .hasArg(true)
+                .desc("Number of Leopard instances that transcribe chunks concurrently. Default: 1.")
+                .build());
+
+        options.addOption(Option.builder("c")
+                .longOpt("chunk_sec")
+                .hasArg(true)
+                .desc("Approximate length of the chunks the audio is split into, in seconds. Default: 120.")
+                .build());
+
+        options.addOption(Option.builder("ml")
+                .longOpt("max_line_length")
+                .hasArg(true)
+                .desc("Maximum number of characters per subtitle. Default: 42.")
+                .build());
+
+        options.addOption(new Option("h", "help", false, ""));
+
+        return options;
+    }
+}
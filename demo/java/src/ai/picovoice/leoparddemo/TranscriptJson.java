@@ -0,0 +1,80 @@
+/*
+    Copyright 2025 Picovoice Inc.
+
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.leoparddemo;
+
+import ai.picovoice.leopard.LeopardTranscript;
+
+import java.util.Locale;
+
+/**
+ * JSON output shared by the demos that write transcripts.
+ */
+final class TranscriptJson {
+
+    private TranscriptJson() {
+    }
+
+    /**
+     * Appends the `transcript` and `words` fields of a JSON object, without the enclosing braces.
+     */
+    static StringBuilder appendFields(StringBuilder json, LeopardTranscript transcript) {
+        json.append("\"transcript\":").append(quote(transcript.getTranscriptString()));
+        json.append(",\"words\":[");
+        LeopardTranscript.Word[] words = transcript.getWordArray();
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(
+                    Locale.ENGLISH,
+                    "{\"word\":%s,\"start_sec\":%.3f,\"end_sec\":%.3f,\"confidence\":%.3f,\"speaker_tag\":%d}",
+                    quote(words[i].getWord()),
+                    words[i].getStartSec(),
+                    words[i].getEndSec(),
+                    words[i].getConfidence(),
+                    words[i].getSpeakerTag()));
+        }
+        return json.append(']');
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}